@@ -0,0 +1,86 @@
+package model;
+
+import config.RSSConfiguration;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.InvalidObjectException;
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Building RSSChannel of archive-style feed: 10000 items in random order, 10 of them are printed.
+ * bounded selects items with RSSChannel (bounded heap), sorted is the former filter-sort-limit pipeline
+ * which builds RSSItem for every item.
+ * Run with: mvn test-compile exec:exec -Pbench -Djmh.args="RSSChannelBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RSSChannelBenchmark {
+
+    private static final String feed = "http://www.example.org/archive.rss";
+
+    @Param({"10000"})
+    public int items;
+
+    @Param({"10"})
+    public int maxItems;
+
+    private final RSSConfiguration configuration = RSSConfiguration.getInstance();
+    private FeedModel model;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        configuration.addRSSFeed(feed, "archive.txt");
+        configuration.setFeedMaxItems(feed, maxItems);
+
+        SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        Random random = new Random(42);
+        long start = 1500000000000L;
+
+        model = new FeedModel();
+        model.metaSource.put("title", "Archive");
+        model.metaSource.put("link", "http://www.example.org");
+        model.metaSource.put("description", "Every story ever published");
+        for (int i = 0; i < items; i++) {
+            Map<String, String> item = new HashMap<>();
+            item.put("title", "Story number " + i);
+            item.put("link", "http://www.example.org/story/" + i);
+            item.put("description", "Description of story " + i);
+            item.put("guid", String.valueOf(i));
+            item.put("pubdate", format.format(new Date(start + random.nextInt(1000000) * 60000L)));
+            model.itemSources.add(item);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        configuration.delRSSFeed(feed);
+    }
+
+    @Benchmark
+    public RSSChannel bounded() throws InvalidObjectException {
+        return new RSSChannel(configuration, feed, model);
+    }
+
+    @Benchmark
+    public List<RSSItem> sorted() throws InvalidObjectException {
+        List<RSSItem> all = new ArrayList<>();
+        for (Map<String, String> item : model.itemSources) {
+            all.add(new RSSItem(configuration, feed, item));
+        }
+        Date latestPubDate = configuration.getRSSFeedLastPubDate(feed);
+        return all
+                .stream()
+                .filter(i -> i.getLatestPubDate().compareTo(latestPubDate == null ? new Date(0) : latestPubDate) > 0)
+                .sorted(Comparator.comparing(RSSItem::getLatestPubDate, Comparator.reverseOrder()))
+                .limit(configuration.getFeedMaxItems(feed))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,128 @@
+package parser;
+
+import config.RSSConfiguration;
+import model.FeedModel;
+import model.ItemSource;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of feed made of Atom fields: mapping to RSS fields as they are read against the former
+ * atomToRSS pass which copied the whole model once more after parsing.
+ * Former parser kept raw Atom keys, so the pass rewrites sources which still hold them
+ * Run with: mvn test-compile exec:exec -Pbench -Djmh.args="AtomMappingBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AtomMappingBenchmark {
+
+    @Param({"2000"})
+    public int items;
+
+    private byte[] feed;
+    /**
+     * Sources with raw Atom keys, as former parser left them for the rewrite pass. The pass only reads them
+     */
+    private Map<String, String> rawMetaSource;
+    private List<Map<String, String>> rawItemSources;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StringBuilder builder = new StringBuilder()
+                .append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<rss xmlns:atom=\"http://www.w3.org/2005/Atom\">\n")
+                .append("  <atom:feed>\n")
+                .append("    <atom:title>Breaking News</atom:title>\n")
+                .append("    <atom:subtitle>Latest news &amp; features</atom:subtitle>\n")
+                .append("    <atom:link rel=\"self\" href=\"https://www.example.org/atom\"/>\n")
+                .append("    <atom:updated>2019-05-19T10:00:00Z</atom:updated>\n");
+        rawMetaSource = new HashMap<>();
+        rawMetaSource.put("atom:title", "Breaking News");
+        rawMetaSource.put("atom:subtitle", "Latest news & features");
+        rawMetaSource.put("atom:link", "");
+        rawMetaSource.put("atom:updated", "2019-05-19T10:00:00Z");
+        rawItemSources = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            Map<String, String> rawItemSource = new ItemSource();
+            rawItemSource.put("atom:title", "Story number " + i);
+            rawItemSource.put("atom:link", "");
+            rawItemSource.put("atom:id", "urn:uuid:" + i);
+            rawItemSource.put("atom:published", "2019-05-19T09:00:00Z");
+            rawItemSource.put("atom:updated", "2019-05-19T10:00:00Z");
+            rawItemSource.put("atom:summary", "Summary of story " + i);
+            rawItemSource.put("atom:author", "Editor");
+            rawItemSources.add(rawItemSource);
+            builder
+                    .append("    <atom:entry>\n")
+                    .append("      <atom:title>Story number ").append(i).append("</atom:title>\n")
+                    .append("      <atom:link rel=\"alternate\" href=\"https://www.example.org/news/")
+                    .append(i).append("\"/>\n")
+                    .append("      <atom:id>urn:uuid:").append(i).append("</atom:id>\n")
+                    .append("      <atom:published>2019-05-19T09:00:00Z</atom:published>\n")
+                    .append("      <atom:updated>2019-05-19T10:00:00Z</atom:updated>\n")
+                    .append("      <atom:summary>Summary of story ").append(i).append("</atom:summary>\n")
+                    .append("      <atom:author>Editor</atom:author>\n")
+                    .append("    </atom:entry>\n");
+        }
+        builder.append("  </atom:feed>\n</rss>\n");
+        feed = builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public FeedModel parseTime() {
+        return new FeedModelParser().parse(new ByteArrayInputStream(feed));
+    }
+
+    /**
+     * Former pipeline: parse, then rewrite sources with raw Atom keys.
+     * Parse stands for the former one, which read the same elements without mapping them
+     *
+     * @return model with RSS fields only
+     */
+    @Benchmark
+    public FeedModel rewritePass() {
+        FeedModel model = new FeedModelParser().parse(new ByteArrayInputStream(feed));
+        model.metaSource = rawMetaSource;
+        model.itemSources = rawItemSources;
+        rewrite(model);
+        return model;
+    }
+
+    /**
+     * Former FeedModel.atomToRSS: every source is copied with keys passed through atomToRSS
+     *
+     * @param model parsed model
+     */
+    private static void rewrite(FeedModel model) {
+        Map<String, String> newMetaSource = new HashMap<>();
+        model.metaSource.keySet().forEach(key -> putAtomOrRss(model.metaSource, newMetaSource, key));
+        List<Map<String, String>> newItemSources = new ArrayList<>();
+        for (Map<String, String> itemSource : model.itemSources) {
+            Map<String, String> newItemSource = new ItemSource();
+            itemSource.keySet().forEach(key -> putAtomOrRss(itemSource, newItemSource, key));
+            newItemSources.add(newItemSource);
+        }
+        model.metaSource = newMetaSource;
+        model.itemSources = newItemSources;
+    }
+
+    private static void putAtomOrRss(Map<String, String> src, Map<String, String> dest, String key) {
+        String transformedKey = RSSConfiguration.atomToRSS(key);
+        if (transformedKey.equals(key)) {
+            dest.put(transformedKey, src.get(key));
+        } else if (!dest.containsKey(transformedKey)) {
+            dest.put(transformedKey, src.get(key));
+        }
+    }
+}
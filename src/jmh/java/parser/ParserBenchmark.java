@@ -0,0 +1,187 @@
+package parser;
+
+import model.FeedModel;
+import org.openjdk.jmh.annotations.*;
+
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.XMLEvent;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of FeedModelParser (StAX cursor API) against the former XMLEventReader based pipeline
+ * over large feeds shaped like real-world ones: HTML descriptions, enclosures, namespaced fields.
+ * cursorProjected keeps only title and link of channel and items, as it's done for configured feeds.
+ * Allocation rate is reported with GC profiler: mvn test-compile exec:exec -Pbench -Djmh.args="ParserBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ParserBenchmark {
+
+    @Param({"100", "2000"})
+    public int items;
+
+    private byte[] feed;
+    private final FieldProjection projection = FieldProjection.of(
+            Arrays.asList("title", "link"), Arrays.asList("title", "link")
+    );
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StringBuilder builder = new StringBuilder()
+                .append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<rss version=\"2.0\" xmlns:atom=\"http://www.w3.org/2005/Atom\" ")
+                .append("xmlns:dc=\"http://purl.org/dc/elements/1.1/\">\n")
+                .append("  <channel>\n")
+                .append("    <title>Breaking News</title>\n")
+                .append("    <link>https://www.example.org/news</link>\n")
+                .append("    <description>Latest news &amp; features</description>\n")
+                .append("    <atom:link href=\"https://www.example.org/rss\" rel=\"self\" type=\"application/rss+xml\"/>\n")
+                .append("    <language>en-us</language>\n");
+        for (int i = 0; i < items; i++) {
+            builder
+                    .append("    <item>\n")
+                    .append("      <title>Story number ").append(i).append(" &amp; its follow-up</title>\n")
+                    .append("      <link>https://www.example.org/news/").append(i).append("</link>\n")
+                    .append("      <description><![CDATA[<p>Paragraph of story ").append(i)
+                    .append(" with <a href=\"https://www.example.org\">a link</a> and some more text ")
+                    .append("to make description as long as real ones usually are.</p>]]></description>\n")
+                    .append("      <enclosure url=\"https://www.example.org/img/").append(i)
+                    .append(".jpg\" length=\"12345\" type=\"image/jpeg\"/>\n")
+                    .append("      <guid isPermaLink=\"false\">").append(i).append("</guid>\n")
+                    .append("      <pubDate>Sun, 19 May 2019 10:00:00 GMT</pubDate>\n")
+                    .append("      <dc:creator>Editor</dc:creator>\n")
+                    .append("      <category>News</category>\n")
+                    .append("    </item>\n");
+        }
+        builder.append("  </channel>\n</rss>\n");
+        feed = builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public FeedModel cursor() {
+        return new FeedModelParser().parse(new ByteArrayInputStream(feed));
+    }
+
+    @Benchmark
+    public FeedModel cursorProjected() {
+        return new FeedModelParser().parse(new ByteArrayInputStream(feed), projection);
+    }
+
+    @Benchmark
+    public FeedModel event() throws XMLStreamException {
+        return EventParser.parse(new ByteArrayInputStream(feed));
+    }
+
+    /**
+     * Former XMLEventReader based parsing pipeline kept as the baseline
+     */
+    private static class EventParser {
+
+        static FeedModel parse(InputStream in) throws XMLStreamException {
+            FeedModel model = new FeedModel();
+            XMLEventReader reader = XMLInputFactory.newInstance().createXMLEventReader(in);
+            while (reader.hasNext()) {
+                XMLEvent event = reader.nextEvent();
+                if (event.isStartElement()) {
+                    String localPart = event.asStartElement().getName().getLocalPart();
+                    if (localPart.equals(FeedModel.FEED_CHANNEL) || localPart.equals(FeedModel.ATOM_CHANNEL)) {
+                        return channel(reader);
+                    }
+                }
+            }
+            return model;
+        }
+
+        static FeedModel channel(XMLEventReader reader) throws XMLStreamException {
+            FeedModel model = new FeedModel();
+            while (reader.hasNext()) {
+                XMLEvent event = reader.nextEvent();
+                if (event.isStartElement()) {
+                    String prefix = event.asStartElement().getName().getPrefix();
+                    String localPart = event.asStartElement().getName().getLocalPart();
+                    if (localPart.equals(FeedModel.FEED_ITEM) || localPart.equals(FeedModel.ATOM_ITEM)) {
+                        model.itemSources.add(item(reader));
+                    } else if (prefix.equals("atom")) {
+                        model.metaSource.put((prefix + ":" + localPart).toLowerCase(), atom(event, reader));
+                    } else {
+                        model.metaSource.put(localPart.toLowerCase(), characters(reader));
+                    }
+                } else if (event.isEndElement()
+                        && event.asEndElement().getName().getLocalPart().equals(FeedModel.FEED_CHANNEL)) {
+                    break;
+                }
+            }
+            return model;
+        }
+
+        static Map<String, String> item(XMLEventReader reader) throws XMLStreamException {
+            Map<String, String> model = new HashMap<>();
+            while (reader.hasNext()) {
+                XMLEvent event = reader.nextEvent();
+                if (event.isStartElement()) {
+                    String prefix = event.asStartElement().getName().getPrefix();
+                    String localPart = event.asStartElement().getName().getLocalPart();
+                    if (prefix.equals("atom")) {
+                        model.put((prefix + ":" + localPart).toLowerCase(), atom(event, reader));
+                    } else {
+                        model.put(localPart.toLowerCase(), characters(reader));
+                    }
+                } else if (event.isEndElement()
+                        && event.asEndElement().getName().getLocalPart().equals(FeedModel.FEED_ITEM)) {
+                    break;
+                }
+            }
+            return model;
+        }
+
+        static String atom(XMLEvent event, XMLEventReader reader) throws XMLStreamException {
+            if (!event.asStartElement().getName().getLocalPart().equals("link")) {
+                return characters(reader);
+            }
+            Iterator<Attribute> attributes = event.asStartElement().getAttributes();
+            String rel = "", href = "";
+            while (attributes.hasNext()) {
+                Attribute attribute = attributes.next();
+                if (attribute.getName().toString().equals("rel")) rel = attribute.getValue();
+                if (attribute.getName().toString().equals("href")) href = attribute.getValue();
+            }
+            return rel + " : " + href;
+        }
+
+        static String characters(XMLEventReader reader) throws XMLStreamException {
+            StringWriter writer = new StringWriter();
+            XMLEventWriter eventWriter = XMLOutputFactory.newInstance().createXMLEventWriter(writer);
+            XMLEvent event = reader.nextEvent();
+            if (event.isEndElement()) return "";
+            int depth = 1;
+            while (reader.hasNext() && depth > 0) {
+                if (!(event.isCharacters() && event.asCharacters().isWhiteSpace())) {
+                    eventWriter.add(event);
+                }
+                event = reader.nextEvent();
+                if (event.isStartElement()) depth++;
+                if (event.isEndElement()) depth--;
+            }
+            if (reader.hasNext()) reader.nextEvent();
+            eventWriter.flush();
+            return writer.toString();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package parser;
+
+import model.FeedModel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import util.XMLInputFactoryProvider;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a single parse of small feed with shared XMLInputFactory
+ * against looking up and configuring new factory for every parse, as it was done before
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@OperationsPerInvocation(XMLInputFactoryBenchmark.FEEDS)
+public class XMLInputFactoryBenchmark {
+
+    static final int FEEDS = 5000;
+
+    private byte[][] feeds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        feeds = new byte[FEEDS][];
+        for (int i = 0; i < FEEDS; i++) {
+            String feed = "<rss>\n" +
+                    "  <channel>\n" +
+                    "    <title>Feed " + i + "</title>\n" +
+                    "    <description>Small feed</description>\n" +
+                    "    <item>\n" +
+                    "      <title>Item of feed " + i + "</title>\n" +
+                    "      <description>Description</description>\n" +
+                    "      <pubDate>Sun, 19 May 2019 10:00:00 GMT</pubDate>\n" +
+                    "    </item>\n" +
+                    "  </channel>\n" +
+                    "</rss>\n";
+            feeds[i] = feed.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Benchmark
+    public void sharedFactory(Blackhole blackhole) {
+        for (byte[] feed : feeds) {
+            FeedModel model = new FeedModelParser().parse(new ByteArrayInputStream(feed));
+            blackhole.consume(model);
+        }
+    }
+
+    @Benchmark
+    public void factoryPerParse(Blackhole blackhole) {
+        for (byte[] feed : feeds) {
+            FeedModel model = new FeedModelParser(XMLInputFactoryProvider.newInstance())
+                    .parse(new ByteArrayInputStream(feed));
+            blackhole.consume(model);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package poller;
+
+import config.PollMode;
+import config.RSSConfiguration;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cycle time of Poller.poll over stub feeds with simulated network latency
+ * in PLATFORM (bounded pool) and VIRTUAL (thread per feed) modes.
+ * VIRTUAL mode requires Java 21: mvn test-compile exec:exec -Pjava21,bench -Djmh.args=PollModeBenchmark
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class PollModeBenchmark {
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    public PollMode mode;
+
+    @Param({"10000"})
+    public int feeds;
+
+    @Param({"64"})
+    public int pollThreads;
+
+    @Param({"20"})
+    public int latencyMillis;
+
+    private RSSConfiguration configuration;
+    private Poller poller;
+    private Path directory;
+    private List<String> links;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        configuration = RSSConfiguration.getInstance();
+        configuration.setPollThreads(pollThreads);
+        configuration.setPollMode(mode);
+
+        byte[] body = readResource("poller" + File.separator + "regularRss.xml");
+        directory = Files.createTempDirectory("poll-mode-benchmark");
+        links = new ArrayList<>();
+        for (int i = 0; i < feeds; i++) {
+            String link = "http://localhost/stub-" + i + ".rss";
+            configuration.addRSSFeed(link, directory.resolve("stub-" + i + ".txt").toString());
+            links.add(link);
+        }
+
+        poller = new Poller() {
+            @Override
+            FeedResponse fetch(String feed, String etag, String lastModified) throws IOException {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(latencyMillis);
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException(e.getMessage());
+                }
+                return new FeedResponse(new ByteArrayInputStream(body), null, null);
+            }
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        poller.shutdownNow();
+        links.forEach(configuration::delRSSFeed);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public void pollCycle() {
+        poller.poll(configuration);
+    }
+
+    private static byte[] readResource(String resource) throws IOException {
+        try (InputStream in = PollModeBenchmark.class.getClassLoader().getResourceAsStream(resource)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+}
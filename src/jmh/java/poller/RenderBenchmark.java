@@ -0,0 +1,96 @@
+package poller;
+
+import config.FieldMask;
+import model.ItemSource;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Rendering of a channel with its items into text as it's printed to file:
+ * FeedRenderer appending into reused buffer against the former String.format and stream based getStringFromMap
+ * with List.contains filtering. Channel keeps 3 of 6 properties, every item keeps 4 of 6 ones.
+ * Run with: mvn test-compile exec:exec -Pbench -Djmh.args="RenderBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RenderBenchmark {
+
+    @Param({"10", "100"})
+    public int items;
+
+    private final List<String> channelFields = Arrays.asList("title", "link", "description");
+    private final List<String> itemFields = Arrays.asList("title", "link", "description", "pubdate");
+    private final FieldMask channelMask = FieldMask.ofChannelFields(channelFields);
+    private final FieldMask itemMask = FieldMask.ofItemFields(itemFields);
+    private final Predicate<String> isChannelField = channelMask::contains;
+    private final Predicate<String> isItemField = itemMask::contains;
+
+    private Map<String, String> channel;
+    private final List<Map<String, String>> itemBodies = new ArrayList<>();
+    private final FeedRenderer renderer = new FeedRenderer();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        channel = new HashMap<>();
+        channel.put("title", "Breaking News");
+        channel.put("link", "https://www.example.org/news");
+        channel.put("description", "Latest news & features");
+        channel.put("language", "en-us");
+        channel.put("generator", "Example CMS");
+        channel.put("lastbuilddate", "Sun, 19 May 2019 10:00:00 GMT");
+        for (int i = 0; i < items; i++) {
+            Map<String, String> item = new ItemSource();
+            item.put("title", "Story number " + i + " & its follow-up");
+            item.put("link", "https://www.example.org/news/" + i);
+            item.put("description", "<p>Paragraph of story " + i + " with <a href=\"https://www.example.org\">a link</a>"
+                    + " and some more text to make description as long as real ones usually are.</p>");
+            item.put("pubdate", "Sun, 19 May 2019 10:00:00 GMT");
+            item.put("guid", String.valueOf(i));
+            item.put("category", "News");
+            itemBodies.add(item);
+        }
+    }
+
+    @Benchmark
+    public CharSequence renderer() {
+        renderer.reset().append(channel, isChannelField, 0);
+        for (Map<String, String> item : itemBodies) {
+            renderer.append(item, isItemField, 1);
+        }
+        return renderer.getText();
+    }
+
+    @Benchmark
+    public String formatted() {
+        StringBuilder text = new StringBuilder(format(channel, channelFields, 0));
+        for (Map<String, String> item : itemBodies) {
+            text.append(format(item, itemFields, 1));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Former Poller.getStringFromMap kept as the baseline
+     */
+    private static String format(Map<String, String> map, List<String> availableKeys, int initialIndent) {
+        StringBuilder indentation = new StringBuilder();
+        for (int i = 0; i < initialIndent; i++) {
+            indentation.append("\t");
+        }
+        String indentationStr = indentation.toString();
+        return map.entrySet()
+                .stream()
+                .filter((keyValue) -> availableKeys.contains(keyValue.getKey()))
+                .map(keyValue -> String.format("%s%s:\n%s\t%s\n", indentationStr, keyValue.getKey(),
+                        indentationStr, keyValue.getValue()))
+                .collect(Collectors.joining()) + "\n";
+    }
+}
@@ -0,0 +1,94 @@
+package util;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of 1000 pubDates with PubDateParser against the former SimpleDateFormat based one.
+ * rfc822 is "Tue, 03 May 2016 11:46:11 +0200", ctime is "Tue May 03 11:46:11 EST 2016" which former parser
+ * reached after four failed formats, rfc3339 is "2016-05-03T11:46:11+02:00" which former parser didn't know.
+ * Run with: mvn test-compile exec:exec -Pbench -Djmh.args="PubDateParserBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PubDateParserBenchmark {
+
+    private static final int count = 1000;
+
+    @Param({"rfc822", "ctime", "rfc3339"})
+    public String layout;
+
+    private final String[] pubDates = new String[count];
+
+    /**
+     * Former PubDateParser formats
+     */
+    private final DateFormat[] formatters = {
+            new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US),
+            new SimpleDateFormat("EEE, dd MMM yyyy HH:mm zzz", Locale.US),
+            new SimpleDateFormat("EEE MMM dd HH:mm:ss yyyy zzz", Locale.US),
+            new SimpleDateFormat("EEE MMM dd HH:mm yyyy zzz", Locale.US),
+            new SimpleDateFormat("EEE MMM dd HH:mm:ss zzz yyyy", Locale.US),
+            new SimpleDateFormat("EEE MMM dd HH:mm zzz yyyy", Locale.US)
+    };
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String pattern;
+        switch (layout) {
+            case "rfc822": pattern = "EEE, dd MMM yyyy HH:mm:ss Z"; break;
+            case "ctime": pattern = "EEE MMM dd HH:mm:ss 'EST' yyyy"; break;
+            default: pattern = "yyyy-MM-dd'T'HH:mm:ssXXX";
+        }
+        SimpleDateFormat format = new SimpleDateFormat(pattern, Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("Europe/Berlin"));
+        Random random = new Random(42);
+        for (int i = 0; i < count; i++) {
+            pubDates[i] = format.format(new Date(1500000000000L + random.nextInt(1000000) * 60000L));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(count)
+    public void handWritten(Blackhole blackhole) {
+        for (String pubDate : pubDates) {
+            blackhole.consume(PubDateParser.parseMillis(pubDate));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(count)
+    public void simpleDateFormat(Blackhole blackhole) {
+        for (String pubDate : pubDates) {
+            blackhole.consume(legacyParse(pubDate));
+        }
+    }
+
+    /**
+     * Parse pubDate the way PubDateParser used to
+     *
+     * @param pubDate String representation of pubDate
+     * @return Date representation of pubDate or null
+     */
+    private Date legacyParse(String pubDate) {
+        for (DateFormat formatter : formatters) {
+            try {
+                return formatter.parse(pubDate);
+            } catch (ParseException ignored) {}
+        }
+        return null;
+    }
+}
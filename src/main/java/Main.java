@@ -1,10 +1,13 @@
 import cli.CommandLineParser;
 import config.AutoRSSConfigurator;
+import config.ConfigCheckpointer;
+import config.RSSConfiguration;
 import poller.Poller;
 import util.Log;
 
 import javax.xml.bind.ValidationException;
 import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Main running thread
@@ -13,8 +16,9 @@ public class Main {
     private static Log log = new Log(Main.class.getName(), System.out);
 
     /**
-     * Initializations, Config reading and running in 3 threads:
-     * shutdown hook for saving config, polling for the whole work and CLI parsing and managing.
+     * Initializations, Config reading and running in 4 threads:
+     * shutdown hook for saving config, polling for the whole work, checkpointing of polled state
+     * and CLI parsing and managing.
      *
      * Note: Always tries to save configuration on shutdown.
      *      Delete config file to run application from scratch
@@ -24,6 +28,13 @@ public class Main {
     public static void main(String[] args) {
 
         AutoRSSConfigurator.loadRSSConfiguration();
+        AutoRSSConfigurator.startJournal();
+
+        // Checkpoint last pubDates in background, so they are not lost if shutdown hook doesn't run
+        ConfigCheckpointer checkpointer = new ConfigCheckpointer();
+        Thread checkpointThread = new Thread(checkpointer, "Checkpointer");
+        checkpointThread.setDaemon(true);
+        checkpointThread.start();
 
         // Initialize CLI
         CommandLineParser cli = new CommandLineParser();
@@ -33,6 +44,8 @@ public class Main {
         // Initialize thread and start it
         Poller poller = new Poller();
         Thread pollingThread = new Thread(poller, "Poller");
+        // Items are forced to disk before their pubDates are checkpointed
+        AutoRSSConfigurator.setOutputCommitter(poller::commitWrittenFiles);
         pollingThread.start();
 
         // Save in case of external shutdown
@@ -40,6 +53,16 @@ public class Main {
                 new Thread(() -> {
                     log.warn("Trying to save configuration");
                     poller.stop();
+                    try {
+                        // Feeds are written before their pubDates are saved, or they'd be lost
+                        long timeout = 2 * RSSConfiguration.getInstance().getTimeToPoll();
+                        if (!poller.awaitStop(timeout, TimeUnit.SECONDS)) {
+                            log.warn("Not all the RSS Feeds are written before configuration is saved");
+                        }
+                    } catch (InterruptedException e) {
+                        log.error("Waiting for output is interrupted: " + e.getMessage());
+                    }
+                    checkpointer.stop();
                     AutoRSSConfigurator.saveRSSConfigurationOnShutdown();
                     log.warn("Configuration saved");
                 })
@@ -60,9 +83,11 @@ public class Main {
         }
 
         try {
-            // Graceful shutdown
+            // Graceful shutdown, polling thread writes the rest of output before it stops
             log.info("Waiting for polling thread to stop...");
             pollingThread.join();
+            checkpointer.stop();
+            checkpointThread.join();
         } catch (InterruptedException e) {
             log.error("Waiting for thread is interrupted: " + e.getMessage());
         }
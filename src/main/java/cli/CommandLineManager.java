@@ -1,7 +1,11 @@
 package cli;
 
 import config.AutoRSSConfigurator;
+import config.CheckpointStatistics;
+import config.DurabilityMode;
+import config.PollMode;
 import config.RSSConfiguration;
+import poller.PollStatistics;
 import util.Log;
 import validator.RSSFeedValidator;
 
@@ -76,12 +80,40 @@ class CommandLineManager {
                             "<rss link>:\n\t\t\t\t" +
                                 "Get max count of items per poll for RSS Feed\n\t\t\t" +
                             "<rss link> <count>:\n\t\t\t\t" +
-                                "Set max count of items per poll for RSS Feed\n\t" +
+                                "Set max count of items per poll for RSS Feed\n\t\t" +
+                        "time:\n\t\t\t" +
+                            "<rss link>:\n\t\t\t\t" +
+                                "Get poll interval in seconds for RSS Feed\n\t\t\t" +
+                            "<rss link> <time> OR <rss link> default:\n\t\t\t\t" +
+                                "Set poll interval in seconds for RSS Feed or use global time to poll\n\t" +
                     "time:\n\t\t" +
                         "(w/o params):\n\t\t\t" +
                             "Get current time to poll in seconds\n\t\t" +
                         "<time>:\n\t\t\t" +
                             "Set time to poll in seconds\n\t" +
+                    "threads:\n\t\t" +
+                        "(w/o params):\n\t\t\t" +
+                            "Get current count of threads polling RSS Feeds in parallel\n\t\t" +
+                        "<count>:\n\t\t\t" +
+                            "Set count of threads polling RSS Feeds in parallel\n\t" +
+                    "mode:\n\t\t" +
+                        "(w/o params):\n\t\t\t" +
+                            "Get current poll mode\n\t\t" +
+                        "platform OR virtual:\n\t\t\t" +
+                            "Poll on the pool of threads or on virtual thread per feed (Java 21+)\n\t" +
+                    "durability:\n\t\t" +
+                        "(w/o params):\n\t\t\t" +
+                            "Get current durability mode of RSS Feed files\n\t\t" +
+                        "none OR cycle OR feed:\n\t\t\t" +
+                            "Never force files, force files written during poll cycle together or force file per feed\n\t" +
+                    "checkpoint:\n\t\t" +
+                        "(w/o params):\n\t\t\t" +
+                            "Get current interval in seconds of saving last pubDates changed by polls\n\t\t" +
+                        "<time>:\n\t\t\t" +
+                            "Set interval in seconds of saving last pubDates changed by polls\n\t" +
+                    "stats:\n\t\t" +
+                        "Get statistics of polls: how many feeds were not parsed because they are not changed,\n\t\t" +
+                        "and of checkpoints: how many dirty feeds they saved and how long they took\n\t" +
                     "save:\n\t\t" +
                         "Save current configuration\n\t" +
                     "help:\n\t\t" +
@@ -194,6 +226,26 @@ class CommandLineManager {
         prettyPrint("Configured maxItems count for " + link + " is " + RSSConfiguration.getInstance().getFeedMaxItems(link));
     }
 
+    /**
+     * Set RSS feed poll interval
+     *
+     * @param link rss feed link
+     * @param interval poll interval in seconds or null to use time to poll
+     */
+    void setRSSPollInterval(String link, Long interval) {
+        RSSConfiguration.getInstance().setFeedPollInterval(link, interval);
+        log.info("Set poll interval of " + link + " to " + (interval == null ? "default" : interval));
+    }
+
+    /**
+     * Print RSS feed poll interval, time to poll is printed if feed has no own interval
+     *
+     * @param link rss feed link
+     */
+    void printRSSPollInterval(String link) {
+        prettyPrint("Poll interval for " + link + " is " + RSSConfiguration.getInstance().getFeedPollInterval(link));
+    }
+
     /**
      * Get Rss status (On or Off)
      *
@@ -302,6 +354,87 @@ class CommandLineManager {
         prettyPrint("Time to poll is " + RSSConfiguration.getInstance().getTimeToPoll());
     }
 
+    /**
+     * Set count of threads polling RSS Feeds
+     *
+     * @param threads count of threads
+     */
+    void setPollThreads(Integer threads) {
+        RSSConfiguration.getInstance().setPollThreads(threads);
+        log.info("Set poll threads to " + threads);
+    }
+
+    /**
+     * Print count of threads polling RSS Feeds
+     */
+    void printPollThreads() {
+        prettyPrint("Poll threads count is " + RSSConfiguration.getInstance().getPollThreads());
+    }
+
+    /**
+     * Set the way RSS Feeds are polled
+     *
+     * @param mode poll mode
+     */
+    void setPollMode(PollMode mode) {
+        RSSConfiguration.getInstance().setPollMode(mode);
+        log.info("Set poll mode to " + mode);
+    }
+
+    /**
+     * Print the way RSS Feeds are polled
+     */
+    void printPollMode() {
+        prettyPrint("Poll mode is " + RSSConfiguration.getInstance().getPollMode());
+    }
+
+    /**
+     * Set the way RSS Feeds written to files are made durable
+     *
+     * @param mode durability mode
+     */
+    void setDurabilityMode(DurabilityMode mode) {
+        RSSConfiguration.getInstance().setDurabilityMode(mode);
+        log.info("Set durability mode to " + mode);
+    }
+
+    /**
+     * Print the way RSS Feeds written to files are made durable
+     */
+    void printDurabilityMode() {
+        prettyPrint("Durability mode is " + RSSConfiguration.getInstance().getDurabilityMode());
+    }
+
+    /**
+     * Set how often last pubDates changed by polls are checkpointed
+     *
+     * @param interval checkpoint interval in seconds
+     */
+    void setCheckpointInterval(Long interval) {
+        RSSConfiguration.getInstance().setCheckpointInterval(interval);
+        log.info("Set checkpoint interval to " + interval);
+    }
+
+    /**
+     * Print how often last pubDates changed by polls are checkpointed
+     */
+    void printCheckpointInterval() {
+        prettyPrint("Checkpoint interval is " + RSSConfiguration.getInstance().getCheckpointInterval());
+    }
+
+    /**
+     * Print statistics of polls and checkpoints done since start
+     * and hits of learned date layouts per feed: misses mean fallback attempts
+     */
+    void printStatistics() {
+        prettyPrint(PollStatistics.getInstance().toString());
+        prettyPrint(CheckpointStatistics.getInstance().toString());
+        RSSConfiguration configuration = RSSConfiguration.getInstance();
+        configuration.getRSSFeeds().keySet().forEach(feed -> configuration.getRSSFeedDateFormats(feed).forEach(
+                (field, dateFormat) -> prettyPrint(feed + " " + field + " layout: " + dateFormat)
+        ));
+    }
+
     /**
      * Save current configurations
      */
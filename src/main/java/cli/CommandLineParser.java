@@ -1,5 +1,8 @@
 package cli;
 
+import config.DurabilityMode;
+import config.PollMode;
+
 import javax.xml.bind.ValidationException;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -175,6 +178,24 @@ public class CommandLineParser {
                         }
                         break;
                     }
+                    // go into feed poll interval
+                    case "time": {
+                        if (params.size() < 1) {
+                            throw new IllegalArgumentException("Not enough params for rss time");
+                        } else if (params.size() > 2) {
+                            throw new IllegalArgumentException("Too many params for rss time");
+                        }
+                        String rssLink = params.get(0);
+                        // print current interval
+                        if (params.size() == 1) {
+                            manager.printRSSPollInterval(rssLink);
+                        } else if ("default".equals(params.get(1))) {
+                            manager.setRSSPollInterval(rssLink, null);
+                        } else {
+                            manager.setRSSPollInterval(rssLink, Long.valueOf(params.get(1)));
+                        }
+                        break;
+                    }
                 }
             // print all feeds
             } else {
@@ -194,6 +215,65 @@ public class CommandLineParser {
             } else {
                 manager.printTimeToPoll();
             }
+        // threads
+        } else if ("threads".equals(cmd)) {
+            // set
+            if (params.size() > 0) {
+                if (params.size() != 1) {
+                    throw new IllegalArgumentException("Too many params for threads");
+                }
+                String newPollThreads = params.get(0);
+                manager.setPollThreads(Integer.valueOf(newPollThreads));
+                manager.prettyPrint("Successfully set poll threads to " + newPollThreads);
+            // print
+            } else {
+                manager.printPollThreads();
+            }
+        // mode
+        } else if ("mode".equals(cmd)) {
+            // set
+            if (params.size() > 0) {
+                if (params.size() != 1) {
+                    throw new IllegalArgumentException("Too many params for mode");
+                }
+                String newPollMode = params.get(0);
+                manager.setPollMode(PollMode.valueOf(newPollMode.toUpperCase()));
+                manager.prettyPrint("Successfully set poll mode to " + newPollMode);
+            // print
+            } else {
+                manager.printPollMode();
+            }
+        // durability
+        } else if ("durability".equals(cmd)) {
+            // set
+            if (params.size() > 0) {
+                if (params.size() != 1) {
+                    throw new IllegalArgumentException("Too many params for durability");
+                }
+                String newDurabilityMode = params.get(0);
+                manager.setDurabilityMode(DurabilityMode.valueOf(newDurabilityMode.toUpperCase()));
+                manager.prettyPrint("Successfully set durability mode to " + newDurabilityMode);
+            // print
+            } else {
+                manager.printDurabilityMode();
+            }
+        // checkpoint
+        } else if ("checkpoint".equals(cmd)) {
+            // set
+            if (params.size() > 0) {
+                if (params.size() != 1) {
+                    throw new IllegalArgumentException("Too many params for checkpoint");
+                }
+                String newCheckpointInterval = params.get(0);
+                manager.setCheckpointInterval(Long.valueOf(newCheckpointInterval));
+                manager.prettyPrint("Successfully set checkpoint interval to " + newCheckpointInterval);
+            // print
+            } else {
+                manager.printCheckpointInterval();
+            }
+        // stats
+        } else if ("stats".equals(cmd)) {
+            manager.printStatistics();
         // help
         } else if ("help".equals(cmd)) {
             manager.printHelp();
@@ -3,19 +3,45 @@ package config;
 import util.Log;
 
 import java.io.*;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.StringJoiner;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 
-import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
 
 /**
  * Saves and loads configuration file with the following structure:
- * Time to poll
- * Feed;File;Status;LastPubDate;ChannelFields(,);ItemFields(,)
+ * TimeToPoll;PollThreads;PollMode;DurabilityMode;CheckpointInterval
+ * Feed;File;Status;LastPubDate;ChannelFields(,);ItemFields(,);PollInterval;ETag;LastModified;MaxItems
  * ...
+ * ETag and LastModified are URL-encoded since they are sent by server and may contain any character
+ *
+ * Config file is written as a whole to temporary file which then replaces it, so it's never left half-written.
+ * Between saves every change is appended to journal next to config file as one of the records:
+ * G;(global line) for application-wide settings, +;(feed line) for added or changed feed, -;Feed for removed one.
+ * Records hold the whole state of what they change, so they may be replayed over config file more than once.
+ * Journal is compacted into config file once it gets long enough, loading replays journal over config file.
+ * Last pubDates and cache validators change on every poll, so they are not journaled one by one:
+ * checkpoint appends records of feeds marked dirty since the previous one as a single batch.
+ * Feed is marked dirty only after its items are written, and output committer forces them to disk
+ * before their pubDates are, so neither journal nor config file is ever ahead of output
  */
 public class AutoRSSConfigurator {
 
@@ -24,6 +50,27 @@ public class AutoRSSConfigurator {
 
     private static boolean configurationSavedOnShutdown = false;
 
+    private static final String GLOBAL_RECORD = "G";
+    private static final String PUT_RECORD = "+";
+    private static final String DEL_RECORD = "-";
+
+    /**
+     * Count of journal records after which journal is compacted into config file
+     */
+    static int compactionThreshold = 1000;
+
+    /**
+     * Guards journal and config file, so records are not appended while config file is being replaced
+     */
+    private static final Object journalLock = new Object();
+    private static ConfigJournal journal;
+    private static final Consumer<String> journalListener = AutoRSSConfigurator::journalChange;
+
+    /**
+     * Forces output written so far to disk, false if it can't be forced. Nothing to force until poller is set
+     */
+    private static volatile BooleanSupplier outputCommitter = () -> true;
+
     /**
      * Set another config file
      *
@@ -33,6 +80,25 @@ public class AutoRSSConfigurator {
         AutoRSSConfigurator.file = file;
     }
 
+    /**
+     * Set callback which forces output written so far to disk.
+     * It's called before pubDates of written feeds are checkpointed or saved
+     *
+     * @param committer callback which returns false if output can't be forced
+     */
+    public static void setOutputCommitter(BooleanSupplier committer) {
+        outputCommitter = committer;
+    }
+
+    /**
+     * Get journal file which belongs to config file
+     *
+     * @return path to journal
+     */
+    static Path getJournalPath() {
+        return Paths.get(file + ".journal");
+    }
+
     /**
      * Special method which indicates that configuration is being saved on shutdown,
      * i.e. last time
@@ -40,35 +106,175 @@ public class AutoRSSConfigurator {
     public static void saveRSSConfigurationOnShutdown() {
         if (!configurationSavedOnShutdown) {
             saveRSSConfiguration();
+            stopJournal();
             configurationSavedOnShutdown = true;
         }
     }
 
     /**
-     * Save the whole configuration stored in RSSConfiguration instance
+     * Start to append every change of RSSConfiguration instance to journal.
+     * Config file is saved first, so journal which is replayed on load is emptied
+     */
+    public static void startJournal() {
+        synchronized (journalLock) {
+            if (journal != null) return;
+            journal = new ConfigJournal(getJournalPath());
+            saveRSSConfiguration();
+            RSSConfiguration.getInstance().addChangeListener(journalListener);
+        }
+    }
+
+    /**
+     * Stop to append changes to journal, records which are already appended stay in it
+     */
+    public static void stopJournal() {
+        synchronized (journalLock) {
+            if (journal == null) return;
+            RSSConfiguration.getInstance().removeChangeListener(journalListener);
+            try {
+                journal.close();
+            } catch (IOException e) {
+                log.error("Error occurred during closing journal: " + e.getMessage());
+            }
+            journal = null;
+        }
+    }
+
+    /**
+     * Append record about change to journal and compact journal if it's long enough.
+     * Journal is forced to disk in FEED durability mode only
      *
-     * Checks for file, then tries to write all the configurations in format described above
+     * @param feed changed feed or null if application-wide setting is changed
      */
-    public static void saveRSSConfiguration() {
-        File f = new File(file);
-        try {
-            f.delete();
-            f.createNewFile();
-        } catch (IOException e) {
-            log.error("Error occurred during creating file: " + e.getMessage());
-            log.error("Configuration won't be saved");
-            return;
+    private static void journalChange(String feed) {
+        synchronized (journalLock) {
+            if (journal == null) return;
+            RSSConfiguration configuration = RSSConfiguration.getInstance();
+            try {
+                journal.append(getRecord(feed, configuration), configuration.getDurabilityMode() == DurabilityMode.FEED);
+            } catch (IOException e) {
+                log.error("Error occurred during writing to journal: " + e.getMessage());
+                return;
+            }
+            if (journal.getRecords() >= compactionThreshold) {
+                saveRSSConfiguration();
+            }
+        }
+    }
+
+    /**
+     * Append records of feeds which last pubDate or cache validators are changed since the previous checkpoint
+     * to journal with a single write. Output of the feeds is committed first, then journal is forced to disk
+     * unless durability mode is NONE. If either fails, feeds stay dirty for the next checkpoint.
+     * Nothing is done unless journal is started
+     *
+     * @return count of dirty feeds written, 0 if journal is not started or checkpoint failed
+     */
+    public static int checkpoint() {
+        synchronized (journalLock) {
+            if (journal == null) return 0;
+            long start = System.nanoTime();
+            List<FeedState> dirty = new ArrayList<>();
+            List<String> records = new ArrayList<>();
+            RSSConfiguration.getInstance().getSnapshot().getFeedStates().forEach((feed, state) -> {
+                // flag is cleared before state is read, so change made meanwhile is caught by the next checkpoint
+                if (state.getInfo().dirty.getAndSet(false)) {
+                    dirty.add(state);
+                    records.add(PUT_RECORD + ";" + getRSSFeedFullInfo(feed, state));
+                }
+            });
+            if (!records.isEmpty()) {
+                try {
+                    // pubDate must not reach disk before items it stands for, or they'd be skipped after crash
+                    if (!outputCommitter.getAsBoolean()) {
+                        throw new IOException("Output of RSS Feeds can't be forced to disk");
+                    }
+                    DurabilityMode mode = RSSConfiguration.getInstance().getDurabilityMode();
+                    journal.append(records, mode != DurabilityMode.NONE);
+                } catch (IOException e) {
+                    dirty.forEach(state -> state.getInfo().dirty.set(true));
+                    CheckpointStatistics.getInstance().notifyFailure();
+                    log.error("Error occurred during checkpoint: " + e.getMessage());
+                    return 0;
+                }
+            }
+            CheckpointStatistics.getInstance().notifyCheckpoint(records.size(), System.nanoTime() - start);
+            if (journal.getRecords() >= compactionThreshold) {
+                saveRSSConfiguration();
+            }
+            return records.size();
+        }
+    }
+
+    /**
+     * Compose journal record with the current state of what is changed
+     *
+     * @param feed changed feed or null if application-wide setting is changed
+     * @param configuration instance of RSSConfiguration
+     * @return journal record
+     */
+    static String getRecord(String feed, RSSConfiguration configuration) {
+        if (feed == null) {
+            return GLOBAL_RECORD + ";" + getGlobalInfo(configuration);
         }
+        FeedState state = configuration.getSnapshot().getFeedStates().get(feed);
+        return state == null
+                ? DEL_RECORD + ";" + feed
+                : PUT_RECORD + ";" + getRSSFeedFullInfo(feed, state);
+    }
 
-        synchronized (RSSConfiguration.getInstance()) {
+    /**
+     * Save the whole configuration stored in RSSConfiguration instance
+     *
+     * Writes all the configurations in format described above to temporary file with a single write,
+     * forces it to disk and renames it to config file. Then journal is emptied.
+     * Dirty feeds are written as well, so they are not dirty any more.
+     * Output is committed before, and if it can't be, nothing is saved and dirty feeds stay dirty
+     */
+    public static void saveRSSConfiguration() {
+        synchronized (journalLock) {
             RSSConfiguration configuration = RSSConfiguration.getInstance();
+            StringBuilder builder = new StringBuilder(getGlobalInfo(configuration)).append("\n");
+            List<FeedState> dirty = new ArrayList<>();
+            configuration.getSnapshot().getFeedStates().forEach((feed, state) -> {
+                if (state.getInfo().dirty.getAndSet(false)) dirty.add(state);
+                builder.append(getRSSFeedFullInfo(feed, state)).append("\n");
+            });
+            if (!dirty.isEmpty() && !outputCommitter.getAsBoolean()) {
+                dirty.forEach(state -> state.getInfo().dirty.set(true));
+                log.error("Output of RSS Feeds can't be forced to disk. Configuration won't be saved");
+                return;
+            }
+
+            Path path = Paths.get(file);
+            Path temp = Paths.get(file + ".tmp");
             try {
-                Files.write(f.toPath(), (getTimeToPoll(configuration) + "\n").getBytes(), APPEND);
-                for (String feed : configuration.getRSSFeeds().keySet()) {
-                    Files.write(f.toPath(), (getRSSFeedFullInfo(feed, configuration) + "\n").getBytes(), APPEND);
+                try (FileChannel channel = FileChannel.open(temp, CREATE, WRITE, TRUNCATE_EXISTING)) {
+                    ByteBuffer bytes = ByteBuffer.wrap(builder.toString().getBytes(StandardCharsets.UTF_8));
+                    while (bytes.hasRemaining()) {
+                        channel.write(bytes);
+                    }
+                    channel.force(true);
+                }
+                try {
+                    Files.move(temp, path, ATOMIC_MOVE, REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, path, REPLACE_EXISTING);
                 }
             } catch (IOException e) {
-                log.error("Not all the configuration can be written.");
+                log.error("Error occurred during writing config file: " + e.getMessage());
+                log.error("Configuration won't be saved");
+                return;
+            }
+
+            try {
+                if (journal != null) {
+                    journal.truncate();
+                } else {
+                    Files.deleteIfExists(getJournalPath());
+                }
+            } catch (IOException e) {
+                log.error("Journal can't be emptied, it will be replayed once again: " + e.getMessage());
             }
         }
     }
@@ -78,72 +284,187 @@ public class AutoRSSConfigurator {
      *
      * Tries to read file and if succeeds, parses its lines.
      * If any of lines representing RSS Feed is faulted, it's being skipped
+     * Then records of journal are replayed
      */
     public static void loadRSSConfiguration() {
+        RSSConfiguration configuration = RSSConfiguration.getInstance();
         File f = new File(file);
         if (!f.canRead()) {
             log.error("Can't read config file. Configuration won't be loaded");
-            return;
-        }
-
-        RSSConfiguration configuration = RSSConfiguration.getInstance();
-        try {
-            List<String> configList = Files.readAllLines(f.toPath());
-            if (configList.size() < 1) {
-                log.error("Config is invalid");
-            } else {
-                try {
-                    long timeToPoll = Long.valueOf(configList.get(0));
-                    configuration.setTimeToPoll(timeToPoll);
-                } catch (NumberFormatException e) {
-                    log.error("Set default time to poll - Can't parse value: " + configList.get(0));
-                    configuration.setTimeToPoll(RSSConfiguration.defaultTimeToPoll);
-                }
-                if (configList.size() > 1) {
+        } else {
+            try {
+                List<String> configList = Files.readAllLines(f.toPath());
+                if (configList.size() < 1) {
+                    log.error("Config is invalid");
+                } else {
+                    applyGlobalInfo(parseParams(configList.get(0)), configuration);
                     for (String line : configList.subList(1, configList.size())) {
                         if (line.isEmpty()) continue;
-                        // Gonna be List of 6 elems: feed, link, status, pubdate, channel fields, item fields
-                        List<String> parsed = parseParams(line);
-                        if (parsed.size() != 6) {
-                            log.warn("RSS Feed Configuration can't be read");
-                            continue;
-                        }
-                        // Set feed and link
-                        configuration.addRSSFeed(parsed.get(0), parsed.get(1));
-                        // Set status
-                        if (parsed.get(2).equals("0")) {
-                            configuration.turnOffRSSFeed(parsed.get(0));
-                        } else {
-                            configuration.turnOnRSSFeed(parsed.get(0));
-                        }
-                        // Set pub date
-                        try {
-                            Date pubDate = new Date(Long.valueOf(parsed.get(3)));
-                            configuration.notifyFeedRead(parsed.get(0), pubDate);
-                        } catch (NumberFormatException e) {
-                            log.error("Set last pubTime to NULL - Can't parse Long: " + parsed.get(3));
-                            configuration.notifyFeedRead(parsed.get(0), null);
-                        }
-                        // Parse and set channel and item fields
-                        List<String> channelFields = parseFields(parsed.get(4));
-                        List<String> itemFields = parseFields(parsed.get(5));
-                        configuration.reconfig(parsed.get(0), itemFields, channelFields);
+                        applyRSSFeedInfo(parseParams(line), configuration);
                     }
                 }
+            } catch (IOException e) {
+                log.error("Not all the configuration can be written.");
             }
+        }
+        replayJournal(configuration);
+    }
+
+    /**
+     * Apply records of journal to RSSConfiguration instance in order they are appended.
+     * Faulted records are skipped
+     *
+     * @param configuration instance of RSSConfiguration
+     */
+    private static void replayJournal(RSSConfiguration configuration) {
+        List<String> records;
+        try {
+            records = ConfigJournal.read(getJournalPath());
         } catch (IOException e) {
-            log.error("Not all the configuration can be written.");
+            log.error("Can't read journal. Changes since config file is saved won't be loaded");
+            return;
+        }
+
+        for (String record : records) {
+            List<String> parsed = parseParams(record);
+            List<String> params = parsed.subList(1, parsed.size());
+            switch (parsed.get(0)) {
+                case GLOBAL_RECORD:
+                    if (!params.isEmpty()) applyGlobalInfo(params, configuration);
+                    break;
+                case PUT_RECORD:
+                    applyRSSFeedInfo(params, configuration);
+                    break;
+                case DEL_RECORD:
+                    if (!params.isEmpty() && configuration.getRSSFeeds().containsKey(params.get(0))) {
+                        configuration.delRSSFeed(params.get(0));
+                    }
+                    break;
+                default:
+                    log.warn("Journal record can't be read");
+            }
         }
     }
 
     /**
-     * Helper method to get time to poll as a string
+     * Apply application-wide settings. Faulted ones are set to defaults
      *
+     * @param global List of 1 to 5 elems: time to poll, optional poll threads, poll mode, durability mode
+     *               and checkpoint interval
      * @param configuration instance of RSSConfiguration
-     * @return String representation of timToPoll
      */
-    private static String getTimeToPoll(RSSConfiguration configuration) {
-        return configuration.getTimeToPoll().toString();
+    private static void applyGlobalInfo(List<String> global, RSSConfiguration configuration) {
+        try {
+            long timeToPoll = Long.valueOf(global.get(0));
+            configuration.setTimeToPoll(timeToPoll);
+        } catch (NumberFormatException e) {
+            log.error("Set default time to poll - Can't parse value: " + global.get(0));
+            configuration.setTimeToPoll(RSSConfiguration.defaultTimeToPoll);
+        }
+        if (global.size() > 1) {
+            try {
+                configuration.setPollThreads(Integer.valueOf(global.get(1)));
+            } catch (IllegalArgumentException e) {
+                log.error("Set default poll threads - Can't parse value: " + global.get(1));
+                configuration.setPollThreads(RSSConfiguration.defaultPollThreads);
+            }
+        }
+        if (global.size() > 2) {
+            try {
+                configuration.setPollMode(PollMode.valueOf(global.get(2)));
+            } catch (IllegalArgumentException e) {
+                log.error("Set default poll mode - Can't apply value: " + global.get(2));
+                configuration.setPollMode(PollMode.PLATFORM);
+            }
+        }
+        if (global.size() > 3) {
+            try {
+                configuration.setDurabilityMode(DurabilityMode.valueOf(global.get(3)));
+            } catch (IllegalArgumentException e) {
+                log.error("Set default durability mode - Can't apply value: " + global.get(3));
+                configuration.setDurabilityMode(DurabilityMode.NONE);
+            }
+        }
+        if (global.size() > 4) {
+            try {
+                configuration.setCheckpointInterval(Long.valueOf(global.get(4)));
+            } catch (IllegalArgumentException e) {
+                log.error("Set default checkpoint interval - Can't parse value: " + global.get(4));
+                configuration.setCheckpointInterval(RSSConfiguration.defaultCheckpointInterval);
+            }
+        }
+    }
+
+    /**
+     * Apply RSS Feed. Feed which is already added is replaced.
+     * Faulted feed is skipped, faulted pubDate and poll interval are set to defaults
+     *
+     * @param parsed List of 6 to 10 elems: feed, link, status, pubdate, channel fields, item fields
+     *               and optional poll interval, ETag, Last-Modified and max count of items
+     * @param configuration instance of RSSConfiguration
+     */
+    private static void applyRSSFeedInfo(List<String> parsed, RSSConfiguration configuration) {
+        if (parsed.size() < 6 || parsed.size() > 10) {
+            log.warn("RSS Feed Configuration can't be read");
+            return;
+        }
+        // Set feed and link
+        if (configuration.getRSSFeeds().containsKey(parsed.get(0))) {
+            configuration.delRSSFeed(parsed.get(0));
+        }
+        configuration.addRSSFeed(parsed.get(0), parsed.get(1));
+        // Set status
+        if (parsed.get(2).equals("0")) {
+            configuration.turnOffRSSFeed(parsed.get(0));
+        } else {
+            configuration.turnOnRSSFeed(parsed.get(0));
+        }
+        // Set pub date
+        try {
+            Date pubDate = new Date(Long.valueOf(parsed.get(3)));
+            configuration.notifyFeedRead(parsed.get(0), pubDate);
+        } catch (NumberFormatException e) {
+            log.error("Set last pubTime to NULL - Can't parse Long: " + parsed.get(3));
+            configuration.notifyFeedRead(parsed.get(0), null);
+        }
+        // Parse and set channel and item fields
+        List<String> channelFields = parseFields(parsed.get(4));
+        List<String> itemFields = parseFields(parsed.get(5));
+        configuration.reconfig(parsed.get(0), itemFields, channelFields);
+        // Set poll interval
+        if (parsed.size() > 6 && !parsed.get(6).equals("null")) {
+            try {
+                configuration.setFeedPollInterval(parsed.get(0), Long.valueOf(parsed.get(6)));
+            } catch (NumberFormatException e) {
+                log.error("Set default poll interval - Can't parse Long: " + parsed.get(6));
+            }
+        }
+        // Set cache validators
+        if (parsed.size() > 7) {
+            String etag = decodeValidator(parsed.get(7));
+            String lastModified = parsed.size() > 8 ? decodeValidator(parsed.get(8)) : null;
+            configuration.notifyFeedValidators(parsed.get(0), etag, lastModified);
+        }
+        // Set max count of items
+        if (parsed.size() > 9) {
+            try {
+                configuration.setFeedMaxItems(parsed.get(0), Integer.valueOf(parsed.get(9)));
+            } catch (IllegalArgumentException e) {
+                log.error("Set default max count of items - Can't parse positive Integer: " + parsed.get(9));
+            }
+        }
+    }
+
+    /**
+     * Helper method to compose a string about application-wide settings:
+     * time to poll, count of polling threads, poll mode, durability mode and checkpoint interval separated by column
+     *
+     * @param configuration instance of RSSConfiguration
+     * @return String representation of global settings for config
+     */
+    private static String getGlobalInfo(RSSConfiguration configuration) {
+        return configuration.getTimeToPoll() + ";" + configuration.getPollThreads() + ";" + configuration.getPollMode()
+                + ";" + configuration.getDurabilityMode() + ";" + configuration.getCheckpointInterval();
     }
 
     /**
@@ -151,24 +472,58 @@ public class AutoRSSConfigurator {
      * Fields are separated by column, and list items are separated by comma
      *
      * @param feed RSS Feed to get info
-     * @param configuration instance of RSSConfiguration
+     * @param state state of the feed
      * @return String representation of Feed for config
      */
-    private static String getRSSFeedFullInfo(String feed, RSSConfiguration configuration) {
+    private static String getRSSFeedFullInfo(String feed, FeedState state) {
         StringBuilder builder = new StringBuilder();
-        String lastPubDate = configuration.getRSSFeedLastPubDate(feed) == null
-                        ? "null"
-                        : Long.toString(configuration.getRSSFeedLastPubDate(feed).getTime());
+        Date lastPubDate = state.getLastPubDate();
+        Long pollInterval = state.getPollInterval();
         builder
                 .append(feed).append(";")
-                .append(configuration.getRSSFeeds().get(feed)).append(";")
-                .append(configuration.isRSSFeedOn(feed) ? "1" : "0").append(";")
-                .append(lastPubDate).append(";")
-                .append(getFields(configuration.getChannelFields(feed))).append(";")
-                .append(getFields(configuration.getItemFields(feed)));
+                .append(state.getFile()).append(";")
+                .append(state.isOn() ? "1" : "0").append(";")
+                .append(lastPubDate == null ? "null" : Long.toString(lastPubDate.getTime())).append(";")
+                .append(getFields(state.getChannelFields())).append(";")
+                .append(getFields(state.getItemFields())).append(";")
+                .append(pollInterval == null ? "null" : pollInterval.toString()).append(";")
+                .append(encodeValidator(state.getInfo().etag)).append(";")
+                .append(encodeValidator(state.getInfo().lastModified)).append(";")
+                .append(state.getMaxItems());
         return builder.toString();
     }
 
+    /**
+     * Encode HTTP cache validator so that it doesn't break config line
+     *
+     * @param validator ETag or Last-Modified, may be null
+     * @return URL-encoded validator or "null"
+     */
+    private static String encodeValidator(String validator) {
+        if (validator == null) return "null";
+        try {
+            return URLEncoder.encode(validator, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Decode HTTP cache validator written by encodeValidator
+     *
+     * @param validator URL-encoded validator or "null"
+     * @return ETag or Last-Modified or null if it's absent or faulted
+     */
+    private static String decodeValidator(String validator) {
+        if (validator.equals("null")) return null;
+        try {
+            return URLDecoder.decode(validator, "UTF-8");
+        } catch (IllegalArgumentException | UnsupportedEncodingException e) {
+            log.error("Forget cache validator - Can't decode value: " + validator);
+            return null;
+        }
+    }
+
     /**
      * Turn list of Strings to String separated by comma
      *
@@ -0,0 +1,132 @@
+package config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statistics singleton for checkpoints taken since application start:
+ * how many of them were taken and failed, how many dirty feeds they wrote and how long they took
+ */
+public class CheckpointStatistics {
+    /**
+     * Singleton field
+     */
+    private static final CheckpointStatistics statistics = new CheckpointStatistics();
+
+    private final AtomicLong checkpoints = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong dirtyFeeds = new AtomicLong();
+    private final AtomicLong lastDirtyFeeds = new AtomicLong();
+    private final AtomicLong checkpointNanos = new AtomicLong();
+    private final AtomicLong maxCheckpointNanos = new AtomicLong();
+
+    /**
+     * Default constructor
+     */
+    private CheckpointStatistics() {}
+
+    /**
+     * Singleton method to get the instance
+     *
+     * @return CheckpointStatistics instance
+     */
+    public static CheckpointStatistics getInstance() {
+        return statistics;
+    }
+
+    /**
+     * Count checkpoint which is written to journal
+     *
+     * @param dirty count of dirty feeds written by the checkpoint
+     * @param nanos time taken by the checkpoint in nanoseconds
+     */
+    void notifyCheckpoint(int dirty, long nanos) {
+        checkpoints.incrementAndGet();
+        dirtyFeeds.addAndGet(dirty);
+        lastDirtyFeeds.set(dirty);
+        checkpointNanos.addAndGet(nanos);
+        maxCheckpointNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Count checkpoint which couldn't be written, its feeds stay dirty
+     */
+    void notifyFailure() {
+        failures.incrementAndGet();
+    }
+
+    /**
+     * Get count of checkpoints written to journal
+     *
+     * @return count of checkpoints
+     */
+    public long getCheckpoints() {
+        return checkpoints.get();
+    }
+
+    /**
+     * Get count of checkpoints which couldn't be written
+     *
+     * @return count of failed checkpoints
+     */
+    public long getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * Get count of dirty feeds written by all the checkpoints
+     *
+     * @return count of written feeds
+     */
+    public long getDirtyFeeds() {
+        return dirtyFeeds.get();
+    }
+
+    /**
+     * Get count of dirty feeds written by the last checkpoint
+     *
+     * @return count of feeds written by the last checkpoint
+     */
+    public long getLastDirtyFeeds() {
+        return lastDirtyFeeds.get();
+    }
+
+    /**
+     * Get average time taken by checkpoint
+     *
+     * @return average checkpoint duration in milliseconds, 0 if nothing is checkpointed yet
+     */
+    public double getAverageCheckpointDuration() {
+        long count = checkpoints.get();
+        return count == 0 ? 0 : checkpointNanos.get() / 1e6 / count;
+    }
+
+    /**
+     * Get the longest time taken by checkpoint
+     *
+     * @return max checkpoint duration in milliseconds
+     */
+    public double getMaxCheckpointDuration() {
+        return maxCheckpointNanos.get() / 1e6;
+    }
+
+    /**
+     * Forget everything counted so far
+     */
+    public void reset() {
+        checkpoints.set(0);
+        failures.set(0);
+        dirtyFeeds.set(0);
+        lastDirtyFeeds.set(0);
+        checkpointNanos.set(0);
+        maxCheckpointNanos.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "Checkpoints: %d taken (%.2f ms avg, %.2f ms max), %d failed, %d dirty feeds written (%d by the last one)",
+                getCheckpoints(), getAverageCheckpointDuration(), getMaxCheckpointDuration(), getFailures(),
+                getDirtyFeeds(), getLastDirtyFeeds()
+        );
+    }
+}
@@ -0,0 +1,72 @@
+package config;
+
+import util.Log;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Background task which checkpoints last pubDates and cache validators changed by poll
+ * every checkpoint interval, so they survive crash of the application without waiting for save on shutdown.
+ * Change of application-wide settings wakes it up, so new interval is applied at once.
+ * Stopped checkpointer takes the last checkpoint before it exits
+ */
+public class ConfigCheckpointer implements Runnable {
+    private static Log log = new Log(ConfigCheckpointer.class.getName(), System.out);
+
+    private final Object lock = new Object();
+    private volatile boolean running = true;
+
+    /**
+     * Callback which wakes checkpointer up when checkpoint interval may be changed
+     */
+    private final Consumer<String> settingsListener = feed -> {
+        if (feed == null) wakeUp();
+    };
+
+    /**
+     * Take checkpoint every checkpoint interval until stopped
+     */
+    @Override
+    public void run() {
+        RSSConfiguration configuration = RSSConfiguration.getInstance();
+        configuration.addChangeListener(settingsListener);
+        long last = System.nanoTime();
+        try {
+            while (running) {
+                // Monotonic clock, so change of wall clock neither delays checkpoint nor makes it early
+                long remaining = last + TimeUnit.SECONDS.toNanos(configuration.getCheckpointInterval()) - System.nanoTime();
+                if (remaining > 0) {
+                    synchronized (lock) {
+                        if (running) lock.wait(Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining)));
+                    }
+                    continue;
+                }
+                AutoRSSConfigurator.checkpoint();
+                last = System.nanoTime();
+            }
+        } catch (InterruptedException e) {
+            log.error("Checkpointer is interrupted: " + e.getMessage());
+        } finally {
+            configuration.removeChangeListener(settingsListener);
+            AutoRSSConfigurator.checkpoint();
+        }
+    }
+
+    /**
+     * Graceful stop of checkpointer: run() loop takes the last checkpoint and exits
+     */
+    public void stop() {
+        running = false;
+        wakeUp();
+    }
+
+    /**
+     * Wake run() loop up to check whether it's stopped or checkpoint is due
+     */
+    private void wakeUp() {
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package config;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Append-only journal of configuration changes, kept next to config file.
+ * Every record is one line appended with a single write through a long-lived FileChannel,
+ * so it survives crash of the application once write returns.
+ * Record which is cut by crash has no line end and is ignored on reading.
+ * Journal is emptied when its records are compacted into config file
+ */
+class ConfigJournal implements Closeable {
+    private final Path path;
+    private FileChannel channel;
+    private int records;
+
+    /**
+     * Constructor with journal file, which is opened on the first append
+     *
+     * @param path path to journal file
+     */
+    ConfigJournal(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Append record to the end of journal
+     *
+     * @param record line without line end
+     * @param force true if journal is to be forced to disk after the write
+     * @throws IOException in case of journal can't be opened or written
+     */
+    void append(String record, boolean force) throws IOException {
+        append(Collections.singletonList(record), force);
+    }
+
+    /**
+     * Append batch of records to the end of journal with a single write
+     *
+     * @param batch lines without line ends
+     * @param force true if journal is to be forced to disk after the write
+     * @throws IOException in case of journal can't be opened or written
+     */
+    void append(List<String> batch, boolean force) throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(path, CREATE, WRITE, APPEND);
+        }
+        StringBuilder builder = new StringBuilder();
+        batch.forEach(record -> builder.append(record).append("\n"));
+        ByteBuffer bytes = ByteBuffer.wrap(builder.toString().getBytes(StandardCharsets.UTF_8));
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        if (force) {
+            channel.force(false);
+        }
+        records += batch.size();
+    }
+
+    /**
+     * Get count of records appended since journal is opened or emptied
+     *
+     * @return count of records
+     */
+    int getRecords() {
+        return records;
+    }
+
+    /**
+     * Drop all the records, they are expected to be in config file already
+     *
+     * @throws IOException in case of journal can't be truncated
+     */
+    void truncate() throws IOException {
+        if (channel != null) {
+            channel.truncate(0);
+        } else {
+            Files.deleteIfExists(path);
+        }
+        records = 0;
+    }
+
+    /**
+     * Read complete records of journal file
+     *
+     * @param path path to journal file
+     * @return records in order they are appended, empty list if there's no journal
+     * @throws IOException in case of journal can't be read
+     */
+    static List<String> read(Path path) throws IOException {
+        List<String> records = new ArrayList<>();
+        if (!Files.exists(path)) return records;
+
+        String text = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        int start = 0;
+        for (int end = text.indexOf('\n'); end >= 0; end = text.indexOf('\n', start)) {
+            records.add(text.substring(start, end));
+            start = end + 1;
+        }
+        return records;
+    }
+
+    /**
+     * Close journal file, records stay in it. Journal file without records is removed
+     *
+     * @throws IOException in case of channel can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            boolean empty = channel.size() == 0;
+            channel.close();
+            channel = null;
+            if (empty) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
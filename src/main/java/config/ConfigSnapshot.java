@@ -0,0 +1,239 @@
+package config;
+
+import util.PubDateFormatCache;
+
+import java.security.InvalidParameterException;
+import java.util.*;
+
+/**
+ * Immutable state of all the RSS Feeds at some moment.
+ * RSSConfiguration publishes a new snapshot on every change of feeds, their files, fields, limits, status,
+ * poll intervals or time to poll, so reader which takes a snapshot once sees consistent configuration without locks.
+ * Each feed is looked up once in the map of FeedStates, LocalFeedInfo of feed is shared by all its states
+ */
+public final class ConfigSnapshot {
+    static final ConfigSnapshot empty = new ConfigSnapshot(RSSConfiguration.defaultTimeToPoll, Collections.emptyMap());
+
+    private final long timeToPoll;
+    private final Map<String, FeedState> feeds;
+    /**
+     * Files of feeds, derived from feeds once per snapshot
+     */
+    private final Map<String, String> files;
+
+    /**
+     * Constructor with map of feed states which is not changed any more
+     *
+     * @param timeToPoll global time to poll in seconds
+     * @param feeds unmodifiable map: feed -> state
+     */
+    private ConfigSnapshot(long timeToPoll, Map<String, FeedState> feeds) {
+        this.timeToPoll = timeToPoll;
+        this.feeds = feeds;
+        Map<String, String> files = new HashMap<>(feeds.size() * 2);
+        feeds.forEach((feed, state) -> files.put(feed, state.getFile()));
+        this.files = Collections.unmodifiableMap(files);
+    }
+
+    /**
+     * Get snapshot with feed state put
+     *
+     * @param feed link to RSS Feed
+     * @param state new state of feed
+     * @return new snapshot
+     */
+    ConfigSnapshot withFeedState(String feed, FeedState state) {
+        Map<String, FeedState> copy = new HashMap<>(feeds);
+        copy.put(feed, state);
+        return new ConfigSnapshot(timeToPoll, Collections.unmodifiableMap(copy));
+    }
+
+    /**
+     * Get snapshot without RSS Feed
+     *
+     * @param feed link to RSS Feed
+     * @return new snapshot
+     */
+    ConfigSnapshot withoutFeedState(String feed) {
+        Map<String, FeedState> copy = new HashMap<>(feeds);
+        copy.remove(feed);
+        return new ConfigSnapshot(timeToPoll, Collections.unmodifiableMap(copy));
+    }
+
+    /**
+     * Get snapshot with new global time to poll
+     *
+     * @param time time to poll in seconds
+     * @return new snapshot
+     */
+    ConfigSnapshot withTimeToPoll(long time) {
+        return new ConfigSnapshot(time, feeds);
+    }
+
+    /**
+     * Get state of RSS Feed
+     *
+     * @param feed link to RSS Feed
+     * @return state of feed
+     * @throws InvalidParameterException in case of feed is not added
+     */
+    public FeedState getFeedState(String feed) {
+        FeedState state = feeds.get(feed);
+        if (state != null) {
+            return state;
+        } else {
+            throw new InvalidParameterException("Feed " + feed + " is not added");
+        }
+    }
+
+    /**
+     * Get time to poll
+     *
+     * @return time to poll in seconds
+     */
+    public long getTimeToPoll() {
+        return timeToPoll;
+    }
+
+    /**
+     * Get all the RSS Feeds with its associated files
+     *
+     * @return unmodifiable map: feed -> file
+     */
+    public Map<String, String> getRSSFeeds() {
+        return files;
+    }
+
+    /**
+     * Get all the RSS Feeds with their states
+     *
+     * @return unmodifiable map: feed -> state
+     */
+    public Map<String, FeedState> getFeedStates() {
+        return feeds;
+    }
+
+    /**
+     * Get configured item fields
+     *
+     * @param feed Feed to get configured item feeds
+     * @return unmodifiable list of configured item fields
+     * @throws InvalidParameterException in case of feed is not added
+     */
+    public List<String> getItemFields(String feed) {
+        return getFeedState(feed).getItemFields();
+    }
+
+    /**
+     * Get configured channel fields
+     *
+     * @param feed Feed to get configured channel feeds
+     * @return unmodifiable list of configured channel fields
+     * @throws InvalidParameterException in case of feed is not added
+     */
+    public List<String> getChannelFields(String feed) {
+        return getFeedState(feed).getChannelFields();
+    }
+
+    /**
+     * Get mask of configured item fields
+     *
+     * @param feed Feed to get configured item fields
+     * @return mask of configured item fields
+     * @throws InvalidParameterException in case of feed is not added
+     */
+    public FieldMask getItemFieldMask(String feed) {
+        return getFeedState(feed).getItemFieldMask();
+    }
+
+    /**
+     * Get mask of configured channel fields
+     *
+     * @param feed Feed to get configured channel fields
+     * @return mask of configured channel fields
+     * @throws InvalidParameterException in case of feed is not added
+     */
+    public FieldMask getChannelFieldMask(String feed) {
+        return getFeedState(feed).getChannelFieldMask();
+    }
+
+    /**
+     * Get configured max count of items to read per poll
+     *
+     * @param feed Feed to get configured count
+     * @return max count of items which can be read from RSS Feed
+     * @throws InvalidParameterException in case of feed is not added
+     */
+    public Integer getFeedMaxItems(String feed) {
+        return getFeedState(feed).getMaxItems();
+    }
+
+    /**
+     * Get poll interval of RSS Feed.
+     * If it's not set for the feed, time to poll of the snapshot is returned
+     *
+     * @param feed Feed to get poll interval
+     * @return poll interval in seconds
+     * @throws InvalidParameterException in case of feed is not added
+     */
+    public Long getFeedPollInterval(String feed) {
+        return getPollInterval(getFeedState(feed));
+    }
+
+    /**
+     * Get poll interval of feed state.
+     * If it's not set for the feed, time to poll of the snapshot is returned
+     *
+     * @param state state of RSS Feed
+     * @return poll interval in seconds
+     */
+    public long getPollInterval(FeedState state) {
+        Long pollInterval = state.getPollInterval();
+        return pollInterval == null ? timeToPoll : pollInterval;
+    }
+
+    /**
+     * Check if RSS Feed is on
+     *
+     * @param feed link to RSS Feed
+     * @return true if Feed is on, else false
+     * @throws InvalidParameterException in case of feed is not added
+     */
+    public boolean isRSSFeedOn(String feed) {
+        return getFeedState(feed).isOn();
+    }
+
+    /**
+     * Get last read pubDate of RSS Feed
+     *
+     * @param feed link to RSS Feed
+     * @return latest pubDate of feed
+     * @throws InvalidParameterException in case of feed is not added
+     */
+    public Date getRSSFeedLastPubDate(String feed) {
+        return getFeedState(feed).getLastPubDate();
+    }
+
+    /**
+     * Check if RSS Feed is not found to be unsorted, i.e. reading of its items may be stopped early
+     *
+     * @param feed link to RSS Feed
+     * @return true unless feed is found not to publish newest items first
+     * @throws InvalidParameterException in case of feed is not added
+     */
+    public boolean isRSSFeedSorted(String feed) {
+        return getFeedState(feed).isSorted();
+    }
+
+    /**
+     * Get learned layout of date field of RSS Feed, it's created on the first request
+     *
+     * @param feed link to RSS Feed
+     * @param field date field, e.g. pubdate
+     * @return layout cache of the field
+     * @throws InvalidParameterException in case of feed is not added
+     */
+    public PubDateFormatCache getRSSFeedDateFormat(String feed, String field) {
+        return getFeedState(feed).getDateFormat(field);
+    }
+}
@@ -0,0 +1,15 @@
+package config;
+
+/**
+ * Enum for the way RSS Feeds written to files are made durable:
+ *  NONE - files are never forced, OS writes them when it wants to
+ *  CYCLE - files are forced together once all the feeds due at the same wake up of scheduler are written,
+ *          or once all the feeds of poll() are written
+ *  FEED - file is forced right after every feed is written
+ * Modes are declared from the weakest to the strongest one
+ */
+public enum DurabilityMode {
+    NONE,
+    CYCLE,
+    FEED
+}
@@ -0,0 +1,271 @@
+package config;
+
+import util.PubDateFormatCache;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * All the state of one RSS Feed: file, fields, their masks, limits, status and poll interval, which are immutable,
+ * and LocalFeedInfo with last pubDate and other state learned by poll, which is updated in place by poll workers.
+ * Change of immutable part creates a new FeedState sharing the same LocalFeedInfo
+ */
+public final class FeedState {
+    private final String file;
+    private final List<String> channelFields;
+    private final List<String> itemFields;
+    private final FieldMask channelMask;
+    private final FieldMask itemMask;
+    private final int maxItems;
+    private final FeedStatus status;
+    /**
+     * Poll interval in seconds or null if global time to poll is used
+     */
+    private final Long pollInterval;
+    private final LocalFeedInfo info;
+
+    /**
+     * Constructor with all the parts
+     *
+     * @param file full path to file associated with feed
+     * @param channelFields raw configured channel fields
+     * @param itemFields raw configured item fields
+     * @param channelMask mask of channelFields
+     * @param itemMask mask of itemFields
+     * @param maxItems max count of items to read per poll
+     * @param status status of feed
+     * @param pollInterval own poll interval in seconds or null
+     * @param info runtime info of feed
+     */
+    private FeedState(String file, List<String> channelFields, List<String> itemFields, FieldMask channelMask,
+                      FieldMask itemMask, int maxItems, FeedStatus status, Long pollInterval, LocalFeedInfo info) {
+        this.file = file;
+        this.channelFields = channelFields;
+        this.itemFields = itemFields;
+        this.channelMask = channelMask;
+        this.itemMask = itemMask;
+        this.maxItems = maxItems;
+        this.status = status;
+        this.pollInterval = pollInterval;
+        this.info = info;
+    }
+
+    /**
+     * Create state of newly added feed: it's ON, default fields and limits are used
+     *
+     * @param file full path to file associated with feed
+     * @return new state
+     */
+    static FeedState of(String file) {
+        return new FeedState(
+                file,
+                Collections.unmodifiableList(ImmutableRSSConfig.defaultRawAvailableChannelFields),
+                Collections.unmodifiableList(ImmutableRSSConfig.defaultRawAvailableItemFields),
+                FieldMask.ofChannelFields(ImmutableRSSConfig.defaultRawAvailableChannelFields),
+                FieldMask.ofItemFields(ImmutableRSSConfig.defaultRawAvailableItemFields),
+                RSSConfiguration.defaultMaxItems,
+                FeedStatus.ON,
+                null,
+                new LocalFeedInfo()
+        );
+    }
+
+    /**
+     * Get state with new file
+     *
+     * @param file new file path
+     * @return new state
+     */
+    FeedState withFile(String file) {
+        return new FeedState(file, channelFields, itemFields, channelMask, itemMask, maxItems, status, pollInterval, info);
+    }
+
+    /**
+     * Get state with new item fields
+     *
+     * @param fields raw available item fields
+     * @return new state
+     */
+    FeedState withItemFields(List<String> fields) {
+        return new FeedState(file, channelFields, Collections.unmodifiableList(fields),
+                channelMask, FieldMask.ofItemFields(fields), maxItems, status, pollInterval, info);
+    }
+
+    /**
+     * Get state with new channel fields
+     *
+     * @param fields raw available channel fields
+     * @return new state
+     */
+    FeedState withChannelFields(List<String> fields) {
+        return new FeedState(file, Collections.unmodifiableList(fields), itemFields,
+                FieldMask.ofChannelFields(fields), itemMask, maxItems, status, pollInterval, info);
+    }
+
+    /**
+     * Get state with new max count of items
+     *
+     * @param count max count of items to read per poll
+     * @return new state
+     */
+    FeedState withMaxItems(int count) {
+        return new FeedState(file, channelFields, itemFields, channelMask, itemMask, count, status, pollInterval, info);
+    }
+
+    /**
+     * Get state with new status
+     *
+     * @param status new status
+     * @return new state
+     */
+    FeedState withStatus(FeedStatus status) {
+        return new FeedState(file, channelFields, itemFields, channelMask, itemMask, maxItems, status, pollInterval, info);
+    }
+
+    /**
+     * Get state with new own poll interval
+     *
+     * @param interval poll interval in seconds or null to use global time to poll
+     * @return new state
+     */
+    FeedState withPollInterval(Long interval) {
+        return new FeedState(file, channelFields, itemFields, channelMask, itemMask, maxItems, status, interval, info);
+    }
+
+    /**
+     * Get runtime info of feed
+     *
+     * @return runtime info shared by all the states of feed
+     */
+    LocalFeedInfo getInfo() {
+        return info;
+    }
+
+    /**
+     * Get file associated with feed
+     *
+     * @return full path to file
+     */
+    public String getFile() {
+        return file;
+    }
+
+    /**
+     * Get configured channel fields
+     *
+     * @return unmodifiable list of configured channel fields
+     */
+    public List<String> getChannelFields() {
+        return channelFields;
+    }
+
+    /**
+     * Get configured item fields
+     *
+     * @return unmodifiable list of configured item fields
+     */
+    public List<String> getItemFields() {
+        return itemFields;
+    }
+
+    /**
+     * Get mask of configured channel fields
+     *
+     * @return mask of configured channel fields
+     */
+    public FieldMask getChannelFieldMask() {
+        return channelMask;
+    }
+
+    /**
+     * Get mask of configured item fields
+     *
+     * @return mask of configured item fields
+     */
+    public FieldMask getItemFieldMask() {
+        return itemMask;
+    }
+
+    /**
+     * Get configured max count of items to read per poll
+     *
+     * @return max count of items which can be read from RSS Feed
+     */
+    public int getMaxItems() {
+        return maxItems;
+    }
+
+    /**
+     * Get poll interval which is set for feed itself
+     *
+     * @return poll interval in seconds or null if global time to poll is used
+     */
+    public Long getPollInterval() {
+        return pollInterval;
+    }
+
+    /**
+     * Check if feed is on
+     *
+     * @return true if feed is on, else false
+     */
+    public boolean isOn() {
+        return status == FeedStatus.ON;
+    }
+
+    /**
+     * Get last read pubDate of feed
+     *
+     * @return latest pubDate of feed or null if it's not read yet
+     */
+    public Date getLastPubDate() {
+        return info.lastPubDate;
+    }
+
+    /**
+     * Get ETag of the last handled response of feed
+     *
+     * @return ETag or null if it's unknown
+     */
+    public String getETag() {
+        return info.etag;
+    }
+
+    /**
+     * Get Last-Modified of the last handled response of feed
+     *
+     * @return Last-Modified or null if it's unknown
+     */
+    public String getLastModified() {
+        return info.lastModified;
+    }
+
+    /**
+     * Get hash of the last handled body of feed
+     *
+     * @return hash or null if feed is not handled yet
+     */
+    public byte[] getContentHash() {
+        return info.contentHash;
+    }
+
+    /**
+     * Check if feed is not found to be unsorted, i.e. reading of its items may be stopped early
+     *
+     * @return true unless feed is found not to publish newest items first
+     */
+    public boolean isSorted() {
+        return info.sorted;
+    }
+
+    /**
+     * Get learned layout of date field of feed, it's created on the first request
+     *
+     * @param field date field, e.g. pubdate
+     * @return layout cache of the field
+     */
+    public PubDateFormatCache getDateFormat(String field) {
+        return info.dateFormats.computeIfAbsent(field, key -> new PubDateFormatCache());
+    }
+}
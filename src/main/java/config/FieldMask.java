@@ -0,0 +1,139 @@
+package config;
+
+import model.ItemField;
+
+import java.util.*;
+
+/**
+ * Immutable set of channel or item fields kept as a bitset over available fields:
+ * item field bit is its ItemField ordinal, channel field bit is its position among available channel fields.
+ * Masks of every feed are computed when feed is configured, so filtering and printing check a bit per key
+ * instead of searching a list
+ */
+public class FieldMask {
+    private static final Map<String, Integer> channelBits = bits(ImmutableRSSConfig.rawAvailableChannelFields);
+    private static final Map<String, Integer> itemBits = bits(itemFieldKeys());
+
+    private final Map<String, Integer> universe;
+    private final long mask;
+
+    /**
+     * Constructor with universe and bits
+     *
+     * @param universe map: available field -> bit
+     * @param mask bits of fields in the set
+     */
+    private FieldMask(Map<String, Integer> universe, long mask) {
+        this.universe = universe;
+        this.mask = mask;
+    }
+
+    /**
+     * Create mask of channel fields, unavailable ones are ignored
+     *
+     * @param fields lower case channel fields
+     * @return mask of fields
+     */
+    public static FieldMask ofChannelFields(Collection<String> fields) {
+        return of(channelBits, fields);
+    }
+
+    /**
+     * Create mask of item fields, unavailable ones are ignored
+     *
+     * @param fields lower case item fields
+     * @return mask of fields
+     */
+    public static FieldMask ofItemFields(Collection<String> fields) {
+        return of(itemBits, fields);
+    }
+
+    /**
+     * Create mask of fields over universe
+     *
+     * @param universe map: available field -> bit
+     * @param fields lower case fields
+     * @return mask of fields
+     */
+    private static FieldMask of(Map<String, Integer> universe, Collection<String> fields) {
+        long mask = 0;
+        for (String field : fields) {
+            Integer bit = universe.get(field);
+            if (bit != null) mask |= 1L << bit;
+        }
+        return new FieldMask(universe, mask);
+    }
+
+    /**
+     * Check if field is in the set
+     *
+     * @param field lower case name of field
+     * @return true if field is available and is in the set
+     */
+    public boolean contains(String field) {
+        Integer bit = universe.get(field);
+        return bit != null && (mask & 1L << bit) != 0;
+    }
+
+    /**
+     * Check if item field is in the set
+     *
+     * @param field item field
+     * @return true if field is in the set of item fields
+     */
+    public boolean contains(ItemField field) {
+        return universe == itemBits && (mask & 1L << field.ordinal()) != 0;
+    }
+
+    /**
+     * Create mask with fields of both masks
+     *
+     * @param other mask over the same fields
+     * @return union of masks
+     */
+    public FieldMask with(FieldMask other) {
+        if (other.universe != universe) {
+            throw new IllegalArgumentException("Channel and item fields can't be mixed");
+        }
+        return new FieldMask(universe, mask | other.mask);
+    }
+
+    /**
+     * Get lower case names of item fields in ItemField order
+     *
+     * @return available item fields
+     */
+    private static List<String> itemFieldKeys() {
+        List<String> keys = new ArrayList<>();
+        for (ItemField field : ItemField.values()) {
+            keys.add(field.getKey());
+        }
+        return keys;
+    }
+
+    /**
+     * Number fields in order they are given
+     *
+     * @param fields available fields
+     * @return unmodifiable map: field -> bit
+     */
+    private static Map<String, Integer> bits(List<String> fields) {
+        Map<String, Integer> bits = new HashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            bits.put(fields.get(i), i);
+        }
+        return Collections.unmodifiableMap(bits);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof FieldMask
+                && ((FieldMask) other).universe == universe
+                && ((FieldMask) other).mask == mask;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(mask);
+    }
+}
@@ -66,6 +66,11 @@ class ImmutableRSSConfig {
             .map(String::toLowerCase)
             .collect(Collectors.toList());
 
+    /**
+     * Atom fields which correspond to the same RSS 2.0 field, the first one is preferred
+     */
+    static List<String> atomFieldPriority = Arrays.asList("atom:updated", "atom:published", "atom:content", "atom:summary");
+
     /**
      * Special method which knows how atom fields correspond to RSS 2.0 fields
      * If field is already RSS, return it.
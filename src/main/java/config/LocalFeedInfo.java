@@ -1,30 +1,45 @@
 package config;
 
+import util.PubDateFormatCache;
+
 import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * Aggregator class for FeedStatus and last PubDate
+ * Aggregator class for state learned by poll: last PubDate, HTTP cache validators, content hash
+ * and learned date layouts, along with the flag of state which is not checkpointed yet.
+ * It's shared by all the FeedStates of the same feed, feed which is added again gets a new one
  */
 class LocalFeedInfo {
-    FeedStatus status;
-    Date lastPubDate;
-
+    volatile Date lastPubDate;
     /**
-     * Default constructor. Feed is ON and pubDate is null.
+     * ETag and Last-Modified of the last handled response or null if server doesn't send them
      */
-    LocalFeedInfo() {
-        status = FeedStatus.ON;
-        lastPubDate = null;
-    }
+    volatile String etag;
+    volatile String lastModified;
+    /**
+     * Hash of the last handled body, kept in memory only
+     */
+    volatile byte[] contentHash;
+    /**
+     * False once feed is found not to publish newest items first, kept in memory only
+     */
+    volatile boolean sorted = true;
+    /**
+     * Learned layouts of date fields: field -> layout cache, kept in memory only
+     */
+    final Map<String, PubDateFormatCache> dateFormats = new ConcurrentHashMap<>();
+    /**
+     * Set when last pubDate or cache validators are changed by poll, cleared once they are checkpointed or saved
+     */
+    final AtomicBoolean dirty = new AtomicBoolean();
 
     /**
-     * Constructor with status and pubDate
-     *
-     * @param status status of Feed
-     * @param pubDate last pub date of Feed
+     * Default constructor. PubDate is null.
      */
-    public LocalFeedInfo(String status, long pubDate) {
-        this.status = status.equals("ON") ? FeedStatus.ON : FeedStatus.OFF;
-        this.lastPubDate = new Date(pubDate);
+    LocalFeedInfo() {
+        lastPubDate = null;
     }
 }
@@ -0,0 +1,11 @@
+package config;
+
+/**
+ * Enum for the way RSS Feeds are polled:
+ *  PLATFORM - bounded pool of platform threads
+ *  VIRTUAL - new virtual thread per feed (Java 21+ only)
+ */
+public enum PollMode {
+    PLATFORM,
+    VIRTUAL
+}
@@ -1,11 +1,19 @@
 package config;
 
+import util.PubDateFormatCache;
+import util.VirtualThreads;
+
 import java.security.InvalidParameterException;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
- * Configuration singleton for RSS Feed, Items and whole application
+ * Configuration singleton for RSS Feed, Items and whole application.
+ * State of feeds is kept in immutable ConfigSnapshot: readers take it in one volatile read,
+ * writers build a new one under the instance lock and publish it, so polling never waits for CLI edits.
+ * Only state learned by poll, like last pubDate and cache validators, is updated in place in LocalFeedInfo
  */
 public class RSSConfiguration {
     public static long timeCheckThreshold = 5;
@@ -16,24 +24,36 @@ public class RSSConfiguration {
 
     final static long defaultTimeToPoll = 60L;
     final static int defaultMaxItems = 10;
+    final static int defaultPollThreads = 4;
+    final static long defaultCheckpointInterval = 30L;
+
+    private volatile int pollThreads;
+    private volatile PollMode pollMode;
+    private volatile DurabilityMode durabilityMode;
+    private volatile long checkpointInterval;
+    /**
+     * State of all the feeds and time to poll, replaced as a whole by writers which hold the instance lock
+     */
+    private volatile ConfigSnapshot snapshot;
 
-    private long timeToPoll;
-    private Map<String, String> RSSFeeds;
-    private Map<String, LocalFeedInfo> RSSFeedStatus;
-    private Map<String, List<String>> RSSFeedChannelFields;
-    private Map<String, List<String>> RSSFeedItemFields;
-    private Map<String, Integer> RSSFeedMaxItems;
+    /**
+     * Callbacks to run when anything which affects polling schedule is changed
+     */
+    private final List<Runnable> scheduleListeners = new CopyOnWriteArrayList<>();
+    /**
+     * Callbacks to run with changed feed or null when anything which is saved to config file is changed
+     */
+    private final List<Consumer<String>> changeListeners = new CopyOnWriteArrayList<>();
 
     /**
      * Default constructor
      */
     private RSSConfiguration() {
-        RSSFeedChannelFields = new HashMap<>();
-        RSSFeedItemFields = new HashMap<>();
-        timeToPoll = defaultTimeToPoll;
-        RSSFeeds = new HashMap<>();
-        RSSFeedStatus = new HashMap<>();
-        RSSFeedMaxItems = new HashMap<>();
+        snapshot = ConfigSnapshot.empty;
+        pollThreads = defaultPollThreads;
+        pollMode = PollMode.PLATFORM;
+        durabilityMode = DurabilityMode.NONE;
+        checkpointInterval = defaultCheckpointInterval;
     }
 
     /**
@@ -45,6 +65,20 @@ public class RSSConfiguration {
         return ImmutableRSSConfig.atomFieldToRSSField(field);
     }
 
+    /**
+     * Check which of two Atom fields corresponding to the same RSS 2.0 field is to be taken:
+     * updated is preferred to published and content is preferred to summary
+     *
+     * @param atomField name of Atom field with prefix
+     * @param otherAtomField name of the other Atom field with prefix
+     * @return true if atomField is preferred to otherAtomField
+     */
+    public static boolean isAtomFieldPreferred(String atomField, String otherAtomField) {
+        int priority = ImmutableRSSConfig.atomFieldPriority.indexOf(atomField);
+        int otherPriority = ImmutableRSSConfig.atomFieldPriority.indexOf(otherAtomField);
+        return priority >= 0 && (otherPriority < 0 || priority < otherPriority);
+    }
+
     /**
      * Get all the mandatory channel fields
      * These fields define 'legality' of channel
@@ -100,11 +134,7 @@ public class RSSConfiguration {
      * @throws InvalidParameterException in case of feed is not added
      */
     public List<String> getItemFields(String feed) {
-        if (RSSFeedItemFields.containsKey(feed)) {
-            return Collections.unmodifiableList(RSSFeedItemFields.get((feed)));
-        } else {
-            throw new InvalidParameterException("Feed " + feed + " is not added");
-        }
+        return snapshot.getItemFields(feed);
     }
 
     /**
@@ -115,11 +145,29 @@ public class RSSConfiguration {
      * @throws InvalidParameterException in case of feed is not added
      */
     public List<String> getChannelFields(String feed) {
-        if (RSSFeedChannelFields.containsKey(feed)) {
-            return Collections.unmodifiableList(RSSFeedChannelFields.get(feed));
-        } else {
-            throw new InvalidParameterException("Feed " + feed + " is not added");
-        }
+        return snapshot.getChannelFields(feed);
+    }
+
+    /**
+     * Get mask of configured item fields, computed when feed is configured
+     *
+     * @param feed Feed to get configured item fields
+     * @return mask of configured item fields
+     * @throws InvalidParameterException in case of feed is not added
+     */
+    public FieldMask getItemFieldMask(String feed) {
+        return snapshot.getItemFieldMask(feed);
+    }
+
+    /**
+     * Get mask of configured channel fields, computed when feed is configured
+     *
+     * @param feed Feed to get configured channel fields
+     * @return mask of configured channel fields
+     * @throws InvalidParameterException in case of feed is not added
+     */
+    public FieldMask getChannelFieldMask(String feed) {
+        return snapshot.getChannelFieldMask(feed);
     }
 
     /**
@@ -130,11 +178,7 @@ public class RSSConfiguration {
      * @throws InvalidParameterException in case of feed is not added
      */
     public Integer getFeedMaxItems(String feed) {
-        if (RSSFeeds.containsKey(feed)) {
-            return RSSFeedMaxItems.get(feed);
-        } else {
-            throw new InvalidParameterException("Feed " + feed + " is not added");
-        }
+        return snapshot.getFeedMaxItems(feed);
     }
 
     /**
@@ -145,12 +189,102 @@ public class RSSConfiguration {
      * @throws InvalidParameterException in case of feed is not added
      */
     public void setFeedMaxItems(String feed, Integer count) {
-        if (RSSFeeds.containsKey(feed)) {
-            if (count > 0) RSSFeedMaxItems.replace(feed, count);
+        synchronized (this) {
+            FeedState state = snapshot.getFeedState(feed);
+            if (count > 0) snapshot = snapshot.withFeedState(feed, state.withMaxItems(count));
             else throw new IllegalArgumentException("Count should be greater than 0");
-        } else {
-            throw new InvalidParameterException("Feed " + feed + " is not added");
         }
+        notifyChanged(feed);
+    }
+
+    /**
+     * Get poll interval of RSS Feed.
+     * If it's not set for the feed, global time to poll is returned
+     *
+     * @param feed Feed to get poll interval
+     * @return poll interval in seconds
+     * @throws InvalidParameterException in case of feed is not added
+     */
+    public Long getFeedPollInterval(String feed) {
+        return snapshot.getFeedPollInterval(feed);
+    }
+
+    /**
+     * Get poll interval which is set for RSS Feed itself
+     *
+     * @param feed Feed to get poll interval
+     * @return poll interval in seconds or null if global time to poll is used
+     * @throws InvalidParameterException in case of feed is not added
+     */
+    Long getOwnFeedPollInterval(String feed) {
+        return snapshot.getFeedState(feed).getPollInterval();
+    }
+
+    /**
+     * Set poll interval of RSS Feed. It can't be less than polling threshold
+     *
+     * @param feed Feed to set poll interval
+     * @param interval poll interval in seconds or null to use global time to poll
+     * @throws InvalidParameterException in case of feed is not added
+     */
+    public void setFeedPollInterval(String feed, Long interval) {
+        Long own = interval == null ? null : interval > timeCheckThreshold ? interval : timeCheckThreshold;
+        synchronized (this) {
+            snapshot = snapshot.withFeedState(feed, snapshot.getFeedState(feed).withPollInterval(own));
+        }
+        notifyScheduleChanged();
+        notifyChanged(feed);
+    }
+
+    /**
+     * Register callback which is run when anything which affects polling schedule is changed:
+     * time to poll, feed poll interval, feed addition, removal or status
+     *
+     * @param listener callback to run
+     */
+    public void addScheduleListener(Runnable listener) {
+        scheduleListeners.add(listener);
+    }
+
+    /**
+     * Unregister schedule callback
+     *
+     * @param listener callback which was registered
+     */
+    public void removeScheduleListener(Runnable listener) {
+        scheduleListeners.remove(listener);
+    }
+
+    private void notifyScheduleChanged() {
+        scheduleListeners.forEach(Runnable::run);
+    }
+
+    /**
+     * Register callback which is run after anything which is saved to config file is changed.
+     * It gets changed feed, which may be removed already, or null if application-wide setting is changed
+     *
+     * @param listener callback to run
+     */
+    public void addChangeListener(Consumer<String> listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Unregister change callback
+     *
+     * @param listener callback which was registered
+     */
+    public void removeChangeListener(Consumer<String> listener) {
+        changeListeners.remove(listener);
+    }
+
+    /**
+     * Run change callbacks
+     *
+     * @param feed changed feed or null if application-wide setting is changed
+     */
+    private void notifyChanged(String feed) {
+        changeListeners.forEach(listener -> listener.accept(feed));
     }
 
     /**
@@ -161,11 +295,10 @@ public class RSSConfiguration {
      * @throws InvalidParameterException in case of feed is not added
      */
     public void setRSSFeedFile(String feed, String file) {
-        if (RSSFeeds.containsKey(feed)) {
-            RSSFeeds.replace(feed, file);
-        } else {
-            throw new InvalidParameterException("Feed " + feed + " is not added");
+        synchronized (this) {
+            snapshot = snapshot.withFeedState(feed, snapshot.getFeedState(feed).withFile(file));
         }
+        notifyChanged(feed);
     }
 
     /**
@@ -179,10 +312,21 @@ public class RSSConfiguration {
      * @throws InvalidParameterException in case of feed is not added
      */
     public void reconfig(String feed, List<String> itemFields, List<String> channelFields) {
-        if (!RSSFeeds.containsKey(feed)) {
-            throw new InvalidParameterException("Feed " + feed + " is not added");
+        synchronized (this) {
+            snapshot = snapshot.withFeedState(feed, reconfig(snapshot.getFeedState(feed), itemFields, channelFields));
         }
+        notifyChanged(feed);
+    }
 
+    /**
+     * Get feed state with reconfigured fields of items and channel
+     *
+     * @param state state of feed to reconfig
+     * @param itemFields item fields to be configured
+     * @param channelFields channel fields to be configured
+     * @return new state
+     */
+    private static FeedState reconfig(FeedState state, List<String> itemFields, List<String> channelFields) {
         if(itemFields != null && itemFields.size() > 0){
             List<String> newFields = itemFields
                     .stream()
@@ -190,7 +334,7 @@ public class RSSConfiguration {
                     .filter(ImmutableRSSConfig.rawAvailableItemFields::contains)
                     .collect(Collectors.toList());
             if (! newFields.isEmpty()) {
-                this.RSSFeedItemFields.replace(feed, newFields);
+                state = state.withItemFields(newFields);
             }
         }
 
@@ -201,9 +345,10 @@ public class RSSConfiguration {
                     .filter(ImmutableRSSConfig.rawAvailableChannelFields::contains)
                     .collect(Collectors.toList());
             if (! newFields.isEmpty()) {
-                this.RSSFeedChannelFields.replace(feed, newFields);
+                state = state.withChannelFields(newFields);
             }
         }
+        return state;
     }
 
     /**
@@ -212,7 +357,11 @@ public class RSSConfiguration {
      * @param time new time to poll
      */
     public void setTimeToPoll(Long time) {
-        this.timeToPoll = time > timeCheckThreshold ? time : timeCheckThreshold;
+        synchronized (this) {
+            snapshot = snapshot.withTimeToPoll(time > timeCheckThreshold ? time : timeCheckThreshold);
+        }
+        notifyScheduleChanged();
+        notifyChanged(null);
     }
 
     /**
@@ -221,7 +370,91 @@ public class RSSConfiguration {
      * @return current time to poll
      */
     public Long getTimeToPoll() {
-        return timeToPoll;
+        return snapshot.getTimeToPoll();
+    }
+
+    /**
+     * Set count of threads which poll RSS Feeds in parallel
+     *
+     * @param threads new count of polling threads
+     * @throws IllegalArgumentException in case of count is not positive
+     */
+    public void setPollThreads(Integer threads) {
+        if (threads > 0) this.pollThreads = threads;
+        else throw new IllegalArgumentException("Count of poll threads should be greater than 0");
+        notifyChanged(null);
+    }
+
+    /**
+     * Get count of threads which poll RSS Feeds in parallel
+     *
+     * @return current count of polling threads
+     */
+    public Integer getPollThreads() {
+        return pollThreads;
+    }
+
+    /**
+     * Set the way RSS Feeds are polled
+     *
+     * @param mode new poll mode
+     * @throws IllegalArgumentException in case of mode is not supported by running JVM
+     */
+    public void setPollMode(PollMode mode) {
+        if (mode == PollMode.VIRTUAL && !VirtualThreads.isSupported()) {
+            throw new IllegalArgumentException("Virtual threads are not supported by this JVM");
+        }
+        this.pollMode = mode;
+        notifyChanged(null);
+    }
+
+    /**
+     * Get the way RSS Feeds are polled
+     *
+     * @return current poll mode
+     */
+    public PollMode getPollMode() {
+        return pollMode;
+    }
+
+    /**
+     * Set the way RSS Feeds written to files are made durable
+     *
+     * @param mode new durability mode
+     */
+    public void setDurabilityMode(DurabilityMode mode) {
+        this.durabilityMode = mode;
+        notifyChanged(null);
+    }
+
+    /**
+     * Get the way RSS Feeds written to files are made durable
+     *
+     * @return current durability mode
+     */
+    public DurabilityMode getDurabilityMode() {
+        return durabilityMode;
+    }
+
+    /**
+     * Set how often last pubDates and cache validators changed by poll are checkpointed
+     *
+     * @param interval new checkpoint interval in seconds
+     * @throws IllegalArgumentException in case of interval is not positive
+     */
+    public void setCheckpointInterval(Long interval) {
+        if (interval > 0) this.checkpointInterval = interval;
+        else throw new IllegalArgumentException("Checkpoint interval should be greater than 0");
+        notifyChanged(null);
+    }
+
+    /**
+     * Get how often last pubDates and cache validators changed by poll are checkpointed
+     *
+     * @return current checkpoint interval in seconds
+     */
+    public Long getCheckpointInterval() {
+        return checkpointInterval;
     }
 
     /**
@@ -233,15 +466,14 @@ public class RSSConfiguration {
      * @throws InvalidParameterException in case of feed is already added
      */
     public void addRSSFeed(String feed, String file) {
-        if (!RSSFeeds.containsKey(feed)) {
-            RSSFeeds.put(feed, file);
-            RSSFeedStatus.put(feed, new LocalFeedInfo());
-            RSSFeedChannelFields.put(feed, new ArrayList<>(ImmutableRSSConfig.defaultRawAvailableChannelFields));
-            RSSFeedItemFields.put(feed, new ArrayList<>(ImmutableRSSConfig.defaultRawAvailableItemFields));
-            RSSFeedMaxItems.put(feed, defaultMaxItems);
-        } else {
-            throw new InvalidParameterException("Feed " + feed + " is already added");
+        synchronized (this) {
+            if (snapshot.getRSSFeeds().containsKey(feed)) {
+                throw new InvalidParameterException("Feed " + feed + " is already added");
+            }
+            snapshot = snapshot.withFeedState(feed, FeedState.of(file));
         }
+        notifyScheduleChanged();
+        notifyChanged(feed);
     }
 
     /**
@@ -251,14 +483,14 @@ public class RSSConfiguration {
      * @throws InvalidParameterException in case of feed is not added
      */
     public void delRSSFeed(String feed) {
-        if (RSSFeeds.containsKey(feed)) {
-            RSSFeeds.remove(feed);
-            RSSFeedStatus.remove(feed);
-            RSSFeedChannelFields.remove(feed);
-            RSSFeedItemFields.remove(feed);
-        } else {
-            throw new InvalidParameterException("Feed " + feed + " is not added");
+        synchronized (this) {
+            if (!snapshot.getRSSFeeds().containsKey(feed)) {
+                throw new InvalidParameterException("Feed " + feed + " is not added");
+            }
+            snapshot = snapshot.withoutFeedState(feed);
         }
+        notifyScheduleChanged();
+        notifyChanged(feed);
     }
 
     /**
@@ -269,11 +501,9 @@ public class RSSConfiguration {
      * @throws InvalidParameterException in case of feed is not added
      */
     public void turnOnRSSFeed(String feed) {
-        if (RSSFeeds.containsKey(feed)) {
-            RSSFeedStatus.get(feed).status = FeedStatus.ON;
-        } else {
-            throw new InvalidParameterException("Feed " + feed + " is not added");
-        }
+        setRSSFeedStatus(feed, FeedStatus.ON);
+        notifyScheduleChanged();
+        notifyChanged(feed);
     }
 
     /**
@@ -284,10 +514,21 @@ public class RSSConfiguration {
      * @throws InvalidParameterException in case of feed is not added
      */
     public void turnOffRSSFeed(String feed) {
-        if (RSSFeeds.containsKey(feed)) {
-            RSSFeedStatus.get(feed).status = FeedStatus.OFF;
-        } else {
-            throw new InvalidParameterException("Feed " + feed + " is not added");
+        setRSSFeedStatus(feed, FeedStatus.OFF);
+        notifyScheduleChanged();
+        notifyChanged(feed);
+    }
+
+    /**
+     * Publish snapshot with new status of RSS Feed
+     *
+     * @param feed link to RSS Feed
+     * @param status new status
+     * @throws InvalidParameterException in case of feed is not added
+     */
+    private void setRSSFeedStatus(String feed, FeedStatus status) {
+        synchronized (this) {
+            snapshot = snapshot.withFeedState(feed, snapshot.getFeedState(feed).withStatus(status));
         }
     }
 
@@ -300,11 +541,7 @@ public class RSSConfiguration {
      * @throws InvalidParameterException in case of feed is not added
      */
     public boolean isRSSFeedOn(String feed) {
-        if (RSSFeeds.containsKey(feed)) {
-            return RSSFeedStatus.get(feed).status == FeedStatus.ON;
-        } else {
-            throw new InvalidParameterException("Feed " + feed + " is not added");
-        }
+        return snapshot.isRSSFeedOn(feed);
     }
 
     /**
@@ -316,15 +553,12 @@ public class RSSConfiguration {
      * @throws InvalidParameterException in case of feed is not added
      */
     public Date getRSSFeedLastPubDate(String feed) {
-        if (RSSFeeds.containsKey(feed)) {
-            return RSSFeedStatus.get(feed).lastPubDate;
-        } else {
-            throw new InvalidParameterException("Feed " + feed + " is not added");
-        }
+        return snapshot.getRSSFeedLastPubDate(feed);
     }
 
     /**
-     * Set RSS Feed last pubDate to new one
+     * Set RSS Feed last pubDate to new one.
+     * Change listeners are not run, feed is marked dirty to be written by the next checkpoint instead
      * If Feed is not in, Exception is raised
      *
      * @param feed link to RSS Feed
@@ -332,21 +566,187 @@ public class RSSConfiguration {
      * @throws InvalidParameterException in case of feed is not added
      */
     public void notifyFeedRead(String feed, Date lastPubDate) {
-        if (RSSFeeds.containsKey(feed)) {
-            if (lastPubDate != null) {
-                RSSFeedStatus.get(feed).lastPubDate = lastPubDate;
-            }
-        } else {
-            throw new InvalidParameterException("Feed " + feed + " is not added");
+        notifyFeedRead(snapshot.getFeedState(feed), lastPubDate);
+    }
+
+    /**
+     * Set last pubDate of RSS Feed which state is taken before it's polled.
+     * Feed which is removed and added again meanwhile has a new state, so it's not touched
+     *
+     * @param state state of feed taken before poll
+     * @param lastPubDate new pubDate
+     */
+    public void notifyFeedRead(FeedState state, Date lastPubDate) {
+        LocalFeedInfo info = state.getInfo();
+        if (lastPubDate != null) {
+            info.lastPubDate = lastPubDate;
+            info.dirty.set(true);
         }
     }
 
+    /**
+     * Get ETag of the last handled response of RSS Feed
+     * If Feed is not in, Exception is raised
+     *
+     * @param feed link to RSS Feed
+     * @return ETag or null if it's unknown
+     * @throws InvalidParameterException in case of feed is not added
+     */
+    public String getRSSFeedETag(String feed) {
+        return snapshot.getFeedState(feed).getETag();
+    }
+
+    /**
+     * Get Last-Modified of the last handled response of RSS Feed
+     * If Feed is not in, Exception is raised
+     *
+     * @param feed link to RSS Feed
+     * @return Last-Modified or null if it's unknown
+     * @throws InvalidParameterException in case of feed is not added
+     */
+    public String getRSSFeedLastModified(String feed) {
+        return snapshot.getFeedState(feed).getLastModified();
+    }
+
+    /**
+     * Set HTTP cache validators of the last handled response of RSS Feed.
+     * Both are replaced, so validator which is not sent any more is forgotten.
+     * Feed is marked dirty to be written by the next checkpoint
+     * If Feed is not in, Exception is raised
+     *
+     * @param feed link to RSS Feed
+     * @param etag ETag or null
+     * @param lastModified Last-Modified or null
+     * @throws InvalidParameterException in case of feed is not added
+     */
+    public void notifyFeedValidators(String feed, String etag, String lastModified) {
+        notifyFeedValidators(snapshot.getFeedState(feed), etag, lastModified);
+    }
+
+    /**
+     * Set HTTP cache validators of RSS Feed which state is taken before it's polled.
+     * Feed which is removed and added again meanwhile has a new state, so it's not touched
+     *
+     * @param state state of feed taken before poll
+     * @param etag ETag or null
+     * @param lastModified Last-Modified or null
+     */
+    public void notifyFeedValidators(FeedState state, String etag, String lastModified) {
+        LocalFeedInfo info = state.getInfo();
+        info.etag = etag;
+        info.lastModified = lastModified;
+        info.dirty.set(true);
+    }
+
+    /**
+     * Get hash of the last handled body of RSS Feed
+     * If Feed is not in, Exception is raised
+     *
+     * @param feed link to RSS Feed
+     * @return hash or null if feed is not handled yet
+     * @throws InvalidParameterException in case of feed is not added
+     */
+    public byte[] getRSSFeedContentHash(String feed) {
+        return snapshot.getFeedState(feed).getContentHash();
+    }
+
+    /**
+     * Set hash of the last handled body of RSS Feed
+     * If Feed is not in, Exception is raised
+     *
+     * @param feed link to RSS Feed
+     * @param contentHash hash of the body
+     * @throws InvalidParameterException in case of feed is not added
+     */
+    public void notifyFeedContentHash(String feed, byte[] contentHash) {
+        notifyFeedContentHash(snapshot.getFeedState(feed), contentHash);
+    }
+
+    /**
+     * Set hash of the last handled body of RSS Feed which state is taken before it's polled.
+     * Feed which is removed and added again meanwhile has a new state, so it's not touched
+     *
+     * @param state state of feed taken before poll
+     * @param contentHash hash of the body
+     */
+    public void notifyFeedContentHash(FeedState state, byte[] contentHash) {
+        state.getInfo().contentHash = contentHash;
+    }
+
+    /**
+     * Get learned layout of date field of RSS Feed, it's created on the first request
+     * If Feed is not in, Exception is raised
+     *
+     * @param feed link to RSS Feed
+     * @param field date field, e.g. pubdate
+     * @return layout cache of the field
+     * @throws InvalidParameterException in case of feed is not added
+     */
+    public PubDateFormatCache getRSSFeedDateFormat(String feed, String field) {
+        return snapshot.getRSSFeedDateFormat(feed, field);
+    }
+
+    /**
+     * Get learned layouts of all date fields of RSS Feed met so far
+     * If Feed is not in, Exception is raised
+     *
+     * @param feed link to RSS Feed
+     * @return map: field -> layout cache
+     * @throws InvalidParameterException in case of feed is not added
+     */
+    public Map<String, PubDateFormatCache> getRSSFeedDateFormats(String feed) {
+        return Collections.unmodifiableMap(snapshot.getFeedState(feed).getInfo().dateFormats);
+    }
+
+    /**
+     * Check if RSS Feed is not found to be unsorted, i.e. reading of its items may be stopped early
+     * If Feed is not in, Exception is raised
+     *
+     * @param feed link to RSS Feed
+     * @return true unless feed is found not to publish newest items first
+     * @throws InvalidParameterException in case of feed is not added
+     */
+    public boolean isRSSFeedSorted(String feed) {
+        return snapshot.isRSSFeedSorted(feed);
+    }
+
+    /**
+     * Remember that RSS Feed doesn't publish newest items first, so all its items are to be read
+     * If Feed is not in, Exception is raised
+     *
+     * @param feed link to RSS Feed
+     * @throws InvalidParameterException in case of feed is not added
+     */
+    public void notifyFeedUnsorted(String feed) {
+        notifyFeedUnsorted(snapshot.getFeedState(feed));
+    }
+
+    /**
+     * Remember that RSS Feed which state is taken before it's polled doesn't publish newest items first.
+     * Feed which is removed and added again meanwhile has a new state, so it's not touched
+     *
+     * @param state state of feed taken before poll
+     */
+    public void notifyFeedUnsorted(FeedState state) {
+        state.getInfo().sorted = false;
+    }
+
     /**
      * Get all the RSS Feeds with its associated files
      *
      * @return unmodifiable map: feed -> file
      */
     public Map<String, String> getRSSFeeds() {
-        return Collections.unmodifiableMap(RSSFeeds);
+        return snapshot.getRSSFeeds();
+    }
+
+    /**
+     * Get consistent state of all the RSS Feeds in one read.
+     * Snapshot is never changed, so it may be used for the whole poll cycle without locks
+     *
+     * @return current snapshot
+     */
+    public ConfigSnapshot getSnapshot() {
+        return snapshot;
     }
 }
@@ -1,6 +1,5 @@
 package model;
 
-import config.RSSConfiguration;
 import lombok.EqualsAndHashCode;
 
 import java.util.*;
@@ -18,6 +17,9 @@ public class FeedModel {
     public static String ATOM_CHANNEL ="feed";
 
     public Map<String, String> metaSource;
+    /**
+     * Parser fills it with compact ItemSource maps
+     */
     public List<Map<String, String>> itemSources;
 
     /**
@@ -29,38 +31,9 @@ public class FeedModel {
     }
 
     /**
-     * Special method to create new FeedModel with only RSS fields
+     * Former pass which rebuilt the model with Atom fields turned into RSS ones.
+     * FeedModelParser maps Atom fields as it reads them, so model is left as it is.
+     * Kept for callers which still invoke it after parsing
      */
-    public void atomToRSS() {
-        Map<String, String> newMetaSource = new HashMap<>();
-        metaSource.keySet().forEach(key -> putAtomOrRss(metaSource, newMetaSource, key));
-        List<Map<String, String>> newItemSources = new ArrayList<>();
-        for (Map<String, String> itemSource : itemSources) {
-            Map<String, String> newItemSource = new HashMap<>();
-            itemSource.keySet().forEach(key -> putAtomOrRss(itemSource, newItemSource, key));
-            newItemSources.add(newItemSource);
-        }
-        this.metaSource = newMetaSource;
-        this.itemSources = newItemSources;
-    }
-
-    /**
-     * Helper method to put the same value, but RSS feed from src to dest
-     *
-     * @param src Source Map with Atom fields
-     * @param dest Destination map with RSS fields only
-     * @param key key to get and put
-     */
-    private void putAtomOrRss(Map<String, String> src, Map<String, String> dest, String key) {
-        String transformedKey = RSSConfiguration.atomToRSS(key);
-        // RSS keys are in priority
-        if (transformedKey.equals(key)) {
-            dest.put(transformedKey, src.get(key));
-        // put Atom only if it's not put
-        } else if (!dest.containsKey(transformedKey)){
-            dest.put(transformedKey, src.get(key));
-        }
-    }
-
-
+    public void atomToRSS() {}
 }
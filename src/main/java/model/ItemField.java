@@ -0,0 +1,63 @@
+package model;
+
+/**
+ * RSS 2.0 item fields which ItemSource keeps in array slots: the same fields as RSSConfiguration
+ * gives with getAvailableItemFields, keyed by lower case name.
+ * Declaration order is the order fields are iterated and printed in. It's the order HashMap used to give,
+ * so files written before keep their layout
+ */
+public enum ItemField {
+    COMMENTS("comments"),
+    ENCLOSURE("enclosure"),
+    AUTHOR("author"),
+    LINK("link"),
+    DESCRIPTION("description"),
+    GUID("guid"),
+    SOURCE("source"),
+    TITLE("title"),
+    CATEGORY("category"),
+    PUB_DATE("pubdate");
+
+    private final String key;
+
+    /**
+     * Constructor with key
+     *
+     * @param key lower case name of field as it's met in FeedModel
+     */
+    ItemField(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Get lower case name of field
+     *
+     * @return key of field in item source
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Find field by lower case name
+     *
+     * @param key name of field
+     * @return field or null if name is not an RSS 2.0 item field
+     */
+    public static ItemField of(Object key) {
+        if (!(key instanceof String)) return null;
+        switch ((String) key) {
+            case "comments": return COMMENTS;
+            case "enclosure": return ENCLOSURE;
+            case "author": return AUTHOR;
+            case "link": return LINK;
+            case "description": return DESCRIPTION;
+            case "guid": return GUID;
+            case "source": return SOURCE;
+            case "title": return TITLE;
+            case "category": return CATEGORY;
+            case "pubdate": return PUB_DATE;
+            default: return null;
+        }
+    }
+}
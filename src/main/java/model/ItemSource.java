@@ -0,0 +1,251 @@
+package model;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Compact item source of FeedModel: values of RSS 2.0 item fields are kept in array slots indexed by ItemField,
+ * any other tag goes to overflow map which is created on demand.
+ * It takes several times less memory than HashMap with the same entries and needs no hashing for known fields.
+ * Entries of known fields are iterated in ItemField order, then the overflow ones
+ */
+public class ItemSource extends AbstractMap<String, String> {
+    private static final ItemField[] fields = ItemField.values();
+
+    /**
+     * Marker of field which is present with null value, as slot with null means field is absent
+     */
+    private static final String NULL = new String();
+
+    private final String[] values = new String[fields.length];
+    private Map<String, String> overflow;
+    private int size;
+
+    /**
+     * Default constructor, source is empty
+     */
+    public ItemSource() {}
+
+    /**
+     * Constructor with entries of the other map
+     *
+     * @param source map to copy entries from
+     */
+    public ItemSource(Map<String, String> source) {
+        source.forEach(this::put);
+    }
+
+    /**
+     * Get value of known field
+     *
+     * @param field field to get
+     * @return value or null if field is absent
+     */
+    public String get(ItemField field) {
+        return unmask(values[field.ordinal()]);
+    }
+
+    /**
+     * Set value of known field
+     *
+     * @param field field to set
+     * @param value value, may be null
+     * @return previous value or null
+     */
+    public String put(ItemField field, String value) {
+        String previous = values[field.ordinal()];
+        if (previous == null) size++;
+        values[field.ordinal()] = value == null ? NULL : value;
+        return unmask(previous);
+    }
+
+    @Override
+    public String get(Object key) {
+        ItemField field = ItemField.of(key);
+        if (field != null) return get(field);
+        return overflow == null ? null : overflow.get(key);
+    }
+
+    @Override
+    public String put(String key, String value) {
+        ItemField field = ItemField.of(key);
+        if (field != null) return put(field, value);
+        if (overflow == null) overflow = new HashMap<>();
+        int before = overflow.size();
+        String previous = overflow.put(key, value);
+        size += overflow.size() - before;
+        return previous;
+    }
+
+    @Override
+    public String remove(Object key) {
+        ItemField field = ItemField.of(key);
+        if (field != null) {
+            String previous = values[field.ordinal()];
+            if (previous != null) size--;
+            values[field.ordinal()] = null;
+            return unmask(previous);
+        }
+        if (overflow == null || !overflow.containsKey(key)) return null;
+        size--;
+        return overflow.remove(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        ItemField field = ItemField.of(key);
+        if (field != null) return values[field.ordinal()] != null;
+        return overflow != null && overflow.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(values, null);
+        overflow = null;
+        size = 0;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super String> action) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) action.accept(fields[i].getKey(), unmask(values[i]));
+        }
+        if (overflow != null) overflow.forEach(action);
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<Entry<String, String>>() {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Turn NULL marker back to null
+     *
+     * @param value slot value
+     * @return value of field
+     */
+    private static String unmask(String value) {
+        return value == NULL ? null : value;
+    }
+
+    /**
+     * Iterator over present slots and then over overflow map
+     */
+    private class EntryIterator implements Iterator<Entry<String, String>> {
+        private int next = nextSlot(0);
+        private int last = -1;
+        private Iterator<Entry<String, String>> overflowIterator;
+
+        /**
+         * Find the first present slot starting from position
+         *
+         * @param from position to start from
+         * @return position of present slot or length of slots
+         */
+        private int nextSlot(int from) {
+            while (from < values.length && values[from] == null) from++;
+            return from;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next < values.length) return true;
+            if (overflowIterator == null) {
+                overflowIterator = overflow == null ? Collections.emptyIterator() : overflow.entrySet().iterator();
+            }
+            return overflowIterator.hasNext();
+        }
+
+        @Override
+        public Entry<String, String> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            if (next < values.length) {
+                last = next;
+                next = nextSlot(next + 1);
+                return new SlotEntry(ItemSource.this, fields[last]);
+            }
+            last = -1;
+            return overflowIterator.next();
+        }
+
+        @Override
+        public void remove() {
+            if (last >= 0) {
+                values[last] = null;
+                size--;
+                last = -1;
+            } else if (overflowIterator != null) {
+                overflowIterator.remove();
+                size--;
+            } else {
+                throw new IllegalStateException();
+            }
+        }
+    }
+
+    /**
+     * Entry of known field which writes new value through to its slot
+     */
+    private static class SlotEntry implements Entry<String, String> {
+        private final ItemSource source;
+        private final ItemField field;
+
+        /**
+         * Constructor with source and field of the slot
+         *
+         * @param source item source which holds the slot
+         * @param field field of the slot
+         */
+        SlotEntry(ItemSource source, ItemField field) {
+            this.source = source;
+            this.field = field;
+        }
+
+        @Override
+        public String getKey() {
+            return field.getKey();
+        }
+
+        @Override
+        public String getValue() {
+            return source.get(field);
+        }
+
+        @Override
+        public String setValue(String value) {
+            return source.put(field, value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) return false;
+            Entry<?, ?> entry = (Entry<?, ?>) o;
+            return getKey().equals(entry.getKey()) && Objects.equals(getValue(), entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return getKey().hashCode() ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package model;
 
+import config.ConfigSnapshot;
+import config.FeedState;
+import config.FieldMask;
 import config.RSSConfiguration;
+import util.PubDateFormatCache;
+import util.PubDateParser;
 
 import java.io.InvalidObjectException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * This class represents RSS Channel (Atom syntax is ignored for now).
@@ -46,47 +50,140 @@ public class RSSChannel {
 
     /**
      * Setup configured channel fields
-     * Setup items which are newer than latestPubDate
+     * Setup items which are newer than latestPubDate, at most maxItems of the newest ones.
+     * Items are selected with a bounded heap, so RSSItem is built for selected items only
      * Update latestPubDate
      *
      * @param configuration RSSConfiguration instance
      * @param feed Link to RSS feed
      * @param model parsed FeedModel
-     * @throws InvalidObjectException in case of feed is not configured or Channel contains mandatory fields
+     * @throws InvalidObjectException in case of feed is not configured, Channel contains mandatory fields
+     *              or any of items is invalid
      */
     public RSSChannel(RSSConfiguration configuration, String feed, FeedModel model)
             throws InvalidObjectException {
-        if (! configuration.getRSSFeeds().containsKey(feed)) {
-            throw new InvalidObjectException("RSS Channel is not configured in RSS Configuration");
-        }
+        this(configuration.getSnapshot(), feed, model);
+    }
+
+    /**
+     * Setup channel with configuration snapshot, so all the fields and limits are taken from the same state
+     *
+     * @param configuration snapshot of RSSConfiguration
+     * @param feed Link to RSS feed
+     * @param model parsed FeedModel
+     * @throws InvalidObjectException in case of feed is not configured, Channel contains mandatory fields
+     *              or any of items is invalid
+     */
+    public RSSChannel(ConfigSnapshot configuration, String feed, FeedModel model)
+            throws InvalidObjectException {
+        this(getConfiguredState(configuration, feed), model);
+    }
+
+    /**
+     * Setup channel with state of feed which is taken before it's polled
+     *
+     * @param state state of RSS feed
+     * @param model parsed FeedModel
+     * @throws InvalidObjectException in case of Channel doesn't contain mandatory fields or any of items is invalid
+     */
+    public RSSChannel(FeedState state, FeedModel model) throws InvalidObjectException {
         if (! model.metaSource.keySet().containsAll(RSSConfiguration.getRawMandatoryChannelFields())) {
             throw new InvalidObjectException("RSS Channel does not contains all the mandatory fields");
         }
 
-        latestPubDate = RSSConfiguration.getInstance().getRSSFeedLastPubDate(feed);
+        latestPubDate = state.getLastPubDate();
 
         this.metaBody = new HashMap<>();
+        FieldMask channelFields = state.getChannelFieldMask();
         model.metaSource.forEach((key, value) -> {
-            if (configuration.getChannelFields(feed).contains(key.toLowerCase())) {
+            if (channelFields.contains(key.toLowerCase())) {
                 metaBody.put(key, value);
             }
         });
-        this.items = new ArrayList<>();
+
+        int maxItems = state.getMaxItems();
+        long threshold = latestPubDate == null ? 0 : latestPubDate.getTime();
+
+        // min-heap of the best maxItems items seen so far, the worst one is on top
+        PriorityQueue<Candidate> selected = new PriorityQueue<>(
+                Math.max(1, Math.min(maxItems, model.itemSources.size()))
+        );
+        PubDateFormatCache dateFormat = state.getDateFormat(ItemField.PUB_DATE.getKey());
+        int index = 0;
         for (Map<String, String> item : model.itemSources) {
-            items.add(new RSSItem(configuration, feed, item));
+            long pubDate = RSSItem.parsePubDate(item, dateFormat);
+            if (pubDate == PubDateParser.INVALID) {
+                throw new InvalidObjectException("RSS Item has PubDate which can not be parsed");
+            }
+            int position = index++;
+            if (pubDate <= threshold || maxItems <= 0) {
+                continue;
+            }
+            // later item never beats the worst selected one of the same pubDate
+            if (selected.size() < maxItems) {
+                selected.add(new Candidate(pubDate, position, item));
+            } else if (pubDate > selected.peek().time) {
+                selected.poll();
+                selected.add(new Candidate(pubDate, position, item));
+            }
         }
 
-        items = items
-                .stream()
-                .filter(i -> i.getLatestPubDate().compareTo(latestPubDate == null ? new Date(0) : latestPubDate) > 0)
-                .sorted(Comparator.comparing(RSSItem::getLatestPubDate, Comparator.reverseOrder()))
-                .limit(configuration.getFeedMaxItems(feed))
-                .collect(Collectors.toList());
-
-        this.latestPubDate = items
-                .stream()
-                .map(RSSItem::getLatestPubDate)
-                .max(Comparator.naturalOrder())
-                .orElse(this.latestPubDate);
+        FieldMask itemFields = state.getItemFieldMask();
+        List<Candidate> survivors = new ArrayList<>(selected);
+        survivors.sort(Comparator.reverseOrder());
+        this.items = new ArrayList<>(survivors.size());
+        for (Candidate candidate : survivors) {
+            items.add(new RSSItem(itemFields, candidate.source, new Date(candidate.time)));
+        }
+
+        if (!survivors.isEmpty()) {
+            this.latestPubDate = items.get(0).getLatestPubDate();
+        }
+    }
+
+    /**
+     * Get state of feed from snapshot
+     *
+     * @param configuration snapshot of RSSConfiguration
+     * @param feed Link to RSS feed
+     * @return state of feed
+     * @throws InvalidObjectException in case of feed is not configured
+     */
+    private static FeedState getConfiguredState(ConfigSnapshot configuration, String feed)
+            throws InvalidObjectException {
+        FeedState state = configuration.getFeedStates().get(feed);
+        if (state == null) {
+            throw new InvalidObjectException("RSS Channel is not configured in RSS Configuration");
+        }
+        return state;
+    }
+
+    /**
+     * Item which competes for a place in the channel.
+     * Newer item is greater, item which is earlier in the feed wins among items of the same pubDate
+     */
+    private static class Candidate implements Comparable<Candidate> {
+        final long time;
+        final int index;
+        final Map<String, String> source;
+
+        /**
+         * Constructor with parsed pubDate and position in the feed
+         *
+         * @param time epoch millis of pubDate
+         * @param index position of the item in the feed
+         * @param source parsed Map from FeedModel
+         */
+        Candidate(long time, int index, Map<String, String> source) {
+            this.time = time;
+            this.index = index;
+            this.source = source;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            int byTime = Long.compare(time, other.time);
+            return byTime != 0 ? byTime : Integer.compare(other.index, index);
+        }
     }
 }
@@ -1,11 +1,12 @@
 package model;
 
+import config.FieldMask;
 import config.RSSConfiguration;
+import util.PubDateFormatCache;
 import util.PubDateParser;
 
 import java.io.InvalidObjectException;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -13,7 +14,7 @@ import java.util.Map;
  */
 public class RSSItem {
 
-    // Actually HashMap to support sorting
+    // ItemSource with configured fields only
     private Map<String, String> body;
     private Date latestPubDate;
 
@@ -51,21 +52,57 @@ public class RSSItem {
             throw new InvalidObjectException("RSS Item is not configured in RSS Configuration");
         }
 
+        long pubDate = parsePubDate(source, configuration.getRSSFeedDateFormat(feed, ItemField.PUB_DATE.getKey()));
+        latestPubDate = pubDate == PubDateParser.INVALID ? null : new Date(pubDate);
+        body = filterBody(configuration.getItemFieldMask(feed), source);
+    }
+
+    /**
+     * Setup configured item fields with pubDate which is already parsed by RSSChannel
+     *
+     * @param fields mask of item fields the feed is configured with
+     * @param source parsed Map from FeedModel, already checked with parsePubDate
+     * @param pubDate parsed pubDate of the source
+     */
+    RSSItem(FieldMask fields, Map<String, String> source, Date pubDate) {
+        latestPubDate = pubDate;
+        body = filterBody(fields, source);
+    }
+
+    /**
+     * Check that source is a valid item and parse its pubDate
+     *
+     * @param source parsed Map from FeedModel
+     * @param dateFormat learned pubDate layout of the feed
+     * @return epoch millis of pubDate or PubDateParser.INVALID if none of known layouts matches
+     * @throws InvalidObjectException in case of Item contains mandatory fields or pubDate is null by some reason
+     */
+    static long parsePubDate(Map<String, String> source, PubDateFormatCache dateFormat) throws InvalidObjectException {
         if (! source.keySet().containsAll(RSSConfiguration.getRawMandatoryItemFields())) {
             throw new InvalidObjectException("RSS Item does not contains all the mandatory fields");
         }
 
-        if (source.get("pubDate".toLowerCase()) == null) {
+        if (source.get(ItemField.PUB_DATE.getKey()) == null) {
             throw new InvalidObjectException("RSS Item has PubDate set to null");
         }
 
-        this.body = new HashMap<>();
+        return dateFormat.parseMillis(source.get(ItemField.PUB_DATE.getKey()));
+    }
+
+    /**
+     * Keep only configured item fields of the source
+     *
+     * @param fields mask of configured item fields
+     * @param source parsed Map from FeedModel
+     * @return map: Configured property -> value
+     */
+    private static Map<String, String> filterBody(FieldMask fields, Map<String, String> source) {
+        Map<String, String> body = new ItemSource();
         source.forEach((key, value) -> {
-            if (configuration.getItemFields(feed).contains(key.toLowerCase())) {
+            if (fields.contains(key.toLowerCase())) {
                 body.put(key, value);
             }
         });
-
-        latestPubDate = PubDateParser.parse(source.get("pubDate".toLowerCase()));
+        return body;
     }
 }
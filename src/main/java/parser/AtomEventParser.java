@@ -2,11 +2,8 @@ package parser;
 
 import util.XMLEventCharactersReader;
 
-import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLStreamException;
-import javax.xml.stream.events.Attribute;
-import javax.xml.stream.events.XMLEvent;
-import java.util.Iterator;
+import javax.xml.stream.XMLStreamReader;
 
 /**
  * This class implements parsing of different atom fields.
@@ -19,32 +16,31 @@ public class AtomEventParser {
     /**
      * Iterate over XML and return atom property value.
      *
-     * @param event current XMLEvent
-     * @param reader XMLEventReader in use
+     * @param reader XMLStreamReader in use, pointing on atom tag
      * @return Atom value
      * @throws IllegalAccessException in case it's not atom field
      * @throws XMLStreamException in case of XML error
      */
-    public String parse(XMLEvent event, XMLEventReader reader) throws IllegalAccessException, XMLStreamException {
-        if (event.isStartElement()) {
+    public String parse(XMLStreamReader reader) throws IllegalAccessException, XMLStreamException {
+        if (reader.isStartElement()) {
 
-            String prefix = event.asStartElement().getName().getPrefix();
-            if (!prefix.equals("atom")) {
+            if (!"atom".equals(reader.getPrefix())) {
                 throw new IllegalAccessException("Atom parser don't parse non-atom fields");
             }
-            String localPart = event.asStartElement().getName().getLocalPart();
+            String localPart = reader.getLocalName();
 
             switch (localPart) {
                 case "link": {
-                    Iterator<Attribute> attributes = event.asStartElement().getAttributes();
                     String rel = "", href = "";
-                    while (attributes.hasNext()) {
-                        Attribute attribute = attributes.next();
-                        if (attribute.getName().toString().equals("rel")) {
-                            rel = attribute.getValue();
+                    for (int i = 0; i < reader.getAttributeCount(); i++) {
+                        // Only attributes without namespace are taken into account
+                        String namespace = reader.getAttributeNamespace(i);
+                        if (namespace != null && !namespace.isEmpty()) continue;
+                        if (reader.getAttributeLocalName(i).equals("rel")) {
+                            rel = reader.getAttributeValue(i);
                         }
-                        if (attribute.getName().toString().equals("href")) {
-                            href = attribute.getValue();
+                        if (reader.getAttributeLocalName(i).equals("href")) {
+                            href = reader.getAttributeValue(i);
                         }
                     }
                     if (rel != null && href != null) return rel + " : " + href;
@@ -52,10 +48,29 @@ public class AtomEventParser {
                     else return rel + href;
                 }
                 default: {
-                    return XMLEventCharactersReader.getCharacterData(event, reader);
+                    return XMLEventCharactersReader.getCharacterData(reader);
                 }
             }
 
         } else throw new IllegalAccessException("Atom parser don't parse at not StartElements");
     }
+
+    /**
+     * Skip atom property the same way parse reads it.
+     *
+     * @param reader XMLStreamReader in use, pointing on atom tag
+     * @throws IllegalAccessException in case it's not atom field
+     * @throws XMLStreamException in case of XML error
+     */
+    public void skip(XMLStreamReader reader) throws IllegalAccessException, XMLStreamException {
+        if (reader.isStartElement()) {
+            if (!"atom".equals(reader.getPrefix())) {
+                throw new IllegalAccessException("Atom parser don't skip non-atom fields");
+            }
+            // 'link' is read from attributes, so there is nothing to skip
+            if (!reader.getLocalName().equals("link")) {
+                XMLEventCharactersReader.skipCharacterData(reader);
+            }
+        } else throw new IllegalAccessException("Atom parser don't skip at not StartElements");
+    }
 }
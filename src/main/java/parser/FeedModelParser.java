@@ -2,11 +2,11 @@ package parser;
 
 import model.FeedModel;
 import util.Log;
+import util.XMLInputFactoryProvider;
 
-import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
-import javax.xml.stream.events.XMLEvent;
+import javax.xml.stream.XMLStreamReader;
 import java.io.InputStream;
 
 /**
@@ -15,6 +15,24 @@ import java.io.InputStream;
 public class FeedModelParser {
     private static Log log = new Log(FeedModelParser.class.getName(), System.out);
 
+    private final XMLInputFactory inputFactory;
+
+    /**
+     * Default constructor with shared factory
+     */
+    public FeedModelParser() {
+        this(XMLInputFactoryProvider.getInstance());
+    }
+
+    /**
+     * Constructor with external factory
+     *
+     * @param inputFactory factory to create readers with
+     */
+    FeedModelParser(XMLInputFactory inputFactory) {
+        this.inputFactory = inputFactory;
+    }
+
     /**
      * Iterate over XML until it's "channel" tag. Then call parser for RSSChannel
      *
@@ -22,16 +40,39 @@ public class FeedModelParser {
      * @return model which is returned from RSSChannelParser
      */
     public FeedModel parse(InputStream in) {
+        return parse(in, FieldProjection.all());
+    }
+
+    /**
+     * Iterate over XML until it's "channel" tag. Then call parser for RSSChannel
+     * which keeps only projected fields
+     *
+     * @param in InputStream with XML
+     * @param projection fields to keep in model
+     * @return model which is returned from RSSChannelParser
+     */
+    public FeedModel parse(InputStream in, FieldProjection projection) {
+        return parse(in, projection, ItemCutoff.none());
+    }
+
+    /**
+     * Iterate over XML until it's "channel" tag. Then call parser for RSSChannel
+     * which keeps only projected fields and stops reading items once cutoff is reached
+     *
+     * @param in InputStream with XML
+     * @param projection fields to keep in model
+     * @param cutoff condition to stop reading items
+     * @return model which is returned from RSSChannelParser
+     */
+    public FeedModel parse(InputStream in, FieldProjection projection, ItemCutoff cutoff) {
         FeedModel model = new FeedModel();
         try {
-            XMLInputFactory inputFactory = XMLInputFactory.newInstance();
-            XMLEventReader eventReader = inputFactory.createXMLEventReader(in);
-            while (eventReader.hasNext()) {
-                XMLEvent event = eventReader.nextEvent();
-                if (event.isStartElement()) {
-                    String localPart = event.asStartElement().getName().getLocalPart();
+            XMLStreamReader reader = inputFactory.createXMLStreamReader(in);
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamReader.START_ELEMENT) {
+                    String localPart = reader.getLocalName();
                     if (localPart.equals(FeedModel.FEED_CHANNEL) || localPart.equals((FeedModel.ATOM_CHANNEL))) {
-                        model = new RSSChannelParser().parse(event, eventReader);
+                        model = new RSSChannelParser().parse(reader, projection, cutoff);
                         // Break to ignore anything beyond channel
                         break;
                     }
@@ -0,0 +1,100 @@
+package parser;
+
+import config.FieldMask;
+import config.RSSConfiguration;
+
+import java.util.Collection;
+
+/**
+ * Channel and item fields which parser shall keep in FeedModel.
+ * Text of other fields is skipped without being read into Strings.
+ * Mandatory fields are always kept, as well as Atom fields which turn into kept RSS fields
+ */
+public class FieldProjection {
+    private static final FieldProjection all = new FieldProjection(null, null);
+    private static final FieldMask mandatoryChannelFields =
+            FieldMask.ofChannelFields(RSSConfiguration.getRawMandatoryChannelFields());
+    private static final FieldMask mandatoryItemFields =
+            FieldMask.ofItemFields(RSSConfiguration.getRawMandatoryItemFields());
+
+    /**
+     * Masks of raw field names or null if every field is kept
+     */
+    private final FieldMask channelFields;
+    private final FieldMask itemFields;
+
+    /**
+     * Constructor with fields to keep
+     *
+     * @param channelFields mask of raw channel fields or null for all
+     * @param itemFields mask of raw item fields or null for all
+     */
+    private FieldProjection(FieldMask channelFields, FieldMask itemFields) {
+        this.channelFields = channelFields;
+        this.itemFields = itemFields;
+    }
+
+    /**
+     * Get projection which keeps every field
+     *
+     * @return projection of all fields
+     */
+    public static FieldProjection all() {
+        return all;
+    }
+
+    /**
+     * Create projection for configured fields
+     *
+     * @param channelFields raw channel fields to keep
+     * @param itemFields raw item fields to keep
+     * @return projection of provided and mandatory fields
+     */
+    public static FieldProjection of(Collection<String> channelFields, Collection<String> itemFields) {
+        return of(FieldMask.ofChannelFields(channelFields), FieldMask.ofItemFields(itemFields));
+    }
+
+    /**
+     * Create projection for configured field masks
+     *
+     * @param channelFields mask of channel fields to keep
+     * @param itemFields mask of item fields to keep
+     * @return projection of provided and mandatory fields
+     */
+    public static FieldProjection of(FieldMask channelFields, FieldMask itemFields) {
+        return new FieldProjection(
+                channelFields.with(mandatoryChannelFields), itemFields.with(mandatoryItemFields)
+        );
+    }
+
+    /**
+     * Check if channel field shall be kept
+     *
+     * @param key field name as it is put into FeedModel
+     * @return true if field is kept
+     */
+    boolean isChannelField(String key) {
+        return contains(channelFields, key);
+    }
+
+    /**
+     * Check if item field shall be kept
+     *
+     * @param key field name as it is put into FeedModel
+     * @return true if field is kept
+     */
+    boolean isItemField(String key) {
+        return contains(itemFields, key);
+    }
+
+    /**
+     * Check if field or RSS field it turns into is in mask
+     *
+     * @param fields mask of raw field names or null for all
+     * @param key field name as it is put into FeedModel
+     * @return true if field is kept
+     */
+    private static boolean contains(FieldMask fields, String key) {
+        return fields == null || fields.contains(key) || fields.contains(RSSConfiguration.atomToRSS(key));
+    }
+}
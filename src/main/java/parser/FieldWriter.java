@@ -0,0 +1,59 @@
+package parser;
+
+import config.RSSConfiguration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writer of fields of one channel or item to its source, Atom fields are mapped to RSS 2.0 ones as they are read.
+ * RSS field always wins over Atom field mapped to the same name, whichever of them comes first.
+ * Of two Atom fields mapped to the same name the one preferred by RSSConfiguration wins,
+ * otherwise the first one read is kept. Repeated field overwrites its previous value
+ */
+class FieldWriter {
+    private final Map<String, String> source;
+
+    /**
+     * RSS field -> Atom field its value is taken from, created on the first Atom field
+     */
+    private Map<String, String> atomOrigins;
+
+    /**
+     * Constructor with source to fill
+     *
+     * @param source channel or item source
+     */
+    FieldWriter(Map<String, String> source) {
+        this.source = source;
+    }
+
+    /**
+     * Put RSS field
+     *
+     * @param key lower case name of field
+     * @param value value of field
+     */
+    void put(String key, String value) {
+        source.put(key, value);
+        if (atomOrigins != null) atomOrigins.remove(key);
+    }
+
+    /**
+     * Put Atom field under the name of RSS field it corresponds to, unless it's taken by a field which wins
+     *
+     * @param atomKey lower case name of field with atom prefix
+     * @param value value of field
+     */
+    void putAtom(String atomKey, String value) {
+        String key = RSSConfiguration.atomToRSS(atomKey);
+        if (source.containsKey(key)) {
+            String origin = atomOrigins == null ? null : atomOrigins.get(key);
+            if (origin == null) return;
+            if (!origin.equals(atomKey) && !RSSConfiguration.isAtomFieldPreferred(atomKey, origin)) return;
+        }
+        source.put(key, value);
+        if (atomOrigins == null) atomOrigins = new HashMap<>();
+        atomOrigins.put(key, atomKey);
+    }
+}
@@ -0,0 +1,98 @@
+package parser;
+
+import model.ItemField;
+import util.PubDateFormatCache;
+import util.PubDateParser;
+
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Condition to stop reading items of a feed which publishes newest items first.
+ * Items are handed to the cutoff in document order. Once pubDates are seen to decrease and as long as
+ * they don't increase, reading stops either on the first item which is not newer than the last known pubDate
+ * or once maxItems newer items are read: the rest of the feed can't make it into RSSChannel.
+ * Item which is newer than the previous one or has no parsable pubDate means feed is not sorted,
+ * then every item is read
+ */
+public class ItemCutoff {
+    private final boolean enabled;
+    private final Date lastPubDate;
+    private final int maxItems;
+    private final PubDateFormatCache dateFormat;
+
+    private boolean sorted = true;
+    private boolean descending = false;
+    private long previousPubDate = PubDateParser.INVALID;
+    private int newerItems;
+
+    /**
+     * Constructor with last known pubDate and max count of items to read
+     *
+     * @param lastPubDate last pubDate of feed or null if nothing is read yet
+     * @param maxItems max count of items per poll
+     */
+    public ItemCutoff(Date lastPubDate, int maxItems) {
+        this(lastPubDate, maxItems, new PubDateFormatCache());
+    }
+
+    /**
+     * Constructor with last known pubDate, max count of items to read and learned pubDate layout of feed
+     *
+     * @param lastPubDate last pubDate of feed or null if nothing is read yet
+     * @param maxItems max count of items per poll
+     * @param dateFormat learned pubDate layout of feed
+     */
+    public ItemCutoff(Date lastPubDate, int maxItems, PubDateFormatCache dateFormat) {
+        this(true, lastPubDate, maxItems, dateFormat);
+    }
+
+    private ItemCutoff(boolean enabled, Date lastPubDate, int maxItems, PubDateFormatCache dateFormat) {
+        this.enabled = enabled;
+        this.lastPubDate = lastPubDate;
+        this.maxItems = maxItems;
+        this.dateFormat = dateFormat;
+    }
+
+    /**
+     * Create cutoff which never stops reading
+     *
+     * @return disabled cutoff
+     */
+    public static ItemCutoff none() {
+        return new ItemCutoff(false, null, Integer.MAX_VALUE, null);
+    }
+
+    /**
+     * Check if items met so far are sorted newest first
+     *
+     * @return false if disorder is detected
+     */
+    public boolean isSorted() {
+        return sorted;
+    }
+
+    /**
+     * Take next item into account and check if the rest of items can be skipped
+     *
+     * @param item parsed item source
+     * @return true if there is no need to read items after this one
+     */
+    boolean isReached(Map<String, String> item) {
+        if (!enabled || !sorted) return false;
+
+        long pubDate = dateFormat.parseMillis(item.get(ItemField.PUB_DATE.getKey()));
+        boolean first = previousPubDate == PubDateParser.INVALID;
+        if (pubDate == PubDateParser.INVALID || (!first && pubDate > previousPubDate)) {
+            sorted = false;
+            return false;
+        }
+        if (!first && pubDate < previousPubDate) descending = true;
+        previousPubDate = pubDate;
+
+        boolean newer = lastPubDate == null || pubDate > lastPubDate.getTime();
+        if (newer) newerItems++;
+        // Order is not known until pubDates are seen to decrease, e.g. feed may publish oldest items first
+        return descending && (!newer || newerItems >= maxItems);
+    }
+}
@@ -4,12 +4,13 @@ import model.FeedModel;
 import util.Log;
 import util.XMLEventCharactersReader;
 
-import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLStreamException;
-import javax.xml.stream.events.XMLEvent;
+import javax.xml.stream.XMLStreamReader;
+import java.util.Map;
 
 /**
- * This class implements parsing for channel properties and items
+ * This class implements parsing for channel properties and items, Atom fields are mapped to RSS 2.0 ones
+ * as they are read
  */
 class RSSChannelParser {
     private static Log log = new Log(RSSChannelParser.class.getName(), System.out);
@@ -19,52 +20,102 @@ class RSSChannelParser {
      * Then call parser for RSSItem (in loop)
      * Finish on closing the channel tag
      *
-     * Note: This parser is waiting for eventReader to be pointed at channel tag
+     * Note: This parser is waiting for reader to be pointed at channel tag
      *
-     * @param event current XMLEvenr
-     * @param eventReader XMLEventReader to use
+     * @param reader XMLStreamReader to use
      * @return parsed FeedModel
      * @throws IllegalAccessException in case it's not channel tag
      * @throws XMLStreamException in case of XML error
      */
-    FeedModel parse(XMLEvent event, XMLEventReader eventReader) throws IllegalAccessException, XMLStreamException {
+    FeedModel parse(XMLStreamReader reader) throws IllegalAccessException, XMLStreamException {
+        return parse(reader, FieldProjection.all());
+    }
+
+    /**
+     * Iterate over XML and write projected channel properties until it's "item" tag.
+     * Then call parser for RSSItem (in loop)
+     * Finish on closing the channel tag
+     *
+     * Note: This parser is waiting for reader to be pointed at channel tag
+     *
+     * @param reader XMLStreamReader to use
+     * @param projection fields to keep
+     * @return parsed FeedModel
+     * @throws IllegalAccessException in case it's not channel tag
+     * @throws XMLStreamException in case of XML error
+     */
+    FeedModel parse(XMLStreamReader reader, FieldProjection projection)
+            throws IllegalAccessException, XMLStreamException {
+        return parse(reader, projection, ItemCutoff.none());
+    }
+
+    /**
+     * Iterate over XML and write projected channel properties until it's "item" tag.
+     * Then call parser for RSSItem (in loop) until cutoff is reached, items after it are skipped unread.
+     * Finish on closing the channel tag, so channel fields placed after items are still read
+     *
+     * Note: This parser is waiting for reader to be pointed at channel tag
+     *
+     * @param reader XMLStreamReader to use
+     * @param projection fields to keep
+     * @param cutoff condition to stop reading items
+     * @return parsed FeedModel
+     * @throws IllegalAccessException in case it's not channel tag
+     * @throws XMLStreamException in case of XML error
+     */
+    FeedModel parse(XMLStreamReader reader, FieldProjection projection, ItemCutoff cutoff)
+            throws IllegalAccessException, XMLStreamException {
         FeedModel model = new FeedModel();
-        if (!(event.isStartElement() && (
-                event.asStartElement().getName().getLocalPart().equals(FeedModel.FEED_CHANNEL)
-                        || event.asStartElement().getName().getLocalPart().equals(FeedModel.ATOM_CHANNEL)
+        FieldWriter writer = new FieldWriter(model.metaSource);
+        if (!(reader.isStartElement() && (
+                reader.getLocalName().equals(FeedModel.FEED_CHANNEL)
+                        || reader.getLocalName().equals(FeedModel.ATOM_CHANNEL)
         ))) {
             throw new IllegalAccessException("Not an <channel> tag");
         }
+        // <channel> of RSS or <feed> of Atom
+        String tag = reader.getLocalName();
+        boolean reached = false;
         try {
-            while (eventReader.hasNext()) {
-                event = eventReader.nextEvent();
-                if (event.isStartElement()) {
-                    String prefix = event.asStartElement().getName().getPrefix();
-                    String localPart = event.asStartElement().getName().getLocalPart();
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamReader.START_ELEMENT) {
+                    String prefix = reader.getPrefix();
+                    String localPart = reader.getLocalName();
                     // in case of it is <item>
                     if (localPart.equals(FeedModel.FEED_ITEM) || localPart.equals(FeedModel.ATOM_ITEM)) {
                         try {
-                            model.itemSources.add(new RSSItemParser().parse(event, eventReader));
+                            if (reached) {
+                                XMLEventCharactersReader.skipCharacterData(reader);
+                                continue;
+                            }
+                            Map<String, String> item = new RSSItemParser().parse(reader, projection);
+                            model.itemSources.add(item);
+                            reached = cutoff.isReached(item);
                         } catch (IllegalAccessException e) {
                             log.error(e.getMessage());
                         }
-                    } else if (prefix.equals("atom")) {
-                        model.metaSource.put(
-                                (prefix + ":" + localPart).toLowerCase(),
-                                new AtomEventParser().parse(event, eventReader)
-                        );
+                    } else if ("atom".equals(prefix)) {
+                        String key = (prefix + ":" + localPart).toLowerCase();
+                        if (projection.isChannelField(key)) {
+                            writer.putAtom(key, new AtomEventParser().parse(reader));
+                        } else {
+                            new AtomEventParser().skip(reader);
+                        }
                     } else {
                         try {
-                            model.metaSource.put(
-                                    localPart.toLowerCase(),
-                                    XMLEventCharactersReader.getCharacterData(event, eventReader)
-                            );
+                            String key = localPart.toLowerCase();
+                            if (projection.isChannelField(key)) {
+                                writer.put(key, XMLEventCharactersReader.getCharacterData(reader));
+                            } else {
+                                XMLEventCharactersReader.skipCharacterData(reader);
+                            }
                         } catch (IllegalAccessException e) {
                             log.error(e.getMessage());
                         }
                     }
-                } else if (event.isEndElement()){
-                    if (event.asEndElement().getName().getLocalPart().equals(FeedModel.FEED_CHANNEL)) {
+                } else if (event == XMLStreamReader.END_ELEMENT) {
+                    if (reader.getLocalName().equals(tag)) {
                         break;
                     }
                 }
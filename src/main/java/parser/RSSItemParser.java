@@ -1,17 +1,16 @@
 package parser;
 
 import model.FeedModel;
+import model.ItemSource;
 import util.Log;
 import util.XMLEventCharactersReader;
 
-import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLStreamException;
-import javax.xml.stream.events.XMLEvent;
-import java.util.HashMap;
+import javax.xml.stream.XMLStreamReader;
 import java.util.Map;
 
 /**
- * This class implements parsing for item properties
+ * This class implements parsing for item properties, Atom fields are mapped to RSS 2.0 ones as they are read
  */
 class RSSItemParser {
     private static Log log = new Log(RSSItemParser.class.getName(), System.out);
@@ -20,45 +19,68 @@ class RSSItemParser {
      * Iterate over XML and write item properties.
      * Finish on closing the item tag
      *
-     * Note: This parser is waiting for eventReader to be pointed on the item tag
+     * Note: This parser is waiting for reader to be pointed on the item tag
      *
-     * @param event current XMLEvent
-     * @param eventReader XMLEventReader to use
+     * @param reader XMLStreamReader to use
      * @return map: ItemProperty -> value
      * @throws IllegalAccessException in case it is not item tag
      * @throws XMLStreamException in case of XML error
      */
-    Map<String, String> parse(XMLEvent event, XMLEventReader eventReader) throws IllegalAccessException, XMLStreamException {
-        Map<String, String> model = new HashMap<>();
-        if (!(event.isStartElement() && (
-                event.asStartElement().getName().getLocalPart().equals(FeedModel.FEED_ITEM)
-                        || event.asStartElement().getName().getLocalPart().equals(FeedModel.ATOM_ITEM)
+    Map<String, String> parse(XMLStreamReader reader) throws IllegalAccessException, XMLStreamException {
+        return parse(reader, FieldProjection.all());
+    }
+
+    /**
+     * Iterate over XML and write projected item properties.
+     * Finish on closing the item tag
+     *
+     * Note: This parser is waiting for reader to be pointed on the item tag
+     *
+     * @param reader XMLStreamReader to use
+     * @param projection fields to keep
+     * @return map: ItemProperty -> value
+     * @throws IllegalAccessException in case it is not item tag
+     * @throws XMLStreamException in case of XML error
+     */
+    Map<String, String> parse(XMLStreamReader reader, FieldProjection projection)
+            throws IllegalAccessException, XMLStreamException {
+        Map<String, String> model = new ItemSource();
+        FieldWriter writer = new FieldWriter(model);
+        if (!(reader.isStartElement() && (
+                reader.getLocalName().equals(FeedModel.FEED_ITEM)
+                        || reader.getLocalName().equals(FeedModel.ATOM_ITEM)
         ))) {
             throw new IllegalAccessException("Not an <item> tag");
         }
+        // <item> of RSS or <entry> of Atom
+        String tag = reader.getLocalName();
         try {
-            while (eventReader.hasNext()) {
-                event = eventReader.nextEvent();
-                if (event.isStartElement()) {
-                    String prefix = event.asStartElement().getName().getPrefix();
-                    String localPart = event.asStartElement().getName().getLocalPart();
-                    if (prefix.equals("atom")) {
-                        model.put(
-                                (prefix + ":" + localPart).toLowerCase(),
-                                new AtomEventParser().parse(event, eventReader)
-                        );
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamReader.START_ELEMENT) {
+                    String prefix = reader.getPrefix();
+                    String localPart = reader.getLocalName();
+                    if ("atom".equals(prefix)) {
+                        String key = (prefix + ":" + localPart).toLowerCase();
+                        if (projection.isItemField(key)) {
+                            writer.putAtom(key, new AtomEventParser().parse(reader));
+                        } else {
+                            new AtomEventParser().skip(reader);
+                        }
                         continue;
                     }
                     try {
-                        model.put(
-                                localPart.toLowerCase(),
-                                XMLEventCharactersReader.getCharacterData(event, eventReader)
-                        );
+                        String key = localPart.toLowerCase();
+                        if (projection.isItemField(key)) {
+                            writer.put(key, XMLEventCharactersReader.getCharacterData(reader));
+                        } else {
+                            XMLEventCharactersReader.skipCharacterData(reader);
+                        }
                     } catch (IllegalAccessException e) {
                         log.error(e.getMessage());
                     }
-                } else if (event.isEndElement()) {
-                    if (event.asEndElement().getName().getLocalPart().equals(FeedModel.FEED_ITEM)) {
+                } else if (event == XMLStreamReader.END_ELEMENT) {
+                    if (reader.getLocalName().equals(tag)) {
                         break;
                     }
                 }
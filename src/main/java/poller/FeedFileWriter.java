@@ -0,0 +1,243 @@
+package poller;
+
+import config.DurabilityMode;
+import util.Log;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Appends rendered RSS Feeds to output files through long-lived FileChannels, one per file.
+ * Channel is opened on the first write and closed after it's not written for a while,
+ * so a file which is polled every cycle is not reopened every time, and a file which is not polled any more
+ * (or is deleted or moved by user) is released.
+ * Feeds which share output file are written one after another.
+ * Depending on durability mode file is forced to disk right after the write or is marked dirty
+ * and forced by the next commit together with the other dirty files
+ */
+class FeedFileWriter implements Closeable {
+    private static Log log = new Log(FeedFileWriter.class.getName(), System.out);
+
+    private final PollStatistics statistics;
+    private final Map<Path, OutputFile> files = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor with statistics to count file operations in
+     *
+     * @param statistics PollStatistics instance
+     */
+    FeedFileWriter(PollStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    /**
+     * Append bytes to the end of file, creating the file if it doesn't exist.
+     * File is not forced to disk
+     *
+     * @param path path to file
+     * @param bytes bytes to write, position is moved to limit
+     * @throws IOException in case of file can't be opened or written
+     */
+    void append(Path path, ByteBuffer bytes) throws IOException {
+        append(path, bytes, DurabilityMode.NONE);
+    }
+
+    /**
+     * Append bytes to the end of file, creating the file if it doesn't exist.
+     * Bytes are usually written with a single write call
+     *
+     * @param path path to file
+     * @param bytes bytes to write, position is moved to limit
+     * @param mode durability mode: FEED forces file right now, CYCLE leaves it for the next commit
+     * @throws IOException in case of file can't be opened, written or forced
+     */
+    void append(Path path, ByteBuffer bytes, DurabilityMode mode) throws IOException {
+        append(path, new ByteBuffer[]{bytes}, mode);
+    }
+
+    /**
+     * Append several buffers to the end of file one after another, creating the file if it doesn't exist.
+     * Buffers are usually written with a single gathering write call
+     *
+     * @param path path to file
+     * @param buffers buffers to write, their positions are moved to limits
+     * @param mode durability mode: FEED forces file right now, CYCLE leaves it for the next commit
+     * @throws IOException in case of file can't be opened, written or forced
+     */
+    void append(Path path, ByteBuffer[] buffers, DurabilityMode mode) throws IOException {
+        long remaining = 0;
+        for (ByteBuffer buffer : buffers) {
+            remaining += buffer.remaining();
+        }
+        while (true) {
+            OutputFile file = files.computeIfAbsent(path, OutputFile::new);
+            synchronized (file) {
+                // Closed as idle between lookup and lock, the next lookup creates a new one
+                if (file.closed) continue;
+                try {
+                    if (file.channel == null) {
+                        file.channel = FileChannel.open(path, CREATE, WRITE, APPEND);
+                        statistics.notifyFileOpened();
+                    }
+                    while (remaining > 0) {
+                        remaining -= file.channel.write(buffers);
+                        statistics.notifyFileWritten();
+                    }
+                    file.lastWrittenAt = System.nanoTime();
+                    if (mode == DurabilityMode.FEED) {
+                        file.dirty = true;
+                        long start = System.nanoTime();
+                        force(file);
+                        statistics.notifyCommit(System.nanoTime() - start);
+                    } else if (mode == DurabilityMode.CYCLE) {
+                        file.dirty = true;
+                    }
+                    return;
+                } catch (IOException e) {
+                    close(file);
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Force all the dirty files to disk as a single group commit.
+     * Files which can't be forced are logged and stay dirty till the next commit
+     *
+     * @return true if all the dirty files are forced
+     */
+    boolean commit() {
+        long start = System.nanoTime();
+        int forced = 0;
+        boolean committed = true;
+        for (OutputFile file : files.values()) {
+            synchronized (file) {
+                if (!file.dirty || file.closed) continue;
+                try {
+                    force(file);
+                    forced++;
+                } catch (IOException e) {
+                    log.error("Error occurred during forcing " + file.path + " to disk: " + e.getMessage());
+                    committed = false;
+                }
+            }
+        }
+        if (forced > 0) {
+            statistics.notifyCommit(System.nanoTime() - start);
+        }
+        return committed;
+    }
+
+    /**
+     * Force content of file to disk. Metadata is forced only when it's needed to read the content,
+     * like size of appended file
+     *
+     * @param file file to force, its lock is held by caller
+     * @throws IOException in case of file can't be forced
+     */
+    private static void force(OutputFile file) throws IOException {
+        file.channel.force(false);
+        file.dirty = false;
+    }
+
+    /**
+     * Close files which are not written for longer than idle timeout
+     *
+     * @param idleNanos idle timeout in nanoseconds
+     */
+    void closeIdle(long idleNanos) {
+        closeIdle(path -> idleNanos);
+    }
+
+    /**
+     * Close files which are not written for longer than their own idle timeouts
+     *
+     * @param idleNanos idle timeout in nanoseconds of file
+     */
+    void closeIdle(ToLongFunction<Path> idleNanos) {
+        long now = System.nanoTime();
+        for (OutputFile file : files.values()) {
+            synchronized (file) {
+                if (now - file.lastWrittenAt >= idleNanos.applyAsLong(file.path)) close(file);
+            }
+        }
+    }
+
+    /**
+     * Get count of files which are open right now
+     *
+     * @return count of open files
+     */
+    int getOpenFiles() {
+        return files.size();
+    }
+
+    /**
+     * Close all the open files
+     */
+    @Override
+    public void close() {
+        for (OutputFile file : files.values()) {
+            synchronized (file) {
+                close(file);
+            }
+        }
+    }
+
+    /**
+     * Close file and forget it. Dirty file is forced before, so closing doesn't break durability.
+     * Error of closing is logged only, since everything is already written
+     *
+     * @param file file to close, its lock is held by caller
+     */
+    private void close(OutputFile file) {
+        file.closed = true;
+        files.remove(file.path, file);
+        if (file.channel == null) return;
+        if (file.dirty) {
+            try {
+                long start = System.nanoTime();
+                force(file);
+                statistics.notifyCommit(System.nanoTime() - start);
+            } catch (IOException e) {
+                log.error("Error occurred during forcing " + file.path + " to disk: " + e.getMessage());
+            }
+        }
+        try {
+            file.channel.close();
+        } catch (IOException e) {
+            log.error("Error occurred during closing " + file.path + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Output file with its channel. Guarded by its own lock
+     */
+    private static class OutputFile {
+        final Path path;
+        FileChannel channel;
+        long lastWrittenAt = System.nanoTime();
+        boolean dirty;
+        boolean closed;
+
+        /**
+         * Constructor with path, channel is opened on the first write
+         *
+         * @param path path to file
+         */
+        OutputFile(Path path) {
+            this.path = path;
+        }
+    }
+}
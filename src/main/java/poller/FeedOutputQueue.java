@@ -0,0 +1,269 @@
+package poller;
+
+import config.DurabilityMode;
+import util.Log;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Decouples poll workers from disk: workers enqueue rendered RSS Feeds and go on with the next feed,
+ * while the only writer thread appends them to files.
+ * Every output file has its own bounded queue, so worker blocks only when writer is behind on its file.
+ * Batches waiting for the same file are coalesced and appended with a single gathering write.
+ * Commits are queued as well, so they force files after everything enqueued before them is written.
+ * Every batch completes its future only after it's appended, so caller remembers what is written, not what is enqueued
+ */
+class FeedOutputQueue implements Closeable {
+    private static Log log = new Log(FeedOutputQueue.class.getName(), System.out);
+    private static final Object commit = new Object();
+    private static final Object stop = new Object();
+    /**
+     * Worker blocked by full queue checks that writer is still alive this often
+     */
+    private static final long livenessCheckMillis = 100;
+
+    private final FeedFileWriter writer;
+    private final PollStatistics statistics;
+    private final Consumer<FeedRenderer> release;
+    private final int capacity;
+
+    private final Map<Path, BlockingQueue<Batch>> queues = new ConcurrentHashMap<>();
+    /**
+     * Tasks of writer: path of file which has batches, commit, latch of drain or stop
+     */
+    private final BlockingQueue<Object> tasks = new LinkedBlockingQueue<>();
+    private volatile Thread thread;
+    private volatile boolean closed;
+
+    /**
+     * Constructor with file writer and size of queues
+     *
+     * @param writer writer of output files
+     * @param statistics PollStatistics instance to report queue depth to
+     * @param release callback which takes renderer back when its batch is written
+     * @param capacity max count of batches waiting for the same file
+     */
+    FeedOutputQueue(FeedFileWriter writer, PollStatistics statistics, Consumer<FeedRenderer> release, int capacity) {
+        this.writer = writer;
+        this.statistics = statistics;
+        this.release = release;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Enqueue rendered RSS Feed to be appended to file. Renderer is not used by caller till it's released.
+     * Blocks while queue of the file is full and writer is alive
+     *
+     * @param path path to file
+     * @param renderer renderer which holds encoded text
+     * @param bytes encoded text to write
+     * @param mode durability mode of the feed
+     * @return future which is completed when text is appended, or completed exceptionally if it can't be
+     * @throws IOException in case of queue is closed, writer is dead or thread is interrupted while waiting
+     */
+    CompletableFuture<Void> enqueue(Path path, FeedRenderer renderer, ByteBuffer bytes, DurabilityMode mode)
+            throws IOException {
+        if (closed) throw new IOException("Output of RSS Feeds is closed");
+        start();
+        BlockingQueue<Batch> queue = queues.computeIfAbsent(path, key -> new ArrayBlockingQueue<>(capacity));
+        Batch batch = new Batch(renderer, bytes, mode);
+        try {
+            while (!queue.offer(batch, livenessCheckMillis, TimeUnit.MILLISECONDS)) {
+                if (closed || !thread.isAlive()) {
+                    throw new IOException("Writer of RSS Feeds is stopped, " + path + " can't be written");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for output queue of " + path);
+        }
+        statistics.notifyQueued();
+        tasks.add(path);
+        if (closed) {
+            // Writer could stop after the check above, then nobody would ever take the batch
+            awaitWriter();
+            fail(queue, new IOException("Output of RSS Feeds is closed, " + path + " can't be written"));
+        }
+        return batch.written;
+    }
+
+    /**
+     * Force files written so far together, after everything enqueued before is written
+     */
+    void commit() {
+        if (thread != null) tasks.add(commit);
+    }
+
+    /**
+     * Wait for everything enqueued so far to be written
+     *
+     * @param timeout max time to wait
+     * @param unit unit of timeout
+     * @return true if everything is written, false if timeout elapsed
+     * @throws InterruptedException in case of thread is interrupted while waiting
+     */
+    boolean drain(long timeout, TimeUnit unit) throws InterruptedException {
+        if (thread == null || !thread.isAlive()) return true;
+        CountDownLatch drained = new CountDownLatch(1);
+        tasks.add(drained);
+        return drained.await(timeout, unit);
+    }
+
+    /**
+     * Write everything enqueued so far, stop writer thread and close files
+     */
+    @Override
+    public void close() {
+        closed = true;
+        Thread writerThread = thread;
+        if (writerThread != null) {
+            tasks.add(stop);
+            try {
+                writerThread.join();
+            } catch (InterruptedException e) {
+                log.error("Thread is interrupted during waiting for output to be written: " + e.getMessage());
+                Thread.currentThread().interrupt();
+            }
+        }
+        writer.close();
+    }
+
+    /**
+     * Wait for writer thread to stop after queue is closed
+     */
+    private void awaitWriter() {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            log.error("Thread is interrupted during waiting for writer to stop: " + e.getMessage());
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Complete exceptionally the batches which are left in queue and release their renderers
+     *
+     * @param queue queue of batches waiting for the same file
+     * @param error cause of failure
+     */
+    private void fail(BlockingQueue<Batch> queue, IOException error) {
+        List<Batch> batches = new ArrayList<>();
+        queue.drainTo(batches);
+        if (batches.isEmpty()) return;
+        statistics.notifyDequeued(batches.size());
+        for (Batch batch : batches) {
+            release.accept(batch.renderer);
+            batch.written.completeExceptionally(error);
+        }
+    }
+
+    /**
+     * Start writer thread unless it's started already
+     */
+    private synchronized void start() {
+        if (thread != null) return;
+        thread = new Thread(this::run, "Poller-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Writer loop: handle tasks in order they are queued till stop, then fail batches which are enqueued after it
+     */
+    private void run() {
+        while (true) {
+            Object task;
+            try {
+                task = tasks.take();
+            } catch (InterruptedException e) {
+                log.error("Writer thread is interrupted: " + e.getMessage());
+                continue;
+            }
+            if (task == stop) break;
+            try {
+                if (task == commit) {
+                    writer.commit();
+                } else if (task instanceof CountDownLatch) {
+                    ((CountDownLatch) task).countDown();
+                } else {
+                    write((Path) task);
+                }
+            } catch (RuntimeException e) {
+                // Writer must outlive a single failed task, otherwise workers would wait for it forever
+                log.error("Error occurred during writing RSS Feeds: " + e);
+            }
+        }
+        writer.commit();
+        queues.forEach((path, queue) -> fail(queue, new IOException("Output of RSS Feeds is closed, " + path + " isn't written")));
+    }
+
+    /**
+     * Append all the batches waiting for the file at once.
+     * Durability mode of the strongest batch applies to all of them.
+     * Batches are completed after they are appended, or completed exceptionally if append fails
+     *
+     * @param path path to file
+     */
+    private void write(Path path) {
+        BlockingQueue<Batch> queue = queues.get(path);
+        List<Batch> batches = new ArrayList<>();
+        queue.drainTo(batches);
+        // Batch is already written along with previous one
+        if (batches.isEmpty()) return;
+        ByteBuffer[] buffers = new ByteBuffer[batches.size()];
+        DurabilityMode mode = DurabilityMode.NONE;
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = batches.get(i).bytes;
+            if (batches.get(i).mode.compareTo(mode) > 0) mode = batches.get(i).mode;
+        }
+        Throwable error = null;
+        try {
+            writer.append(path, buffers, mode);
+        } catch (IOException | RuntimeException e) {
+            log.error("Error occurred during writing RSS Feed to the file: " + e.getMessage());
+            error = e;
+        } finally {
+            statistics.notifyDequeued(batches.size());
+            batches.forEach(batch -> release.accept(batch.renderer));
+        }
+        for (Batch batch : batches) {
+            if (error == null) {
+                batch.written.complete(null);
+            } else {
+                batch.written.completeExceptionally(error);
+            }
+        }
+    }
+
+    /**
+     * Rendered RSS Feed waiting to be written
+     */
+    private static class Batch {
+        final FeedRenderer renderer;
+        final ByteBuffer bytes;
+        final DurabilityMode mode;
+        final CompletableFuture<Void> written = new CompletableFuture<>();
+
+        /**
+         * Constructor with encoded text and its renderer
+         *
+         * @param renderer renderer which holds encoded text
+         * @param bytes encoded text
+         * @param mode durability mode of the feed
+         */
+        Batch(FeedRenderer renderer, ByteBuffer bytes, DurabilityMode mode) {
+            this.renderer = renderer;
+            this.bytes = bytes;
+            this.mode = mode;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package poller;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Renders channel and item properties into user-friendly text:
+ * every property is printed as its key followed by its value on the next line, indented one level deeper.
+ * Text is appended straight into a buffer which is reused from feed to feed,
+ * so rendering doesn't create Strings per property.
+ * Rendered text is encoded to UTF-8 whatever the platform charset is, with encoder and byte buffer reused as well.
+ * Byte buffer is direct, so FileChannel writes it without copying into a temporary one
+ */
+class FeedRenderer {
+    /**
+     * Indent prefixes for the common levels, deeper ones are appended tab by tab
+     */
+    private static final String[] indents = {"", "\t", "\t\t", "\t\t\t"};
+
+    private static final int initialBytesCapacity = 8192;
+
+    private final StringBuilder buffer = new StringBuilder();
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private ByteBuffer bytes = ByteBuffer.allocateDirect(initialBytesCapacity);
+
+    /**
+     * State of the map being rendered. Properties are visited with Map.forEach,
+     * so neither entries nor iterator are created for them
+     */
+    private Predicate<String> isAvailable;
+    private int indent;
+    private final BiConsumer<String, String> property = this::appendProperty;
+
+    /**
+     * Forget everything rendered so far, keeping the buffer
+     *
+     * @return this renderer
+     */
+    FeedRenderer reset() {
+        buffer.setLength(0);
+        return this;
+    }
+
+    /**
+     * Render properties map followed by empty line
+     *
+     * @param map           properties map
+     * @param isAvailable   check if key is to be included
+     * @param initialIndent initial indent for all the lines
+     * @return this renderer
+     */
+    FeedRenderer append(Map<String, String> map, Predicate<String> isAvailable, int initialIndent) {
+        this.isAvailable = isAvailable;
+        this.indent = initialIndent;
+        map.forEach(property);
+        this.isAvailable = null;
+        buffer.append('\n');
+        return this;
+    }
+
+    /**
+     * Render property of the current map if it's to be included
+     *
+     * @param key   property name
+     * @param value property value
+     */
+    private void appendProperty(String key, String value) {
+        if (isAvailable.test(key)) {
+            indent(indent);
+            buffer.append(key).append(":\n");
+            indent(indent + 1);
+            buffer.append(value).append('\n');
+        }
+    }
+
+    /**
+     * Append indent prefix
+     *
+     * @param level count of tabs
+     */
+    private void indent(int level) {
+        if (level < indents.length) {
+            buffer.append(indents[level]);
+        } else {
+            for (int i = 0; i < level; i++) {
+                buffer.append('\t');
+            }
+        }
+    }
+
+    /**
+     * Encode text rendered so far to UTF-8.
+     * Buffer grows when text doesn't fit, so text is encoded in one pass in most cases
+     *
+     * @return buffer of encoded text ready to be written, valid until the next encode
+     */
+    ByteBuffer encode() {
+        CharBuffer text = CharBuffer.wrap(buffer);
+        int expected = (int) Math.min(Integer.MAX_VALUE, (long) (buffer.length() * encoder.averageBytesPerChar()));
+        if (bytes.capacity() < expected) {
+            bytes = ByteBuffer.allocateDirect(expected);
+        }
+        bytes.clear();
+        encoder.reset();
+        while (true) {
+            CoderResult result = text.hasRemaining() ? encoder.encode(text, bytes, true) : CoderResult.UNDERFLOW;
+            if (result.isUnderflow()) {
+                result = encoder.flush(bytes);
+            }
+            if (result.isUnderflow()) break;
+            if (result.isOverflow()) {
+                grow();
+            } else {
+                // Not reachable with REPLACE actions, kept to never loop forever
+                throw new IllegalStateException(result.toString());
+            }
+        }
+        bytes.flip();
+        return bytes;
+    }
+
+    /**
+     * Double byte buffer keeping bytes encoded so far
+     */
+    private void grow() {
+        ByteBuffer grown = ByteBuffer.allocateDirect(bytes.capacity() * 2);
+        bytes.flip();
+        grown.put(bytes);
+        bytes = grown;
+    }
+
+    /**
+     * Get text rendered so far
+     *
+     * @return buffer of rendered text, valid until the next reset
+     */
+    CharSequence getText() {
+        return buffer;
+    }
+
+    /**
+     * Get current capacity of the buffers
+     *
+     * @return count of bytes buffers can hold without growing
+     */
+    int capacity() {
+        return buffer.capacity() * 2 + bytes.capacity();
+    }
+
+    @Override
+    public String toString() {
+        return buffer.toString();
+    }
+}
@@ -0,0 +1,51 @@
+package poller;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Result of fetching RSS Feed: body to parse and cache validators sent by server.
+ * Response without body means feed is not modified since the last poll
+ */
+class FeedResponse implements Closeable {
+    final InputStream body;
+    final String etag;
+    final String lastModified;
+
+    /**
+     * Constructor with body and validators
+     *
+     * @param body stream to read RSS Feed from or null if feed is not modified
+     * @param etag value of ETag header or null
+     * @param lastModified value of Last-Modified header or null
+     */
+    FeedResponse(InputStream body, String etag, String lastModified) {
+        this.body = body;
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Create response for feed which is not modified
+     *
+     * @return response without body
+     */
+    static FeedResponse notModified() {
+        return new FeedResponse(null, null, null);
+    }
+
+    /**
+     * Check if feed is not modified since the last poll
+     *
+     * @return true if there is nothing to parse
+     */
+    boolean isNotModified() {
+        return body == null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (body != null) body.close();
+    }
+}
@@ -0,0 +1,245 @@
+package poller;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statistics singleton for polls done since application start:
+ * how many feeds were fetched and how many of them were not parsed
+ * because server answered 304 or sent the very same body as last time,
+ * and how many times output files were opened, written and forced to disk.
+ * Depth of output queue shows how far file writes are behind poll workers
+ */
+public class PollStatistics {
+    /**
+     * Singleton field
+     */
+    private static final PollStatistics statistics = new PollStatistics();
+
+    private final AtomicLong fetched = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicLong unchanged = new AtomicLong();
+    private final AtomicLong filesOpened = new AtomicLong();
+    private final AtomicLong fileWrites = new AtomicLong();
+    private final AtomicLong commits = new AtomicLong();
+    private final AtomicLong commitNanos = new AtomicLong();
+    private final AtomicLong maxCommitNanos = new AtomicLong();
+    private final AtomicLong queueDepth = new AtomicLong();
+    private final AtomicLong maxQueueDepth = new AtomicLong();
+
+    /**
+     * Default constructor
+     */
+    private PollStatistics() {}
+
+    /**
+     * Singleton method to get the instance
+     *
+     * @return PollStatistics instance
+     */
+    public static PollStatistics getInstance() {
+        return statistics;
+    }
+
+    /**
+     * Count feed which server answered 304 to
+     */
+    void notifyNotModified() {
+        fetched.incrementAndGet();
+        notModified.incrementAndGet();
+    }
+
+    /**
+     * Count feed which body is the same as last time
+     */
+    void notifyUnchanged() {
+        fetched.incrementAndGet();
+        unchanged.incrementAndGet();
+    }
+
+    /**
+     * Count feed which body is handed to parser
+     */
+    void notifyParsed() {
+        fetched.incrementAndGet();
+    }
+
+    /**
+     * Count output file opened for appending
+     */
+    void notifyFileOpened() {
+        filesOpened.incrementAndGet();
+    }
+
+    /**
+     * Count write call to output file
+     */
+    void notifyFileWritten() {
+        fileWrites.incrementAndGet();
+    }
+
+    /**
+     * Count forcing of output files to disk: group of files written during poll cycle or file of single feed
+     *
+     * @param nanos time taken by the commit in nanoseconds
+     */
+    void notifyCommit(long nanos) {
+        commits.incrementAndGet();
+        commitNanos.addAndGet(nanos);
+        maxCommitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Count rendered feed waiting in output queue
+     */
+    void notifyQueued() {
+        long depth = queueDepth.incrementAndGet();
+        maxQueueDepth.accumulateAndGet(depth, Math::max);
+    }
+
+    /**
+     * Count rendered feeds taken from output queue by writer
+     *
+     * @param count count of feeds written
+     */
+    void notifyDequeued(int count) {
+        queueDepth.addAndGet(-count);
+    }
+
+    /**
+     * Get count of fetched feeds
+     *
+     * @return count of responses received
+     */
+    public long getFetched() {
+        return fetched.get();
+    }
+
+    /**
+     * Get count of feeds which server answered 304 to
+     *
+     * @return count of not modified responses
+     */
+    public long getNotModified() {
+        return notModified.get();
+    }
+
+    /**
+     * Get count of feeds which body matched the hash of the last handled one
+     *
+     * @return count of responses skipped by content hash
+     */
+    public long getUnchanged() {
+        return unchanged.get();
+    }
+
+    /**
+     * Get share of fetched bodies which were not parsed because of content hash
+     *
+     * @return ratio from 0 to 1, 0 if nothing is fetched yet
+     */
+    public double getHashSkipRatio() {
+        long received = fetched.get() - notModified.get();
+        return received == 0 ? 0 : (double) unchanged.get() / received;
+    }
+
+    /**
+     * Get share of fetched feeds which were not parsed for any reason
+     *
+     * @return ratio from 0 to 1, 0 if nothing is fetched yet
+     */
+    public double getSkipRatio() {
+        long total = fetched.get();
+        return total == 0 ? 0 : (double) (notModified.get() + unchanged.get()) / total;
+    }
+
+    /**
+     * Get count of output files opened for appending
+     *
+     * @return count of opened files
+     */
+    public long getFilesOpened() {
+        return filesOpened.get();
+    }
+
+    /**
+     * Get count of write calls to output files
+     *
+     * @return count of writes
+     */
+    public long getFileWrites() {
+        return fileWrites.get();
+    }
+
+    /**
+     * Get count of commits of output files to disk
+     *
+     * @return count of commits
+     */
+    public long getCommits() {
+        return commits.get();
+    }
+
+    /**
+     * Get average time taken by commit of output files to disk
+     *
+     * @return average commit latency in milliseconds, 0 if nothing is committed yet
+     */
+    public double getAverageCommitLatency() {
+        long count = commits.get();
+        return count == 0 ? 0 : commitNanos.get() / 1e6 / count;
+    }
+
+    /**
+     * Get the longest time taken by commit of output files to disk
+     *
+     * @return max commit latency in milliseconds
+     */
+    public double getMaxCommitLatency() {
+        return maxCommitNanos.get() / 1e6;
+    }
+
+    /**
+     * Get count of rendered feeds waiting to be written right now
+     *
+     * @return current depth of output queue
+     */
+    public long getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    /**
+     * Get the largest count of rendered feeds waiting to be written at once
+     *
+     * @return max depth of output queue
+     */
+    public long getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    /**
+     * Forget everything counted so far. Current depth of output queue is kept, since feeds are still there
+     */
+    public void reset() {
+        fetched.set(0);
+        notModified.set(0);
+        unchanged.set(0);
+        filesOpened.set(0);
+        fileWrites.set(0);
+        commits.set(0);
+        commitNanos.set(0);
+        maxCommitNanos.set(0);
+        maxQueueDepth.set(queueDepth.get());
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "Fetched %d feeds: %d not modified, %d unchanged by hash (%.1f%% of bodies), %.1f%% not parsed. "
+                        + "Output: %d writes, %d files opened, %d commits (%.2f ms avg, %.2f ms max), "
+                        + "%d feeds queued (%d max)",
+                getFetched(), getNotModified(), getUnchanged(), getHashSkipRatio() * 100, getSkipRatio() * 100,
+                getFileWrites(), getFilesOpened(), getCommits(), getAverageCommitLatency(), getMaxCommitLatency(),
+                getQueueDepth(), getMaxQueueDepth()
+        );
+    }
+}
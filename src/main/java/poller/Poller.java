@@ -1,27 +1,37 @@
 package poller;
 
+import config.ConfigSnapshot;
+import config.FeedState;
+import config.FieldMask;
+import config.PollMode;
 import config.RSSConfiguration;
 import model.FeedModel;
+import model.ItemField;
 import model.RSSChannel;
 import model.RSSItem;
 import parser.FeedModelParser;
+import parser.FieldProjection;
+import parser.ItemCutoff;
 import util.Log;
+import util.VirtualThreads;
 
-import java.io.File;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.nio.file.Files;
+import java.net.URLConnection;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Date;
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
-
-import static java.nio.file.StandardOpenOption.APPEND;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 
 /**
  * Runnable class to poll RSS Feeds and write them to associated files
@@ -29,36 +39,297 @@ import static java.nio.file.StandardOpenOption.APPEND;
  */
 public class Poller implements Runnable {
     private static Log log = new Log(Poller.class.getName(), System.out);
+    private static final int bodyBufferSize = 8192;
+    /**
+     * Renderers which buffers grow larger than this count of bytes are not kept for the next feed
+     */
+    private static final int maxRetainedRenderBuffer = 1 << 20;
+    /**
+     * Output file is closed when it's not written during this count of poll intervals
+     */
+    private static final long outputIdleIntervals = 2;
+    /**
+     * Max count of rendered feeds waiting for the same output file, worker waits for writer when it's reached
+     */
+    private static final int outputQueueCapacity = 16;
+
+    private final PollStatistics statistics = PollStatistics.getInstance();
+
+    /**
+     * Renderers which are not in use now. Worker takes one and renders channel with all its items,
+     * writer gives it back when its bytes are appended to file.
+     * Pool is never larger than count of concurrent workers and feeds waiting in output queue
+     */
+    private final Queue<FeedRenderer> renderers = new ConcurrentLinkedQueue<>();
+    private final FeedFileWriter files = new FeedFileWriter(statistics);
+    private final FeedOutputQueue output =
+            new FeedOutputQueue(files, statistics, this::releaseRenderer, outputQueueCapacity);
+
+    /**
+     * Released when run() is over and all the output is written
+     */
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    private volatile boolean running = true;
+
+    /**
+     * Workers which fetch, parse and write feeds in parallel.
+     * Either bounded pool of platform threads or virtual thread per feed, depending on the poll mode
+     */
+    private ExecutorService executor;
+    private PollMode executorMode;
+
+    /**
+     * Feeds which are being polled right now. Feed from this set is skipped by the next cycle
+     */
+    private final Set<String> feedsInFlight = ConcurrentHashMap.newKeySet();
 
     /**
-     * Time to sleep between checks for time to poll modifications
+     * Per-feed schedule: scheduler thread sleeps until the head feed is due.
+     * scheduledFeeds keeps the only valid queue entry for every feed waiting in schedule,
+     * entries which are not there any more are stale and ignored.
+     * Both are guarded by scheduleLock.
      */
+    private final DelayQueue<ScheduledFeed> schedule = new DelayQueue<>();
+    private final Map<String, ScheduledFeed> scheduledFeeds = new HashMap<>();
+    private final Object scheduleLock = new Object();
+    private final Runnable wakeUp = () -> schedule.add(ScheduledFeed.wakeUp());
+
+    /**
+     * Default constructor. Workers are created for configured poll mode and count of poll threads
+     */
+    public Poller() {
+        RSSConfiguration configuration = RSSConfiguration.getInstance();
+        executorMode = configuration.getPollMode();
+        executor = newExecutor(executorMode, configuration.getPollThreads());
+    }
 
-    private boolean running = true;
+    /**
+     * Create workers for the poll mode
+     *
+     * @param mode poll mode
+     * @param threads count of threads, used in PLATFORM mode only
+     * @return new ExecutorService
+     */
+    private static ExecutorService newExecutor(PollMode mode, int threads) {
+        if (mode == PollMode.VIRTUAL) {
+            return VirtualThreads.newPerTaskExecutor();
+        }
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "Poller-worker-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
 
     /**
      * Polling function.
-     * Actually, iterates over all the feeds which are turned on and prints them to file.
-     * Also notifies configurator about new pubDate
+     * Actually, submits all the feeds which are turned on to the pool of workers and waits for the cycle to finish
+     * and for its output to be written.
+     * Feeds which are still polled or written since previous cycle are skipped.
+     * If cycle doesn't finish in time to poll, the rest of feeds are left running in background.
      *
      * @param configuration instance of RSSConfiguration
      */
     void poll(RSSConfiguration configuration) {
-        configuration.getRSSFeeds().forEach((feed, file) -> {
-            if (configuration.isRSSFeedOn(feed)) {
-                try {
-                    InputStream in = new URL(feed).openStream();
-                    Date newPubDate = handleRSSFeed(in, feed, file);
-                    configuration.notifyFeedRead(feed, newPubDate);
-                } catch (IllegalArgumentException e) {
-                    log.error(e.getMessage());
-                } catch (MalformedURLException e) {
-                    log.error("Can't read URL. " + e.getMessage());
-                } catch (IOException e) {
-                    log.error(e.getMessage());
+        applyPollMode(configuration.getPollMode(), configuration.getPollThreads());
+        List<Future<?>> cycle = new ArrayList<>();
+        ConfigSnapshot snapshot = configuration.getSnapshot();
+        snapshot.getFeedStates().forEach((feed, state) -> {
+            if (state.isOn()) {
+                if (feedsInFlight.add(feed)) {
+                    cycle.add(executor.submit(() -> {
+                        CompletableFuture<Void> handled = CompletableFuture.completedFuture(null);
+                        try {
+                            handled = pollFeed(configuration, feed, state);
+                        } finally {
+                            // Feed is in flight till its output is written and its pubDate is remembered
+                            handled.whenComplete((result, error) -> feedsInFlight.remove(feed));
+                        }
+                    }));
+                } else {
+                    log.warn(feed + " is still being polled since previous cycle");
                 }
             }
         });
+        awaitCycle(cycle, snapshot.getTimeToPoll());
+        commitFiles();
+        drainOutput(configuration);
+    }
+
+    /**
+     * Poll single RSS Feed, print it to file and notify configurator about new pubDate.
+     * If feed is not modified since the last poll or its body is the same as last time,
+     * neither parser nor file is touched.
+     * New pubDate, cache validators and content hash are remembered only after new items are written to the file,
+     * so items which couldn't be written are read again by the next poll.
+     * They are remembered in the state taken before poll, so feed which is removed and added again meanwhile
+     * starts from scratch
+     *
+     * @param configuration instance of RSSConfiguration
+     * @param feed link to RSS Feed
+     * @param state state of feed taken when it's submitted
+     * @return future which is completed when feed is handled and its new pubDate is remembered
+     */
+    CompletableFuture<Void> pollFeed(RSSConfiguration configuration, String feed, FeedState state) {
+        try {
+            try (FeedResponse response = fetch(feed, state.getETag(), state.getLastModified())) {
+                if (response.isNotModified()) {
+                    statistics.notifyNotModified();
+                    return CompletableFuture.completedFuture(null);
+                }
+                // Body is hashed while being read from network, then parsed from memory if it's changed
+                DigestInputStream digestStream = new DigestInputStream(response.body, newContentDigest());
+                byte[] body = readBody(digestStream);
+                byte[] contentHash = digestStream.getMessageDigest().digest();
+                if (Arrays.equals(contentHash, state.getContentHash())) {
+                    statistics.notifyUnchanged();
+                    return CompletableFuture.completedFuture(null);
+                }
+                statistics.notifyParsed();
+                return handleRSSFeed(new ByteArrayInputStream(body), feed, state).thenAccept(newPubDate -> {
+                    if (newPubDate != null) {
+                        configuration.notifyFeedValidators(state, response.etag, response.lastModified);
+                        configuration.notifyFeedContentHash(state, contentHash);
+                    }
+                    // Journal record of new pubDate carries validators as well
+                    configuration.notifyFeedRead(state, newPubDate);
+                });
+            }
+        } catch (IllegalArgumentException e) {
+            log.error(e.getMessage());
+        } catch (MalformedURLException e) {
+            log.error("Can't read URL. " + e.getMessage());
+        } catch (IOException e) {
+            log.error(e.getMessage());
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Fetch RSS Feed. In case of HTTP, conditional GET is done with provided validators
+     *
+     * @param feed link to RSS Feed
+     * @param etag ETag of the last handled response or null
+     * @param lastModified Last-Modified of the last handled response or null
+     * @return response with body or not modified response
+     * @throws IOException in case of link is malformed or can't be read
+     */
+    FeedResponse fetch(String feed, String etag, String lastModified) throws IOException {
+        URLConnection connection = new URL(feed).openConnection();
+        if (connection instanceof HttpURLConnection) {
+            HttpURLConnection http = (HttpURLConnection) connection;
+            if (etag != null) http.setRequestProperty("If-None-Match", etag);
+            if (lastModified != null) http.setRequestProperty("If-Modified-Since", lastModified);
+            if (http.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                // Consume empty body to keep connection alive
+                http.getInputStream().close();
+                return FeedResponse.notModified();
+            }
+        }
+        return new FeedResponse(
+                connection.getInputStream(), connection.getHeaderField("ETag"), connection.getHeaderField("Last-Modified")
+        );
+    }
+
+    /**
+     * Create digest to detect that feed body is the same as last time.
+     * Collisions are not a security concern here, so the choice is about speed only
+     *
+     * @return new MessageDigest
+     */
+    private static MessageDigest newContentDigest() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support MD5
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Read the whole body of RSS Feed
+     *
+     * @param in stream to read
+     * @return bytes read
+     * @throws IOException in case of stream can't be read
+     */
+    private static byte[] readBody(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bodyBufferSize);
+        byte[] buffer = new byte[bodyBufferSize];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Wait for all the feeds of the cycle to be polled, but not longer than timeout
+     *
+     * @param cycle futures of feeds submitted during the cycle
+     * @param timeout time to wait in seconds
+     */
+    private void awaitCycle(List<Future<?>> cycle, long timeout) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeout);
+        int unfinished = 0;
+        for (Future<?> future : cycle) {
+            try {
+                future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                unfinished++;
+            } catch (ExecutionException e) {
+                log.error("Error occurred during polling RSS Feed: " + e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                log.error("Thread is interrupted during waiting for poll cycle: " + e.getMessage());
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        if (unfinished > 0) {
+            log.warn(unfinished + " RSS Feeds are not polled in time. They will be skipped during the next cycle");
+        }
+    }
+
+    /**
+     * Apply configured poll mode and count of poll threads to the workers.
+     * In case of mode is changed, old workers finish their feeds in background
+     *
+     * @param mode poll mode
+     * @param threads count of threads
+     */
+    private void applyPollMode(PollMode mode, int threads) {
+        if (mode != executorMode) {
+            executor.shutdown();
+            executor = newExecutor(mode, threads);
+            executorMode = mode;
+            log.info("Switched to " + mode + " poll mode");
+        } else if (executor instanceof ThreadPoolExecutor) {
+            resizePool((ThreadPoolExecutor) executor, threads);
+        }
+    }
+
+    /**
+     * Apply configured count of poll threads to the pool
+     *
+     * @param pool pool of platform threads
+     * @param threads count of threads
+     */
+    private static void resizePool(ThreadPoolExecutor pool, int threads) {
+        if (threads == pool.getMaximumPoolSize()) return;
+        // Core size can't be greater than max size, so the order depends on direction
+        if (threads > pool.getMaximumPoolSize()) {
+            pool.setMaximumPoolSize(threads);
+            pool.setCorePoolSize(threads);
+        } else {
+            pool.setCorePoolSize(threads);
+            pool.setMaximumPoolSize(threads);
+        }
     }
 
     /**
@@ -68,54 +339,131 @@ public class Poller implements Runnable {
      *
      * @param in InputStream to parse
      * @param link        rss feed link
-     * @param file        file name
-     * @return updated latestPubDate or null if no success
+     * @param state       state of feed taken when it's submitted
+     * @return future of updated latestPubDate which is completed when new items are written,
+     * completed with null if no success or completed exceptionally if items can't be written
      */
-    Date handleRSSFeed(InputStream in, String link, String file) {
+    CompletableFuture<Date> handleRSSFeed(InputStream in, String link, FeedState state) {
         try {
-            FeedModel model = new FeedModelParser().parse(in);
-            model.atomToRSS();
-            Path path = Paths.get(file);
-            RSSChannel channel = new RSSChannel(RSSConfiguration.getInstance(), link, model);
-            printRSSFeedToFile(channel, link, path);
-            return channel.getLatestPubDate();
+            RSSConfiguration configuration = RSSConfiguration.getInstance();
+            FieldProjection projection = FieldProjection.of(state.getChannelFieldMask(), state.getItemFieldMask());
+            ItemCutoff cutoff = state.isSorted()
+                    ? new ItemCutoff(state.getLastPubDate(), state.getMaxItems(), state.getDateFormat(ItemField.PUB_DATE.getKey()))
+                    : ItemCutoff.none();
+            FeedModel model = new FeedModelParser().parse(in, projection, cutoff);
+            if (!cutoff.isSorted()) {
+                log.info("Items of " + link + " are not sorted by pubDate, all of them will be read");
+                configuration.notifyFeedUnsorted(state);
+            }
+            Path path = Paths.get(state.getFile());
+            RSSChannel channel = new RSSChannel(state, model);
+            Date latestPubDate = channel.getLatestPubDate();
+            return printRSSFeedToFile(channel, state, path).thenApply(written -> latestPubDate);
         } catch (IOException e) {
             log.error("Error occurred during writing RSS Feed to the file: " + e.getMessage());
         }
 
-        return null;
+        return CompletableFuture.completedFuture(null);
     }
 
     /**
      * Print RSS Feed to the file.
+     * Channel description and all the items are rendered into one buffer, encoded to UTF-8
+     * and enqueued to be appended with a single write, so worker doesn't wait for disk
      *
      * @param channel     RSS Channel which is about to be printed
-     * @param link        rss feed link
+     * @param state       state of RSS Feed which fields are printed
      * @param path        path to file
+     * @return future which is completed when feed is written, at once if there is nothing to write
      * @throws IOException in case of issues with file work
      */
-    void printRSSFeedToFile(RSSChannel channel, String link, Path path) throws IOException {
+    CompletableFuture<Void> printRSSFeedToFile(RSSChannel channel, FeedState state, Path path) throws IOException {
         // we do not want to append empty channel description
         if (channel.getItems().size() > 0) {
-
-            final String feedString = getStringFromMap(
-                    channel.getMetaBody(), RSSConfiguration.getInstance().getChannelFields(link), 0
-            );
-            File file = path.toFile();
-            if (!file.exists() && !file.isDirectory()) {
-                file.createNewFile();
+            FieldMask channelFields = state.getChannelFieldMask();
+            FieldMask itemFields = state.getItemFieldMask();
+            Predicate<String> isItemField = itemFields::contains;
+            FeedRenderer renderer = renderers.poll();
+            if (renderer == null) renderer = new FeedRenderer();
+            boolean enqueued = false;
+            try {
+                renderer.reset().append(channel.getMetaBody(), channelFields::contains, 0);
+                for (RSSItem item : channel.getItems()) {
+                    renderer.append(item.getBody(), isItemField, 1);
+                }
+                CompletableFuture<Void> written =
+                        output.enqueue(path, renderer, renderer.encode(), RSSConfiguration.getInstance().getDurabilityMode());
+                enqueued = true;
+                return written;
+            } finally {
+                if (!enqueued) releaseRenderer(renderer);
             }
-            Files.write(path, feedString.getBytes(), APPEND);
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Take renderer back to the pool unless its buffers grew too large
+     *
+     * @param renderer renderer which is not in use any more
+     */
+    private void releaseRenderer(FeedRenderer renderer) {
+        if (renderer.capacity() <= maxRetainedRenderBuffer) renderers.offer(renderer);
+    }
 
-            for (RSSItem item : channel.getItems()) {
-                final String itemString = getStringFromMap(
-                        item.getBody(), RSSConfiguration.getInstance().getItemFields(link), 1
-                );
-                Files.write(path, itemString.getBytes(), APPEND);
+    /**
+     * Wait for rendered feeds to be appended to files
+     *
+     * @param configuration instance of RSSConfiguration
+     */
+    void drainOutput(RSSConfiguration configuration) {
+        try {
+            if (!output.drain(configuration.getTimeToPoll(), TimeUnit.SECONDS)) {
+                log.warn("Not all the RSS Feeds are written to files in time");
             }
+        } catch (InterruptedException e) {
+            log.error("Thread is interrupted during waiting for output: " + e.getMessage());
+            Thread.currentThread().interrupt();
         }
     }
 
+    /**
+     * Force output files written since the last commit to disk together,
+     * after feeds which are already enqueued are written.
+     * Nothing is forced in NONE durability mode, and FEED mode forces file right after it's written
+     */
+    void commitFiles() {
+        output.commit();
+    }
+
+    /**
+     * Force output files which are written but not committed yet to disk right now, in the caller thread.
+     * Configurator calls it before it journals pubDates of written feeds
+     *
+     * @return true if all of them are forced
+     */
+    public boolean commitWrittenFiles() {
+        return files.commit();
+    }
+
+    /**
+     * Close output files which are not written for a while.
+     * File is idle after a few of the longest poll intervals of feeds written to it,
+     * so feed polled less often than time to poll keeps its file open.
+     * File which no feed is written to any more is idle after a few times to poll
+     *
+     * @param configuration instance of RSSConfiguration
+     */
+    void closeIdleFiles(RSSConfiguration configuration) {
+        ConfigSnapshot snapshot = configuration.getSnapshot();
+        Map<Path, Long> intervals = new HashMap<>();
+        snapshot.getFeedStates().forEach(
+                (feed, state) -> intervals.merge(Paths.get(state.getFile()), snapshot.getPollInterval(state), Math::max)
+        );
+        long timeToPoll = snapshot.getTimeToPoll();
+        files.closeIdle(path -> TimeUnit.SECONDS.toNanos(outputIdleIntervals * intervals.getOrDefault(path, timeToPoll)));
+    }
+
     /**
      * Helper method for getting user-friendly string from channel or item properties map
      *
@@ -125,34 +473,53 @@ public class Poller implements Runnable {
      * @return User-friendly string ready for output
      */
     static String getStringFromMap(Map<String, String> map, List<String> availableKeys, int initialIndent) {
-        StringBuilder indentation = new StringBuilder();
-        for (int i = 0; i < initialIndent; i++) {
-            indentation.append("\t");
-        }
-        String indentationStr = indentation.toString();
-        return map.entrySet()
-                .stream()
-                .filter((keyValue) -> availableKeys.contains(keyValue.getKey()))
-                .map(keyValue -> String.format("%s%s:\n%s\t%s\n", indentationStr, keyValue.getKey(),
-                        indentationStr, keyValue.getValue()))
-                .collect(Collectors.joining()) + "\n";
+        return new FeedRenderer().append(map, availableKeys::contains, initialIndent).toString();
     }
 
     /**
      * Overriding of Runnable.run.
-     * Unless stop() is not called, poll and sleep in loop
+     * Unless stop() is not called, wait for the next due feeds and poll them.
+     * Scheduler wakes up only when some feed is due or configuration of schedule is changed
      */
     @Override
     public void run() {
         RSSConfiguration configuration = RSSConfiguration.getInstance();
+        configuration.addScheduleListener(wakeUp);
+        reschedule(configuration);
         while (running) {
-            poll(configuration);
             try {
-                sleep(configuration);
+                List<ScheduledFeed> due = new ArrayList<>();
+                due.add(schedule.take());
+                schedule.drainTo(due);
+                if (due.stream().anyMatch(ScheduledFeed::isWakeUp)) {
+                    reschedule(configuration);
+                }
+                if (running) {
+                    applyPollMode(configuration.getPollMode(), configuration.getPollThreads());
+                    List<CompletableFuture<Void>> cycle = new ArrayList<>();
+                    due.stream().filter(entry -> !entry.isWakeUp()).forEach(entry -> cycle.add(dispatch(configuration, entry)));
+                    // Cycle is over when all the feeds due at this wake up are written, then their files are forced together
+                    CompletableFuture.allOf(cycle.toArray(new CompletableFuture<?>[0]))
+                            .whenComplete((result, error) -> commitFiles());
+                    closeIdleFiles(configuration);
+                }
             } catch (InterruptedException e) {
-                log.error("Thread is interrupted during sleep: " + e.getMessage());
+                log.error("Thread is interrupted during waiting for feeds: " + e.getMessage());
             }
         }
+        configuration.removeScheduleListener(wakeUp);
+        executor.shutdown();
+        try {
+            // Let the workers notify configurator before it is saved
+            if (!executor.awaitTermination(configuration.getTimeToPoll(), TimeUnit.SECONDS)) {
+                log.warn("Not all the RSS Feeds are polled before stop");
+            }
+        } catch (InterruptedException e) {
+            log.error("Thread is interrupted during waiting for workers: " + e.getMessage());
+        }
+        // Output is written before configuration with new pubDates is saved
+        output.close();
+        stopped.countDown();
     }
 
     /**
@@ -160,34 +527,124 @@ public class Poller implements Runnable {
      */
     public void stop() {
         running = false;
+        wakeUp.run();
+    }
+
+    /**
+     * Stop workers at once without waiting for feeds in flight and close output files.
+     * For poller which run() loop is never started, e.g. when poll() is called directly
+     */
+    void shutdownNow() {
+        running = false;
+        executor.shutdownNow();
+        output.close();
+    }
+
+    /**
+     * Wait for run() loop to stop and for all the rendered feeds to be written to files
+     *
+     * @param timeout max time to wait
+     * @param unit unit of timeout
+     * @return true if stopped, false if timeout elapsed
+     * @throws InterruptedException in case of thread is interrupted while waiting
+     */
+    public boolean awaitStop(long timeout, TimeUnit unit) throws InterruptedException {
+        return stopped.await(timeout, unit);
     }
 
     /**
-     * Special sleep method which allows to modify and reapply configured time to poll.
-     * Check if time to poll is changed every @timeCheckThreshold seconds.
-     * If it's changed, reapply it locally and restart sleeping cycle.
-     * In case of stop() has been called , stop sleeping on next waking up.
+     * Synchronize schedule with configuration:
+     * new and turned on feeds are due immediately, feeds with changed interval are moved,
+     * removed and turned off feeds are dropped.
      *
      * @param configuration instance of RSSConfiguration
-     * @throws InterruptedException in case of interrupted sleep
-     */
-    private void sleep(RSSConfiguration configuration) throws InterruptedException {
-        long currentTimeToPoll = configuration.getTimeToPoll();
-        long leftTimeToPoll = currentTimeToPoll;
-        while (leftTimeToPoll > RSSConfiguration.timeCheckThreshold) {
-            long newTimeToPoll = configuration.getTimeToPoll();
-            // If somebody changed poll time, apply it and start sleeping from scratch
-            if (newTimeToPoll != currentTimeToPoll) {
-                currentTimeToPoll = newTimeToPoll;
-                leftTimeToPoll = currentTimeToPoll;
+     */
+    private void reschedule(RSSConfiguration configuration) {
+        synchronized (scheduleLock) {
+            ConfigSnapshot snapshot = configuration.getSnapshot();
+            Map<String, String> feeds = snapshot.getRSSFeeds();
+            Iterator<Map.Entry<String, ScheduledFeed>> iterator = scheduledFeeds.entrySet().iterator();
+            while (iterator.hasNext()) {
+                ScheduledFeed entry = iterator.next().getValue();
+                if (!feeds.containsKey(entry.feed) || !snapshot.isRSSFeedOn(entry.feed)) {
+                    schedule.remove(entry);
+                    iterator.remove();
+                }
             }
-            if (running) {
-                TimeUnit.SECONDS.sleep(RSSConfiguration.timeCheckThreshold);
+            for (String feed : feeds.keySet()) {
+                FeedState state = snapshot.getFeedState(feed);
+                if (!state.isOn() || feedsInFlight.contains(feed)) continue;
+                long interval = snapshot.getPollInterval(state);
+                ScheduledFeed entry = scheduledFeeds.get(feed);
+                if (entry == null) {
+                    enqueue(new ScheduledFeed(feed, interval, System.nanoTime()));
+                } else if (entry.interval != interval) {
+                    schedule.remove(entry);
+                    long lastPolledAt = entry.dueAt - TimeUnit.SECONDS.toNanos(entry.interval);
+                    enqueue(new ScheduledFeed(feed, interval, lastPolledAt + TimeUnit.SECONDS.toNanos(interval)));
+                }
             }
-            leftTimeToPoll -= RSSConfiguration.timeCheckThreshold;
         }
-        if (running) {
-            TimeUnit.SECONDS.sleep(leftTimeToPoll);
+    }
+
+    /**
+     * Submit due feed to the workers. When it's polled and written, it's scheduled again after its poll interval
+     *
+     * @param configuration instance of RSSConfiguration
+     * @param entry due schedule entry
+     * @return future which is completed when feed is polled, written and released, at once if it's not submitted
+     */
+    private CompletableFuture<Void> dispatch(RSSConfiguration configuration, ScheduledFeed entry) {
+        String feed = entry.feed;
+        FeedState state;
+        synchronized (scheduleLock) {
+            if (scheduledFeeds.get(feed) != entry) return CompletableFuture.completedFuture(null);
+            scheduledFeeds.remove(feed);
+            state = configuration.getSnapshot().getFeedStates().get(feed);
+            if (state == null || !state.isOn() || !feedsInFlight.add(feed)) return CompletableFuture.completedFuture(null);
         }
+        CompletableFuture<Void> released = new CompletableFuture<>();
+        executor.submit(() -> {
+            CompletableFuture<Void> handled = CompletableFuture.completedFuture(null);
+            try {
+                handled = pollFeed(configuration, feed, state);
+            } finally {
+                handled.whenComplete((result, error) -> {
+                    release(configuration, feed);
+                    released.complete(null);
+                });
+            }
+        });
+        return released;
+    }
+
+    /**
+     * Take feed which is polled and written out of flight and schedule it again after its poll interval
+     *
+     * @param configuration instance of RSSConfiguration
+     * @param feed link to RSS Feed
+     */
+    private void release(RSSConfiguration configuration, String feed) {
+        synchronized (scheduleLock) {
+            feedsInFlight.remove(feed);
+            ConfigSnapshot snapshot = configuration.getSnapshot();
+            // Feed may be removed while being polled
+            FeedState state = snapshot.getFeedStates().get(feed);
+            if (running && state != null && state.isOn()) {
+                long interval = snapshot.getPollInterval(state);
+                long dueAt = System.nanoTime() + TimeUnit.SECONDS.toNanos(interval);
+                enqueue(new ScheduledFeed(feed, interval, dueAt));
+            }
+        }
+    }
+
+    /**
+     * Put entry to the schedule as the only valid one for its feed
+     *
+     * @param entry schedule entry
+     */
+    private void enqueue(ScheduledFeed entry) {
+        scheduledFeeds.put(entry.feed, entry);
+        schedule.add(entry);
     }
 }
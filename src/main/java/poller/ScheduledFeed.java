@@ -0,0 +1,58 @@
+package poller;
+
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entry of Poller schedule: RSS Feed which is due to be polled at some moment.
+ * Entry without feed is a wake-up signal which makes scheduler to re-read configuration
+ */
+class ScheduledFeed implements Delayed {
+    final String feed;
+    final long interval;
+    final long dueAt;
+
+    /**
+     * Constructor with feed and time it is due
+     *
+     * @param feed link to RSS Feed or null for wake-up signal
+     * @param interval poll interval in seconds the entry is scheduled with
+     * @param dueAt System.nanoTime() when feed shall be polled
+     */
+    ScheduledFeed(String feed, long interval, long dueAt) {
+        this.feed = feed;
+        this.interval = interval;
+        this.dueAt = dueAt;
+    }
+
+    /**
+     * Create wake-up signal which is due immediately
+     *
+     * @return wake-up entry
+     */
+    static ScheduledFeed wakeUp() {
+        return new ScheduledFeed(null, 0, System.nanoTime());
+    }
+
+    /**
+     * Check if entry is a wake-up signal
+     *
+     * @return true if entry has no feed
+     */
+    boolean isWakeUp() {
+        return feed == null;
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(dueAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+        if (other instanceof ScheduledFeed) {
+            return Long.compare(dueAt - ((ScheduledFeed) other).dueAt, 0);
+        }
+        return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+    }
+}
@@ -0,0 +1,98 @@
+package util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Layout of one date field of one feed learned from the values met so far.
+ * Feed almost always uses the same layout, so layout which parsed the last value is tried first.
+ * Layout which parses a value after the first one failed is promoted to the front, the others keep their order.
+ * java.time layouts are promoted to the front of java.time layouts only: they resolve zone names like EST or BST
+ * differently from hand-written layouts, so value which a hand-written layout parses is always parsed by it,
+ * as PubDateParser.parseMillis does.
+ * Hit is a value parsed with the first layout tried, miss is a value which needed more attempts
+ */
+public class PubDateFormatCache {
+    /**
+     * Order layouts of PubDateParser are tried in, replaced as a whole on promotion
+     */
+    private volatile int[] order;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Default constructor, layouts are tried in the order of PubDateParser
+     */
+    public PubDateFormatCache() {
+        order = new int[PubDateParser.LAYOUTS];
+        for (int layout = 0; layout < order.length; layout++) {
+            order[layout] = layout;
+        }
+    }
+
+    /**
+     * Parse date to epoch millis, trying the learned layout first.
+     * If none of known layouts matches the String, return PubDateParser.INVALID
+     *
+     * @param pubDate String representation of date
+     * @return epoch millis of date or PubDateParser.INVALID
+     */
+    public long parseMillis(String pubDate) {
+        if (pubDate == null) return PubDateParser.INVALID;
+
+        int[] current = order;
+        for (int i = 0; i < current.length; i++) {
+            long millis = PubDateParser.parseMillis(pubDate, current[i]);
+            if (millis != PubDateParser.INVALID) {
+                if (i == 0) {
+                    hits.incrementAndGet();
+                } else {
+                    misses.incrementAndGet();
+                    promote(current, i);
+                }
+                return millis;
+            }
+        }
+        misses.incrementAndGet();
+        return PubDateParser.INVALID;
+    }
+
+    /**
+     * Move layout to the front of order, java.time layout is moved behind hand-written ones.
+     * Hand-written layouts are never behind java.time ones, so they take the first positions of order
+     *
+     * @param current order the layout is found in
+     * @param index position of the layout in current order
+     */
+    private void promote(int[] current, int index) {
+        int front = current[index] < PubDateParser.FALLBACK ? 0 : PubDateParser.FALLBACK;
+        if (index == front) return;
+        int[] promoted = current.clone();
+        System.arraycopy(current, front, promoted, front + 1, index - front);
+        promoted[front] = current[index];
+        order = promoted;
+    }
+
+    /**
+     * Get count of dates parsed with the first layout tried
+     *
+     * @return count of hits
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Get count of dates which needed more than one attempt or weren't parsed at all
+     *
+     * @return count of misses
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d hits, %d misses", getHits(), getMisses());
+    }
+}
@@ -1,40 +1,571 @@
 package util;
 
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.text.DateFormatSymbols;
+import java.text.ParsePosition;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
 
 /**
- * Util class for pubDate field parsing
+ * Util class for pubDate field parsing.
+ * Common layouts are parsed by hand without allocations:
+ * RFC 822 "Tue, 03 May 2016 11:46[:11] +0200", ctime-like "Tue May 03 11:46[:11] 2016 EST"
+ * and "Tue May 03 11:46[:11] EST 2016", RFC 3339 "2016-05-03T11:46:11[.123]+02:00".
+ * Anything else, e.g. "Tue, 03 May 2016 11:46:11 GMT+02:00", is handed to java.time formatters.
+ * Class keeps no mutable state, so it's safe to use from any thread
  */
 public class PubDateParser {
 
     /**
-     * List of available date formats
+     * Value returned by parseMillis if pubDate can't be parsed
      */
-    private static DateFormat[] formatters = {
-            new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz"),
-            new SimpleDateFormat("EEE, dd MMM yyyy HH:mm zzz"),
-            new SimpleDateFormat("EEE MMM dd HH:mm:ss yyyy zzz"),
-            new SimpleDateFormat("EEE MMM dd HH:mm yyyy zzz"),
-            new SimpleDateFormat("EEE MMM dd HH:mm:ss zzz yyyy"),
-            new SimpleDateFormat("EEE MMM dd HH:mm zzz yyyy")
+    public static final long INVALID = Long.MIN_VALUE;
+
+    /**
+     * Value returned by zone parsing if zone is not known
+     */
+    private static final int UNKNOWN_ZONE = Integer.MIN_VALUE;
+
+    private static final long millisPerDay = 86400000L;
+
+    private static final String[] daysOfWeek = {"mon", "tue", "wed", "thu", "fri", "sat", "sun"};
+
+    /**
+     * Formatters for layouts which are not covered by hand-written parsing.
+     * Day of week is stripped before these are applied: as with SimpleDateFormat, it's not checked
+     */
+    private static final DateTimeFormatter[] fallbackFormatters = {
+            fallbackFormatter("d MMM yyyy HH:mm[:ss] [Z][z]"),
+            fallbackFormatter("MMM d HH:mm[:ss] yyyy [Z][z]"),
+            fallbackFormatter("MMM d HH:mm[:ss] [Z][z] yyyy"),
+            DateTimeFormatter.ISO_DATE_TIME
     };
 
+    private static final int RFC822 = 0;
+    private static final int CTIME = 1;
+    private static final int RFC3339 = 2;
+    /**
+     * Number of the first java.time layout, hand-written layouts go before it
+     */
+    static final int FALLBACK = 3;
+
+    /**
+     * Count of layouts known to parser
+     */
+    static final int LAYOUTS = FALLBACK + fallbackFormatters.length;
+
     /**
      * Parse pubDate.
-     * If not any of known formatters can parse the String, return null
+     * If none of known layouts matches the String, return null
      *
      * @param pubDate String representation of pubDate
      * @return Date representation of pubDate or null
      */
     public static Date parse(String pubDate) {
-        for (DateFormat formatter : formatters) {
-            try {
-                return formatter.parse(pubDate);
-            } catch (ParseException ignored) {}
+        long millis = parseMillis(pubDate);
+        return millis == INVALID ? null : new Date(millis);
+    }
+
+    /**
+     * Parse pubDate to epoch millis.
+     * If none of known layouts matches the String, return INVALID
+     *
+     * @param pubDate String representation of pubDate
+     * @return epoch millis of pubDate or INVALID
+     */
+    public static long parseMillis(String pubDate) {
+        for (int layout = 0; layout < LAYOUTS; layout++) {
+            long millis = parseMillis(pubDate, layout);
+            if (millis != INVALID) return millis;
+        }
+        return INVALID;
+    }
+
+    /**
+     * Parse pubDate to epoch millis with one of layouts.
+     * Layouts are numbered from 0 to LAYOUTS - 1 in order parseMillis tries them:
+     * RFC 822, ctime-like, RFC 3339 and then java.time formatters
+     *
+     * @param pubDate String representation of pubDate
+     * @param layout number of layout
+     * @return epoch millis of pubDate or INVALID if layout doesn't match
+     */
+    static long parseMillis(String pubDate, int layout) {
+        if (pubDate == null) return INVALID;
+
+        int start = skipWhitespace(pubDate, 0);
+        switch (layout) {
+            case RFC822: return parseRFC822(pubDate, start);
+            case CTIME: return parseCtime(pubDate, start);
+            case RFC3339: return parseRFC3339(pubDate, start);
+            default: return parseFallback(pubDate, start, fallbackFormatters[layout - FALLBACK]);
+        }
+    }
+
+    /**
+     * Parse RFC 822 layout, day of week is optional and is not checked
+     *
+     * @param text pubDate
+     * @param start position of the first non-whitespace char
+     * @return epoch millis or INVALID
+     */
+    private static long parseRFC822(String text, int start) {
+        int pos = skipDayOfWeek(text, start);
+
+        int dayEnd = numberEnd(text, pos, 2);
+        int day = number(text, pos, dayEnd);
+        if (day < 1 || !isSpace(text, dayEnd)) return INVALID;
+        pos = skipWhitespace(text, dayEnd);
+
+        int month = month(text, pos);
+        if (month < 0 || !isSpace(text, pos + 3)) return INVALID;
+        pos = skipWhitespace(text, pos + 3);
+
+        int year = number(text, pos, pos + 4);
+        if (year < 0 || !isSpace(text, pos + 4)) return INVALID;
+        pos = skipWhitespace(text, pos + 4);
+
+        int timeEnd = timeEnd(text, pos);
+        int secondOfDay = secondOfDay(text, pos, timeEnd);
+        if (secondOfDay < 0 || !isSpace(text, timeEnd)) return INVALID;
+        pos = skipWhitespace(text, timeEnd);
+
+        int zoneEnd = tokenEnd(text, pos);
+        int offset = zoneOffset(text, pos, zoneEnd);
+        if (offset == UNKNOWN_ZONE) return INVALID;
+
+        return toMillis(year, month, day, secondOfDay, offset);
+    }
+
+    /**
+     * Parse ctime-like layouts "EEE MMM dd HH:mm[:ss] yyyy zzz" and "EEE MMM dd HH:mm[:ss] zzz yyyy",
+     * day of week is optional and is not checked
+     *
+     * @param text pubDate
+     * @param start position of the first non-whitespace char
+     * @return epoch millis or INVALID
+     */
+    private static long parseCtime(String text, int start) {
+        int pos = skipDayOfWeek(text, start);
+        int month = month(text, pos);
+        if (month < 0 || !isSpace(text, pos + 3)) return INVALID;
+        pos = skipWhitespace(text, pos + 3);
+
+        int dayEnd = numberEnd(text, pos, 2);
+        int day = number(text, pos, dayEnd);
+        if (day < 1 || !isSpace(text, dayEnd)) return INVALID;
+        pos = skipWhitespace(text, dayEnd);
+
+        int timeEnd = timeEnd(text, pos);
+        int secondOfDay = secondOfDay(text, pos, timeEnd);
+        if (secondOfDay < 0 || !isSpace(text, timeEnd)) return INVALID;
+        pos = skipWhitespace(text, timeEnd);
+
+        int year;
+        int offset;
+        if (pos < text.length() && isDigit(text.charAt(pos))) {
+            year = number(text, pos, pos + 4);
+            if (year < 0 || !isSpace(text, pos + 4)) return INVALID;
+            pos = skipWhitespace(text, pos + 4);
+            offset = zoneOffset(text, pos, tokenEnd(text, pos));
+        } else {
+            int zoneEnd = tokenEnd(text, pos);
+            offset = zoneOffset(text, pos, zoneEnd);
+            if (!isSpace(text, zoneEnd)) return INVALID;
+            pos = skipWhitespace(text, zoneEnd);
+            year = number(text, pos, pos + 4);
+            if (pos + 4 < text.length() && !isWhitespace(text.charAt(pos + 4))) return INVALID;
+        }
+        if (year < 0 || offset == UNKNOWN_ZONE) return INVALID;
+
+        return toMillis(year, month, day, secondOfDay, offset);
+    }
+
+    /**
+     * Parse RFC 3339 layout "yyyy-MM-ddTHH:mm:ss[.fraction](Z|+HH:mm)", fraction is truncated to millis
+     *
+     * @param text pubDate
+     * @param pos position of the first non-whitespace char
+     * @return epoch millis or INVALID
+     */
+    private static long parseRFC3339(String text, int pos) {
+        int year = number(text, pos, pos + 4);
+        if (year < 0 || !isChar(text, pos + 4, '-')) return INVALID;
+        int month = number(text, pos + 5, pos + 7) - 1;
+        if (month < 0 || month > 11 || !isChar(text, pos + 7, '-')) return INVALID;
+        int day = number(text, pos + 8, pos + 10);
+        if (day < 1 || day > 31) return INVALID;
+        pos += 10;
+
+        if (!isChar(text, pos, 'T') && !isChar(text, pos, 't') && !isChar(text, pos, ' ')) return INVALID;
+        int secondOfDay = secondOfDay(text, pos + 1, pos + 9);
+        if (secondOfDay < 0) return INVALID;
+        pos += 9;
+
+        int millis = 0;
+        if (isChar(text, pos, '.')) {
+            int fractionEnd = numberEnd(text, pos + 1, Integer.MAX_VALUE);
+            if (fractionEnd == pos + 1) return INVALID;
+            for (int i = pos + 1; i < pos + 4; i++) {
+                millis = millis * 10 + (i < fractionEnd ? text.charAt(i) - '0' : 0);
+            }
+            pos = fractionEnd;
+        }
+
+        int zoneEnd = tokenEnd(text, pos);
+        int offset = zoneOffset(text, pos, zoneEnd);
+        if (offset == UNKNOWN_ZONE) return INVALID;
+
+        return toMillis(year, month, day, secondOfDay, offset) + millis;
+    }
+
+    /**
+     * Parse pubDate with java.time formatter
+     *
+     * @param text pubDate
+     * @param start position of the first non-whitespace char
+     * @param formatter one of fallbackFormatters
+     * @return epoch millis or INVALID
+     */
+    private static long parseFallback(String text, int start, DateTimeFormatter formatter) {
+        String source = formatter == DateTimeFormatter.ISO_DATE_TIME
+                ? text.substring(start)
+                : text.substring(skipDayOfWeek(text, start));
+        try {
+            return ZonedDateTime.from(formatter.parse(source, new ParsePosition(0)))
+                    .toInstant()
+                    .toEpochMilli();
+        } catch (RuntimeException e) {
+            return INVALID;
+        }
+    }
+
+    /**
+     * Build case insensitive english formatter
+     *
+     * @param pattern DateTimeFormatter pattern
+     * @return formatter
+     */
+    private static DateTimeFormatter fallbackFormatter(String pattern) {
+        return new DateTimeFormatterBuilder()
+                .parseCaseInsensitive()
+                .appendPattern(pattern)
+                .toFormatter(Locale.US);
+    }
+
+    /**
+     * Compute epoch millis of date and time at given offset
+     *
+     * @param year year
+     * @param month month from 0 to 11
+     * @param day day of month, days beyond the end of month roll over to the next one
+     * @param secondOfDay second of day
+     * @param offset offset from UTC in minutes
+     * @return epoch millis
+     */
+    private static long toMillis(int year, int month, int day, int secondOfDay, int offset) {
+        // days since 1970-01-01 in proleptic Gregorian calendar, year starts from March here
+        int y = month < 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * ((month + 10) % 12) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        long epochDay = era * 146097L + dayOfEra - 719468;
+        return epochDay * millisPerDay + (secondOfDay - offset * 60L) * 1000;
+    }
+
+    /**
+     * Parse zone token: UT, GMT, UTC, Z, US zones of RFC 822, numeric offset +HHmm, +HH:mm
+     * or other zone name known to JDK
+     *
+     * @param text pubDate
+     * @param pos start of zone
+     * @param end end of zone
+     * @return offset from UTC in minutes or UNKNOWN_ZONE
+     */
+    private static int zoneOffset(String text, int pos, int end) {
+        int length = end - pos;
+        if (length == 0) return UNKNOWN_ZONE;
+
+        char first = text.charAt(pos);
+        if (first == '+' || first == '-') {
+            int hours = number(text, pos + 1, pos + 3);
+            int minutes = length == 5 ? number(text, pos + 3, pos + 5)
+                    : length == 6 && text.charAt(pos + 3) == ':' ? number(text, pos + 4, pos + 6)
+                    : -1;
+            if (hours < 0 || hours > 23 || minutes < 0 || minutes > 59) return UNKNOWN_ZONE;
+            return (first == '-' ? -1 : 1) * (hours * 60 + minutes);
+        }
+
+        if (length == 1) return first == 'Z' || first == 'z' ? 0 : UNKNOWN_ZONE;
+        if (length == 2 && text.regionMatches(true, pos, "UT", 0, 2)) return 0;
+        if (length == 3) {
+            if (text.regionMatches(true, pos, "GMT", 0, 3) || text.regionMatches(true, pos, "UTC", 0, 3)) return 0;
+            int offset = usZoneOffset(text, pos);
+            if (offset != UNKNOWN_ZONE) return offset;
+        }
+        return NamedZones.offset(text, pos, end);
+    }
+
+    /**
+     * Parse US zones of RFC 822: EST, EDT, CST, CDT, MST, MDT, PST, PDT
+     *
+     * @param text pubDate
+     * @param pos start of three letters zone
+     * @return offset from UTC in minutes or UNKNOWN_ZONE
+     */
+    private static int usZoneOffset(String text, int pos) {
+        char daylight = Character.toUpperCase(text.charAt(pos + 1));
+        if (Character.toUpperCase(text.charAt(pos + 2)) != 'T' || (daylight != 'S' && daylight != 'D')) {
+            return UNKNOWN_ZONE;
+        }
+        int standard;
+        switch (Character.toUpperCase(text.charAt(pos))) {
+            case 'E': standard = -5; break;
+            case 'C': standard = -6; break;
+            case 'M': standard = -7; break;
+            case 'P': standard = -8; break;
+            default: return UNKNOWN_ZONE;
+        }
+        return (daylight == 'D' ? standard + 1 : standard) * 60;
+    }
+
+    /**
+     * Parse english month abbreviation, case insensitive
+     *
+     * @param text pubDate
+     * @param pos start of month
+     * @return month from 0 to 11 or -1
+     */
+    private static int month(String text, int pos) {
+        if (pos + 3 > text.length()) return -1;
+        char first = Character.toLowerCase(text.charAt(pos));
+        char second = Character.toLowerCase(text.charAt(pos + 1));
+        char third = Character.toLowerCase(text.charAt(pos + 2));
+        switch (first) {
+            case 'j':
+                if (second == 'a' && third == 'n') return 0;
+                if (second == 'u' && third == 'n') return 5;
+                if (second == 'u' && third == 'l') return 6;
+                return -1;
+            case 'f': return second == 'e' && third == 'b' ? 1 : -1;
+            case 'm':
+                if (second == 'a' && third == 'r') return 2;
+                if (second == 'a' && third == 'y') return 4;
+                return -1;
+            case 'a':
+                if (second == 'p' && third == 'r') return 3;
+                if (second == 'u' && third == 'g') return 7;
+                return -1;
+            case 's': return second == 'e' && third == 'p' ? 8 : -1;
+            case 'o': return second == 'c' && third == 't' ? 9 : -1;
+            case 'n': return second == 'o' && third == 'v' ? 10 : -1;
+            case 'd': return second == 'e' && third == 'c' ? 11 : -1;
+            default: return -1;
+        }
+    }
+
+    /**
+     * Skip english day of week (abbreviated or full), comma after it and whitespace
+     *
+     * @param text pubDate
+     * @param pos position to start from
+     * @return position after day of week or pos if there is no day of week
+     */
+    private static int skipDayOfWeek(String text, int pos) {
+        if (!isDayOfWeek(text, pos)) return pos;
+        int end = pos + 3;
+        while (end < text.length() && isLetter(text.charAt(end))) end++;
+        if (end < text.length() && text.charAt(end) == ',') end++;
+        return isSpace(text, end) ? skipWhitespace(text, end) : pos;
+    }
+
+    /**
+     * Check if english day of week abbreviation starts at position, case insensitive
+     *
+     * @param text pubDate
+     * @param pos position to check
+     * @return true if there is day of week
+     */
+    private static boolean isDayOfWeek(String text, int pos) {
+        for (String day : daysOfWeek) {
+            if (text.regionMatches(true, pos, day, 0, 3)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Parse time "HH:mm" or "HH:mm:ss"
+     *
+     * @param text pubDate
+     * @param pos start of time
+     * @param end end of time
+     * @return second of day or -1
+     */
+    private static int secondOfDay(String text, int pos, int end) {
+        if (end - pos != 5 && end - pos != 8) return -1;
+        int hours = number(text, pos, pos + 2);
+        int minutes = isChar(text, pos + 2, ':') ? number(text, pos + 3, pos + 5) : -1;
+        int seconds = end - pos == 5 ? 0 : isChar(text, pos + 5, ':') ? number(text, pos + 6, pos + 8) : -1;
+        if (hours < 0 || hours > 23 || minutes < 0 || minutes > 59 || seconds < 0 || seconds > 60) return -1;
+        return hours * 3600 + minutes * 60 + seconds;
+    }
+
+    /**
+     * Find end of time which is "HH:mm" or "HH:mm:ss"
+     *
+     * @param text pubDate
+     * @param pos start of time
+     * @return end of time, not checked to be valid
+     */
+    private static int timeEnd(String text, int pos) {
+        return isChar(text, pos + 5, ':') ? pos + 8 : pos + 5;
+    }
+
+    /**
+     * Parse non-negative number
+     *
+     * @param text pubDate
+     * @param pos start of number
+     * @param end end of number
+     * @return number or -1 if there are no digits, something else than digits or text is too short
+     */
+    private static int number(String text, int pos, int end) {
+        if (pos >= end || end > text.length()) return -1;
+        int value = 0;
+        for (int i = pos; i < end; i++) {
+            char c = text.charAt(i);
+            if (!isDigit(c)) return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Find end of digits sequence
+     *
+     * @param text pubDate
+     * @param pos start of digits
+     * @param maxDigits max count of digits to take
+     * @return position after the last digit taken
+     */
+    private static int numberEnd(String text, int pos, int maxDigits) {
+        int end = pos;
+        while (end < text.length() && end - pos < maxDigits && isDigit(text.charAt(end))) end++;
+        return end;
+    }
+
+    /**
+     * Find end of token which lasts up to whitespace or end of text
+     *
+     * @param text pubDate
+     * @param pos start of token
+     * @return position of whitespace after token or length of text
+     */
+    private static int tokenEnd(String text, int pos) {
+        int end = pos;
+        while (end < text.length() && !isWhitespace(text.charAt(end))) end++;
+        return end;
+    }
+
+    /**
+     * Skip whitespace
+     *
+     * @param text pubDate
+     * @param pos position to start from
+     * @return position of the first non-whitespace char or length of text
+     */
+    private static int skipWhitespace(String text, int pos) {
+        while (pos < text.length() && isWhitespace(text.charAt(pos))) pos++;
+        return pos;
+    }
+
+    /**
+     * Check if there is whitespace at position
+     *
+     * @param text pubDate
+     * @param pos position to check
+     * @return true if position is inside of text and char is whitespace
+     */
+    private static boolean isSpace(String text, int pos) {
+        return pos < text.length() && isWhitespace(text.charAt(pos));
+    }
+
+    /**
+     * Check if there is given char at position
+     *
+     * @param text pubDate
+     * @param pos position to check
+     * @param c expected char
+     * @return true if position is inside of text and char is the expected one
+     */
+    private static boolean isChar(String text, int pos, char c) {
+        return pos < text.length() && text.charAt(pos) == c;
+    }
+
+    /**
+     * Check if char is whitespace
+     *
+     * @param c char to check
+     * @return true if it is
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+    }
+
+    /**
+     * Check if char is ASCII digit
+     *
+     * @param c char to check
+     * @return true if it is
+     */
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Check if char is ASCII letter
+     *
+     * @param c char to check
+     * @return true if it is
+     */
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    /**
+     * Short zone names known to JDK, e.g. CET or JST, which SimpleDateFormat used to accept.
+     * As there, standard name means standard offset and daylight name means daylight offset all year round.
+     * Holder is initialized on the first pubDate with such zone only
+     */
+    private static class NamedZones {
+        private static final Map<String, Integer> offsets = new HashMap<>();
+
+        static {
+            for (String[] names : DateFormatSymbols.getInstance(Locale.US).getZoneStrings()) {
+                TimeZone zone = TimeZone.getTimeZone(names[0]);
+                offsets.putIfAbsent(names[2].toUpperCase(Locale.US), zone.getRawOffset() / 60000);
+                offsets.putIfAbsent(names[4].toUpperCase(Locale.US), (zone.getRawOffset() + zone.getDSTSavings()) / 60000);
+            }
+        }
+
+        /**
+         * Find offset of zone name
+         *
+         * @param text pubDate
+         * @param pos start of zone
+         * @param end end of zone
+         * @return offset from UTC in minutes or UNKNOWN_ZONE
+         */
+        static int offset(String text, int pos, int end) {
+            if (!isLetter(text.charAt(pos))) return UNKNOWN_ZONE;
+            Integer offset = offsets.get(text.substring(pos, end).toUpperCase(Locale.US));
+            return offset == null ? UNKNOWN_ZONE : offset;
         }
-        return null;
     }
 }
@@ -0,0 +1,55 @@
+package util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Util class for virtual threads which are available since Java 21.
+ * Application is still built for Java 8, so the API is looked up reflectively once
+ */
+public class VirtualThreads {
+
+    /**
+     * Handle to Executors.newVirtualThreadPerTaskExecutor() or null if JVM doesn't support virtual threads
+     */
+    private static final MethodHandle newVirtualThreadPerTaskExecutor = lookup();
+
+    private static MethodHandle lookup() {
+        try {
+            return MethodHandles.publicLookup().findStatic(
+                    Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class)
+            );
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Check if running JVM supports virtual threads
+     *
+     * @return true if virtual threads are available, false otherwise
+     */
+    public static boolean isSupported() {
+        return newVirtualThreadPerTaskExecutor != null;
+    }
+
+    /**
+     * Create executor which starts new virtual thread for each task
+     *
+     * @return ExecutorService backed by virtual threads
+     * @throws UnsupportedOperationException in case of JVM doesn't support virtual threads
+     */
+    public static ExecutorService newPerTaskExecutor() {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("Virtual threads are not supported by this JVM");
+        }
+        try {
+            return (ExecutorService) newVirtualThreadPerTaskExecutor.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Can't create virtual thread executor: " + e.getMessage(), e);
+        }
+    }
+}
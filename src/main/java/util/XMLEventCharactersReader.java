@@ -1,49 +1,227 @@
 package util;
 
-import javax.xml.stream.XMLEventReader;
-import javax.xml.stream.XMLEventWriter;
 import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
-import javax.xml.stream.events.XMLEvent;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
 import java.io.StringWriter;
 
 public class XMLEventCharactersReader {
     /**
-     * Gets character data inside of xml tag via event reader
-     * Waits for XMLEvent pointing on opening tag
+     * Factories are looked up once per thread instead of once per field
+     */
+    private static final ThreadLocal<XMLOutputFactory> outputFactory =
+            ThreadLocal.withInitial(XMLOutputFactory::newInstance);
+    private static final ThreadLocal<StringBuilder> textBuffer = ThreadLocal.withInitial(StringBuilder::new);
+
+    /**
+     * Gets character data inside of xml tag via stream reader
+     * Waits for reader pointing on opening tag
+     *
+     * Tag with character data only is read to a reused buffer, writer is involved
+     * only when tag has nested markup
+     *
+     * Note: Like XMLEventReader based reader did, moves reader one event beyond closing tag
      *
-     * @param event pointing on tag which shall be turned into String
-     * @param eventReader active XMLEventReader pointing on on event to be read
+     * @param reader active XMLStreamReader pointing on tag which shall be turned into String
      * @return String representation of tag insides
      * @throws XMLStreamException in case of issues with event reading
-     * @throws IllegalArgumentException in case this is not StartElement
+     * @throws IllegalAccessException in case this is not StartElement
      */
-    public static String getCharacterData(XMLEvent event, XMLEventReader eventReader)
+    public static String getCharacterData(XMLStreamReader reader)
             throws XMLStreamException, IllegalAccessException {
+        if (!reader.isStartElement()) {
+            throw new IllegalAccessException("Can't identify which event to parse");
+        }
+        int event = reader.next();
+        // in case it's <tag />
+        if (event == XMLStreamConstants.END_ELEMENT) return "";
+
+        StringBuilder text = textBuffer.get();
+        text.setLength(0);
+        // Nested tag which opens right after the tag is not counted in depth
+        int depth = 1;
+        while (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.SPACE) {
+            if (!reader.isWhiteSpace()) {
+                appendEscaped(text, reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+            }
+            event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) depth++;
+        }
+        if (event != XMLStreamConstants.END_ELEMENT) {
+            return getMarkupData(reader, text, depth);
+        }
+        // Move to next tag
+        if (reader.hasNext()) reader.next();
+        return text.toString();
+    }
+
+    /**
+     * Skips tag the same way getCharacterData reads it, but without turning its insides into String
+     * Waits for reader pointing on opening tag
+     *
+     * @param reader active XMLStreamReader pointing on tag which shall be skipped
+     * @throws XMLStreamException in case of issues with event reading
+     * @throws IllegalAccessException in case this is not StartElement
+     */
+    public static void skipCharacterData(XMLStreamReader reader)
+            throws XMLStreamException, IllegalAccessException {
+        if (!reader.isStartElement()) {
+            throw new IllegalAccessException("Can't identify which event to skip");
+        }
+        int event = reader.next();
+        // in case it's <tag />
+        if (event == XMLStreamConstants.END_ELEMENT) return;
+
+        int depth = 1;
+        while (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.SPACE) {
+            event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) depth++;
+        }
+        if (event != XMLStreamConstants.END_ELEMENT) {
+            while (reader.hasNext() && depth > 0) {
+                event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) depth++;
+                if (event == XMLStreamConstants.END_ELEMENT) depth--;
+            }
+        }
+        // Move to next tag
+        if (reader.hasNext()) reader.next();
+    }
+
+    /**
+     * Gets the rest of tag insides which contain nested markup
+     *
+     * @param reader active XMLStreamReader pointing on the first event which is not character data
+     * @param text character data already read from the tag
+     * @param depth depth of tag nesting counted so far
+     * @return String representation of tag insides
+     * @throws XMLStreamException in case of issues with event reading
+     */
+    private static String getMarkupData(XMLStreamReader reader, CharSequence text, int depth)
+            throws XMLStreamException {
         StringWriter writer = new StringWriter();
-        XMLEventWriter eventWriter = XMLOutputFactory.newInstance().createXMLEventWriter(writer);
-        if (event.isStartElement()) {
-            event = eventReader.nextEvent();
-            // in case it's <tag />
-            if (event.isEndElement()) return "";
-            int depth = 1;
-            while (eventReader.hasNext() && depth > 0) {
-                if (event.isCharacters() && event.asCharacters().isWhiteSpace()) {
-                    // do nothing
-                } else {
-                    eventWriter.add(event);
-                }
-                event = eventReader.nextEvent();
-                if (event.isStartElement()) depth++;
-                if (event.isEndElement()) depth--;
+        writer.append(text);
+        XMLStreamWriter streamWriter = outputFactory.get().createXMLStreamWriter(writer);
+        int event = reader.getEventType();
+        while (reader.hasNext() && depth > 0) {
+            if (isCharacters(event) && reader.isWhiteSpace()) {
+                // do nothing
+            } else {
+                copyEvent(reader, streamWriter);
             }
-        } else {
-            throw new IllegalAccessException("Can't identify which event to parse");
+            event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) depth++;
+            if (event == XMLStreamConstants.END_ELEMENT) depth--;
         }
         // Move to next tag
-        if (eventReader.hasNext()) eventReader.nextEvent();
-        eventWriter.flush();
+        if (reader.hasNext()) reader.next();
+        streamWriter.flush();
         writer.flush();
         return writer.getBuffer().toString();
     }
+
+    /**
+     * Append character data escaped the same way XMLStreamWriter escapes it
+     *
+     * @param text buffer to append to
+     * @param characters source array
+     * @param start index of the first character
+     * @param length count of characters
+     */
+    private static void appendEscaped(StringBuilder text, char[] characters, int start, int length) {
+        int from = start;
+        int end = start + length;
+        for (int i = start; i < end; i++) {
+            String escaped;
+            switch (characters[i]) {
+                case '<': escaped = "&lt;"; break;
+                case '>': escaped = "&gt;"; break;
+                case '&': escaped = "&amp;"; break;
+                default: continue;
+            }
+            text.append(characters, from, i - from).append(escaped);
+            from = i + 1;
+        }
+        text.append(characters, from, end - from);
+    }
+
+    /**
+     * Check if event carries text
+     *
+     * @param event type of event
+     * @return true for characters, CDATA and whitespace
+     */
+    private static boolean isCharacters(int event) {
+        return event == XMLStreamConstants.CHARACTERS
+                || event == XMLStreamConstants.CDATA
+                || event == XMLStreamConstants.SPACE;
+    }
+
+    /**
+     * Write current event of reader the same way XMLEventWriter writes XMLEvent
+     *
+     * @param reader reader pointing on event to copy
+     * @param writer writer to copy event to
+     * @throws XMLStreamException in case of issues with event writing
+     */
+    private static void copyEvent(XMLStreamReader reader, XMLStreamWriter writer) throws XMLStreamException {
+        switch (reader.getEventType()) {
+            case XMLStreamConstants.START_ELEMENT: {
+                writer.writeStartElement(
+                        emptyIfNull(reader.getPrefix()), reader.getLocalName(), emptyIfNull(reader.getNamespaceURI())
+                );
+                for (int i = 0; i < reader.getNamespaceCount(); i++) {
+                    writer.writeNamespace(emptyIfNull(reader.getNamespacePrefix(i)), reader.getNamespaceURI(i));
+                }
+                for (int i = 0; i < reader.getAttributeCount(); i++) {
+                    writer.writeAttribute(
+                            emptyIfNull(reader.getAttributePrefix(i)),
+                            emptyIfNull(reader.getAttributeNamespace(i)),
+                            reader.getAttributeLocalName(i),
+                            reader.getAttributeValue(i)
+                    );
+                }
+                break;
+            }
+            case XMLStreamConstants.END_ELEMENT: {
+                writer.writeEndElement();
+                break;
+            }
+            case XMLStreamConstants.CDATA: {
+                writer.writeCData(reader.getText());
+                break;
+            }
+            case XMLStreamConstants.CHARACTERS:
+            case XMLStreamConstants.SPACE: {
+                writer.writeCharacters(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                break;
+            }
+            case XMLStreamConstants.COMMENT: {
+                writer.writeComment(reader.getText());
+                break;
+            }
+            case XMLStreamConstants.PROCESSING_INSTRUCTION: {
+                writer.writeProcessingInstruction(reader.getPITarget(), reader.getPIData());
+                break;
+            }
+            case XMLStreamConstants.ENTITY_REFERENCE: {
+                writer.writeEntityRef(reader.getLocalName());
+                break;
+            }
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Turn absent prefix or namespace into empty one as XMLEvent does
+     *
+     * @param value prefix or namespace
+     * @return value or empty String
+     */
+    private static String emptyIfNull(String value) {
+        return value == null ? "" : value;
+    }
 }
@@ -0,0 +1,38 @@
+package util;
+
+import javax.xml.stream.XMLInputFactory;
+
+/**
+ * Util class which provides XMLInputFactory configured for reading RSS Feeds:
+ * DTD and external entities are not resolved, adjacent character data is coalesced.
+ * Shared instance is configured once and never changed afterwards, so it's safe to create readers
+ * from any thread instead of looking factory up on every parse
+ */
+public class XMLInputFactoryProvider {
+    /**
+     * Singleton field
+     */
+    private static final XMLInputFactory factory = newInstance();
+
+    /**
+     * Get the shared factory
+     *
+     * @return configured XMLInputFactory
+     */
+    public static XMLInputFactory getInstance() {
+        return factory;
+    }
+
+    /**
+     * Look up and configure new factory
+     *
+     * @return new configured XMLInputFactory
+     */
+    public static XMLInputFactory newInstance() {
+        XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        inputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return inputFactory;
+    }
+}
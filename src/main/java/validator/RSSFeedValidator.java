@@ -3,12 +3,14 @@ package validator;
 import config.RSSConfiguration;
 import model.FeedModel;
 import parser.FeedModelParser;
+import parser.FieldProjection;
 import util.Log;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.Collections;
 import java.util.Map;
 
 /**
@@ -33,7 +35,10 @@ public class RSSFeedValidator {
         FeedModel model;
         try {
             InputStream in = new URL(feed).openStream();
-            model = new FeedModelParser().parse(in);
+            // Only mandatory fields are checked, so only they are read
+            model = new FeedModelParser().parse(in, FieldProjection.of(
+                    Collections.<String>emptyList(), Collections.<String>emptyList()
+            ));
         } catch (MalformedURLException e) {
             log.error("URL is malformed: " + e.getMessage());
             return false;
@@ -46,8 +51,6 @@ public class RSSFeedValidator {
             return false;
         }
 
-        model.atomToRSS();
-
         for (String key : RSSConfiguration.getRawMandatoryChannelFields()) {
             if (!model.metaSource.containsKey(key)) {
                 return false;
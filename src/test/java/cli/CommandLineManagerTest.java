@@ -186,6 +186,47 @@ public class CommandLineManagerTest {
         assertEquals((Long)RSSConfiguration.timeCheckThreshold, RSSConfiguration.getInstance().getTimeToPoll());
     }
 
+    @Test
+    @DisplayName("Test to setup poll threads count")
+    public void setPollThreadsTest() {
+        Integer initialPollThreads = RSSConfiguration.getInstance().getPollThreads();
+        manager.setPollThreads(8);
+        assertEquals((Integer)8, RSSConfiguration.getInstance().getPollThreads());
+
+        manager.setPollThreads(1);
+        assertEquals((Integer)1, RSSConfiguration.getInstance().getPollThreads());
+
+        boolean thrown = false;
+        try {
+            manager.setPollThreads(0);
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assertTrue(thrown);
+        assertEquals((Integer)1, RSSConfiguration.getInstance().getPollThreads());
+
+        manager.setPollThreads(initialPollThreads);
+    }
+
+    @Test
+    @DisplayName("Test to setup checkpoint interval")
+    public void setCheckpointIntervalTest() {
+        Long initialCheckpointInterval = RSSConfiguration.getInstance().getCheckpointInterval();
+        manager.setCheckpointInterval(10L);
+        assertEquals((Long)10L, RSSConfiguration.getInstance().getCheckpointInterval());
+
+        boolean thrown = false;
+        try {
+            manager.setCheckpointInterval(0L);
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assertTrue(thrown);
+        assertEquals((Long)10L, RSSConfiguration.getInstance().getCheckpointInterval());
+
+        manager.setCheckpointInterval(initialCheckpointInterval);
+    }
+
     @Test
     @DisplayName("Test to print commands")
     public void printCommandsTest() throws ValidationException {
@@ -196,6 +237,10 @@ public class CommandLineManagerTest {
 
         manager.printHelp();
         manager.printTimeToPoll();
+        manager.printPollThreads();
+        manager.printDurabilityMode();
+        manager.printCheckpointInterval();
+        manager.printStatistics();
         manager.printRss();
         manager.printAvailableRssItemParams();
         manager.printAvailableRssChannelParams();
@@ -1,5 +1,7 @@
 package cli;
 
+import config.DurabilityMode;
+import config.PollMode;
 import org.junit.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.mockito.Mock;
@@ -27,10 +29,13 @@ public class CommandLineParserTest {
         Mockito.doNothing().when(clm).setRssChannelParams(Mockito.eq("dummy.rss"), Mockito.anyListOf(String.class));
         Mockito.doNothing().when(clm).setRssItemParams(Mockito.eq("dummy.rss"), Mockito.anyListOf(String.class));
         Mockito.doNothing().when(clm).setRSSMaxItems(Mockito.eq("dummy.rss"), Mockito.anyInt());
+        Mockito.doNothing().when(clm).setRSSPollInterval(Mockito.eq("dummy.rss"), Mockito.anyLong());
+        Mockito.doNothing().when(clm).setRSSPollInterval("dummy.rss", null);
 
         Mockito.doNothing().when(clm).printRssFile("dummy.rss");
         Mockito.doNothing().when(clm).printRssFile("newdummy.rss");
         Mockito.doNothing().when(clm).printRSSMaxItems("dummy.rss");
+        Mockito.doNothing().when(clm).printRSSPollInterval("dummy.rss");
         Mockito.doNothing().when(clm).printRssChannelParams("dummy.rss");
         Mockito.doNothing().when(clm).printAvailableRssChannelParams();
         Mockito.doNothing().when(clm).printRssItemParams("dummy.rss");
@@ -38,6 +43,15 @@ public class CommandLineParserTest {
         Mockito.doNothing().when(clm).printRss();
         Mockito.doNothing().when(clm).printHelp();
         Mockito.doNothing().when(clm).saveConfiguration();
+        Mockito.doNothing().when(clm).printPollThreads();
+        Mockito.doNothing().when(clm).setPollThreads(Mockito.anyInt());
+        Mockito.doNothing().when(clm).printPollMode();
+        Mockito.doNothing().when(clm).setPollMode(Mockito.any(PollMode.class));
+        Mockito.doNothing().when(clm).printDurabilityMode();
+        Mockito.doNothing().when(clm).setDurabilityMode(Mockito.any(DurabilityMode.class));
+        Mockito.doNothing().when(clm).printCheckpointInterval();
+        Mockito.doNothing().when(clm).setCheckpointInterval(Mockito.anyLong());
+        Mockito.doNothing().when(clm).printStatistics();
 
         return clm;
     }
@@ -317,6 +331,53 @@ public class CommandLineParserTest {
         assertTrue(thrown);
     }
 
+    @Test
+    @DisplayName("Test to parse rss time commands")
+    public void parseRssTimeTest() throws ValidationException {
+        CommandLineManager clm = getMock();
+        CommandLineParser parser = new CommandLineParser(clm);
+        boolean thrown;
+
+        String cmd = "rss time dummy.rss 3600";
+        parser.parse(cmd);
+        Mockito.verify(clm, Mockito.times(1)).setRSSPollInterval("dummy.rss", 3600L);
+
+        cmd = "rss time dummy.rss default";
+        parser.parse(cmd);
+        Mockito.verify(clm, Mockito.times(1)).setRSSPollInterval("dummy.rss", null);
+
+        cmd = "rss time dummy.rss";
+        parser.parse(cmd);
+        Mockito.verify(clm, Mockito.times(1)).printRSSPollInterval("dummy.rss");
+
+        cmd = "rss time dummy.rss dummy";
+        try {
+            parser.parse(cmd);
+            thrown = false;
+        } catch (NumberFormatException e) {
+            thrown = true;
+        }
+        assertTrue(thrown);
+
+        cmd = "rss time dummy.rss 3600 dummy";
+        try {
+            parser.parse(cmd);
+            thrown = false;
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assertTrue(thrown);
+
+        cmd = "rss time";
+        try {
+            parser.parse(cmd);
+            thrown = false;
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assertTrue(thrown);
+    }
+
     @Test
     @DisplayName("Test to parse rss command")
     public void parseRssTest() throws ValidationException {
@@ -355,6 +416,166 @@ public class CommandLineParserTest {
         assertTrue(thrown);
     }
 
+    @Test
+    @DisplayName("Test to parse threads commands")
+    public void parseThreadsTest() throws ValidationException {
+        CommandLineManager clm = getMock();
+        CommandLineParser parser = new CommandLineParser(clm);
+        boolean thrown;
+
+        String cmd = "threads 8";
+        parser.parse(cmd);
+        Mockito.verify(clm, Mockito.never()).printPollThreads();
+        Mockito.verify(clm, Mockito.times(1)).setPollThreads(8);
+
+        cmd = "threads";
+        parser.parse(cmd);
+        Mockito.verify(clm, Mockito.times(1)).printPollThreads();
+        Mockito.verify(clm, Mockito.times(1)).setPollThreads(8);
+
+        cmd = "threads 8 8";
+        try {
+            parser.parse(cmd);
+            thrown = false;
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assertTrue(thrown);
+
+        cmd = "threads dummy";
+        try {
+            parser.parse(cmd);
+            thrown = false;
+        } catch (NumberFormatException e) {
+            thrown = true;
+        }
+        assertTrue(thrown);
+    }
+
+    @Test
+    @DisplayName("Test to parse mode commands")
+    public void parseModeTest() throws ValidationException {
+        CommandLineManager clm = getMock();
+        CommandLineParser parser = new CommandLineParser(clm);
+        boolean thrown;
+
+        String cmd = "mode virtual";
+        parser.parse(cmd);
+        Mockito.verify(clm, Mockito.never()).printPollMode();
+        Mockito.verify(clm, Mockito.times(1)).setPollMode(PollMode.VIRTUAL);
+
+        cmd = "mode PLATFORM";
+        parser.parse(cmd);
+        Mockito.verify(clm, Mockito.times(1)).setPollMode(PollMode.PLATFORM);
+
+        cmd = "mode";
+        parser.parse(cmd);
+        Mockito.verify(clm, Mockito.times(1)).printPollMode();
+
+        cmd = "mode dummy";
+        try {
+            parser.parse(cmd);
+            thrown = false;
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assertTrue(thrown);
+
+        cmd = "mode virtual platform";
+        try {
+            parser.parse(cmd);
+            thrown = false;
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assertTrue(thrown);
+    }
+
+    @Test
+    @DisplayName("Test to parse durability commands")
+    public void parseDurabilityTest() throws ValidationException {
+        CommandLineManager clm = getMock();
+        CommandLineParser parser = new CommandLineParser(clm);
+        boolean thrown;
+
+        String cmd = "durability cycle";
+        parser.parse(cmd);
+        Mockito.verify(clm, Mockito.never()).printDurabilityMode();
+        Mockito.verify(clm, Mockito.times(1)).setDurabilityMode(DurabilityMode.CYCLE);
+
+        cmd = "durability FEED";
+        parser.parse(cmd);
+        Mockito.verify(clm, Mockito.times(1)).setDurabilityMode(DurabilityMode.FEED);
+
+        cmd = "durability";
+        parser.parse(cmd);
+        Mockito.verify(clm, Mockito.times(1)).printDurabilityMode();
+
+        cmd = "durability dummy";
+        try {
+            parser.parse(cmd);
+            thrown = false;
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assertTrue(thrown);
+
+        cmd = "durability none feed";
+        try {
+            parser.parse(cmd);
+            thrown = false;
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assertTrue(thrown);
+    }
+
+    @Test
+    @DisplayName("Test to parse checkpoint commands")
+    public void parseCheckpointTest() throws ValidationException {
+        CommandLineManager clm = getMock();
+        CommandLineParser parser = new CommandLineParser(clm);
+        boolean thrown;
+
+        String cmd = "checkpoint 10";
+        parser.parse(cmd);
+        Mockito.verify(clm, Mockito.never()).printCheckpointInterval();
+        Mockito.verify(clm, Mockito.times(1)).setCheckpointInterval(10L);
+
+        cmd = "checkpoint";
+        parser.parse(cmd);
+        Mockito.verify(clm, Mockito.times(1)).printCheckpointInterval();
+
+        cmd = "checkpoint dummy";
+        try {
+            parser.parse(cmd);
+            thrown = false;
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assertTrue(thrown);
+
+        cmd = "checkpoint 10 20";
+        try {
+            parser.parse(cmd);
+            thrown = false;
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assertTrue(thrown);
+    }
+
+    @Test
+    @DisplayName("Test to parse stats command")
+    public void parseStatsTest() throws ValidationException {
+        CommandLineManager clm = getMock();
+        CommandLineParser parser = new CommandLineParser(clm);
+
+        String cmd = "stats";
+        parser.parse(cmd);
+        Mockito.verify(clm, Mockito.times(1)).printStatistics();
+    }
+
     @Test
     @DisplayName("Test to parse save command")
     public void parseSaveCmdTest() throws ValidationException {
@@ -22,6 +22,9 @@ public class AutoRSSConfiguratorTest {
         List<String> feeds = new ArrayList<>(RSSConfiguration.getInstance().getRSSFeeds().keySet());
         feeds.forEach(RSSConfiguration.getInstance()::delRSSFeed);
         RSSConfiguration.getInstance().setTimeToPoll(RSSConfiguration.defaultTimeToPoll);
+        RSSConfiguration.getInstance().setPollThreads(RSSConfiguration.defaultPollThreads);
+        RSSConfiguration.getInstance().setDurabilityMode(DurabilityMode.NONE);
+        RSSConfiguration.getInstance().setCheckpointInterval(RSSConfiguration.defaultCheckpointInterval);
         assertTrue(RSSConfiguration.getInstance().getRSSFeeds().isEmpty());
     }
 
@@ -49,6 +52,9 @@ public class AutoRSSConfiguratorTest {
         AutoRSSConfigurator.setFile(file);
 
         RSSConfiguration.getInstance().setTimeToPoll(100L);
+        RSSConfiguration.getInstance().setPollThreads(8);
+        RSSConfiguration.getInstance().setDurabilityMode(DurabilityMode.CYCLE);
+        RSSConfiguration.getInstance().setCheckpointInterval(10L);
 
         List<String> dummyChannelFields = Arrays.asList("description", "title", "link", "copyright");
         List<String> dummyItemFields = Arrays.asList("description", "title", "link", "pubdate");
@@ -64,6 +70,9 @@ public class AutoRSSConfiguratorTest {
         RSSConfiguration.getInstance().turnOnRSSFeed("newdummy.rss");
         RSSConfiguration.getInstance().notifyFeedRead("newdummy.rss", newdummyDate);
         RSSConfiguration.getInstance().reconfig("newdummy.rss", newdummyItemFields, newdummyChannelFields);
+        RSSConfiguration.getInstance().setFeedPollInterval("newdummy.rss", 3600L);
+        RSSConfiguration.getInstance().setFeedMaxItems("newdummy.rss", 25);
+        RSSConfiguration.getInstance().notifyFeedValidators("newdummy.rss", "W/\"a;b,c\"", "Sun, 19 May 2019 10:00:00 GMT");
 
         AutoRSSConfigurator.saveRSSConfiguration();
 
@@ -72,6 +81,10 @@ public class AutoRSSConfiguratorTest {
         AutoRSSConfigurator.loadRSSConfiguration();
 
         assertEquals((Long)100L, RSSConfiguration.getInstance().getTimeToPoll());
+        assertEquals((Integer)8, RSSConfiguration.getInstance().getPollThreads());
+        assertEquals(PollMode.PLATFORM, RSSConfiguration.getInstance().getPollMode());
+        assertEquals(DurabilityMode.CYCLE, RSSConfiguration.getInstance().getDurabilityMode());
+        assertEquals((Long)10L, RSSConfiguration.getInstance().getCheckpointInterval());
 
         assertEquals("dummy.txt", RSSConfiguration.getInstance().getRSSFeeds().get("dummy.rss"));
         assertFalse(RSSConfiguration.getInstance().isRSSFeedOn("dummy.rss"));
@@ -88,11 +101,209 @@ public class AutoRSSConfiguratorTest {
         assertTrue(newdummyChannelFields.containsAll(RSSConfiguration.getInstance().getChannelFields("newdummy.rss")));
         assertTrue(RSSConfiguration.getInstance().getItemFields("newdummy.rss").containsAll(newdummyItemFields));
         assertTrue(newdummyItemFields.containsAll(RSSConfiguration.getInstance().getItemFields("newdummy.rss")));
+        assertEquals((Long)3600L, RSSConfiguration.getInstance().getFeedPollInterval("newdummy.rss"));
+        assertNull(RSSConfiguration.getInstance().getOwnFeedPollInterval("dummy.rss"));
+        assertEquals((Integer)25, RSSConfiguration.getInstance().getFeedMaxItems("newdummy.rss"));
+        assertEquals((Integer)RSSConfiguration.defaultMaxItems, RSSConfiguration.getInstance().getFeedMaxItems("dummy.rss"));
+        assertEquals("W/\"a;b,c\"", RSSConfiguration.getInstance().getRSSFeedETag("newdummy.rss"));
+        assertEquals("Sun, 19 May 2019 10:00:00 GMT", RSSConfiguration.getInstance().getRSSFeedLastModified("newdummy.rss"));
+        assertNull(RSSConfiguration.getInstance().getRSSFeedETag("dummy.rss"));
+        assertNull(RSSConfiguration.getInstance().getRSSFeedLastModified("dummy.rss"));
 
         cleanup();
         deleteFile(file);
     }
 
+    @Test
+    @DisplayName("Test of ability to replay journal of changes made after save")
+    public void journalReplayTest() throws IOException {
+        cleanup();
+        deleteFile(file);
+        AutoRSSConfigurator.setFile(file);
+
+        RSSConfiguration.getInstance().addRSSFeed("dummy.rss", "dummy.txt");
+        RSSConfiguration.getInstance().addRSSFeed("deleted.rss", "deleted.txt");
+        AutoRSSConfigurator.startJournal();
+        assertFalse(new File(file + ".journal").exists());
+        assertTrue(new File(file).exists());
+
+        Date dummyDate = new Date(1000000L);
+        RSSConfiguration.getInstance().setTimeToPoll(100L);
+        RSSConfiguration.getInstance().notifyFeedValidators("dummy.rss", "\"v1\"", null);
+        RSSConfiguration.getInstance().notifyFeedRead("dummy.rss", dummyDate);
+        RSSConfiguration.getInstance().turnOffRSSFeed("dummy.rss");
+        RSSConfiguration.getInstance().delRSSFeed("deleted.rss");
+        RSSConfiguration.getInstance().addRSSFeed("newdummy.rss", "newdummy.txt");
+        RSSConfiguration.getInstance().reconfig("newdummy.rss", Arrays.asList("title", "link"), null);
+        RSSConfiguration.getInstance().setFeedMaxItems("newdummy.rss", 25);
+        // pubDate and validators are not journaled until checkpoint, record of status change carries them
+        assertEquals(6, ConfigJournal.read(AutoRSSConfigurator.getJournalPath()).size());
+        // crash: journal is not compacted
+        AutoRSSConfigurator.stopJournal();
+        assertTrue(new File(file + ".journal").exists());
+
+        cleanup();
+        AutoRSSConfigurator.loadRSSConfiguration();
+
+        assertEquals((Long)100L, RSSConfiguration.getInstance().getTimeToPoll());
+        assertEquals(2, RSSConfiguration.getInstance().getRSSFeeds().size());
+        assertFalse(RSSConfiguration.getInstance().isRSSFeedOn("dummy.rss"));
+        assertEquals(dummyDate, RSSConfiguration.getInstance().getRSSFeedLastPubDate("dummy.rss"));
+        assertEquals("\"v1\"", RSSConfiguration.getInstance().getRSSFeedETag("dummy.rss"));
+        assertEquals("newdummy.txt", RSSConfiguration.getInstance().getRSSFeeds().get("newdummy.rss"));
+        assertEquals(Arrays.asList("title", "link"), RSSConfiguration.getInstance().getItemFields("newdummy.rss"));
+        assertEquals((Integer)25, RSSConfiguration.getInstance().getFeedMaxItems("newdummy.rss"));
+
+        // save compacts journal into config file
+        AutoRSSConfigurator.saveRSSConfiguration();
+        assertFalse(new File(file + ".journal").exists());
+        assertFalse(new File(file + ".tmp").exists());
+        cleanup();
+        AutoRSSConfigurator.loadRSSConfiguration();
+        assertEquals(2, RSSConfiguration.getInstance().getRSSFeeds().size());
+        assertEquals(dummyDate, RSSConfiguration.getInstance().getRSSFeedLastPubDate("dummy.rss"));
+
+        cleanup();
+        deleteFile(file);
+    }
+
+    @Test
+    @DisplayName("Test of checkpoint of dirty feeds only")
+    public void checkpointTest() throws IOException {
+        cleanup();
+        deleteFile(file);
+        AutoRSSConfigurator.setFile(file);
+        CheckpointStatistics.getInstance().reset();
+        try {
+            RSSConfiguration.getInstance().addRSSFeed("dummy.rss", "dummy.txt");
+            RSSConfiguration.getInstance().addRSSFeed("newdummy.rss", "newdummy.txt");
+            RSSConfiguration.getInstance().addRSSFeed("cleandummy.rss", "cleandummy.txt");
+            Date dummyDate = new Date(1000000L);
+            RSSConfiguration.getInstance().notifyFeedRead("dummy.rss", dummyDate);
+            // nothing is checkpointed before journal is started
+            assertEquals(0, AutoRSSConfigurator.checkpoint());
+            assertEquals(0, CheckpointStatistics.getInstance().getCheckpoints());
+
+            // save on start of journal writes dirty feed, so it's clean
+            AutoRSSConfigurator.startJournal();
+            assertEquals(0, AutoRSSConfigurator.checkpoint());
+            assertEquals(1, CheckpointStatistics.getInstance().getCheckpoints());
+
+            Date newDummyDate = new Date(2000000L);
+            RSSConfiguration.getInstance().notifyFeedRead("dummy.rss", newDummyDate);
+            RSSConfiguration.getInstance().notifyFeedRead("newdummy.rss", null);
+            RSSConfiguration.getInstance().notifyFeedValidators("newdummy.rss", "\"v1\"", null);
+            assertTrue(ConfigJournal.read(AutoRSSConfigurator.getJournalPath()).isEmpty());
+            assertEquals(2, AutoRSSConfigurator.checkpoint());
+            assertEquals(0, AutoRSSConfigurator.checkpoint());
+            List<String> records = ConfigJournal.read(AutoRSSConfigurator.getJournalPath());
+            assertEquals(2, records.size());
+            assertTrue(records.stream().noneMatch(record -> record.contains("cleandummy.rss")));
+
+            assertEquals(3, CheckpointStatistics.getInstance().getCheckpoints());
+            assertEquals(2, CheckpointStatistics.getInstance().getDirtyFeeds());
+            assertEquals(0, CheckpointStatistics.getInstance().getLastDirtyFeeds());
+            assertEquals(0, CheckpointStatistics.getInstance().getFailures());
+            assertTrue(CheckpointStatistics.getInstance().getMaxCheckpointDuration() > 0);
+
+            // crash: journal is not compacted
+            AutoRSSConfigurator.stopJournal();
+            cleanup();
+            AutoRSSConfigurator.loadRSSConfiguration();
+            assertEquals(3, RSSConfiguration.getInstance().getRSSFeeds().size());
+            assertEquals(newDummyDate, RSSConfiguration.getInstance().getRSSFeedLastPubDate("dummy.rss"));
+            assertEquals("\"v1\"", RSSConfiguration.getInstance().getRSSFeedETag("newdummy.rss"));
+        } finally {
+            AutoRSSConfigurator.stopJournal();
+            CheckpointStatistics.getInstance().reset();
+            cleanup();
+            deleteFile(file);
+            deleteFile(file + ".journal");
+        }
+    }
+
+    @Test
+    @DisplayName("Test of checkpoint which commits output before pubDates are journaled")
+    public void checkpointOrderTest() throws IOException {
+        cleanup();
+        deleteFile(file);
+        AutoRSSConfigurator.setFile(file);
+        CheckpointStatistics.getInstance().reset();
+        List<Integer> journaledOnCommit = new ArrayList<>();
+        boolean[] committed = {false};
+        AutoRSSConfigurator.setOutputCommitter(() -> {
+            try {
+                journaledOnCommit.add(ConfigJournal.read(AutoRSSConfigurator.getJournalPath()).size());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return committed[0];
+        });
+        try {
+            RSSConfiguration.getInstance().addRSSFeed("dummy.rss", "dummy.txt");
+            AutoRSSConfigurator.startJournal();
+            // output is not committed when there is nothing to checkpoint
+            assertEquals(0, AutoRSSConfigurator.checkpoint());
+            assertTrue(journaledOnCommit.isEmpty());
+
+            Date dummyDate = new Date(1000000L);
+            RSSConfiguration.getInstance().notifyFeedRead("dummy.rss", dummyDate);
+            // output can't be committed, so pubDate is not journaled and feed stays dirty
+            assertEquals(0, AutoRSSConfigurator.checkpoint());
+            assertEquals(1, CheckpointStatistics.getInstance().getFailures());
+            assertTrue(ConfigJournal.read(AutoRSSConfigurator.getJournalPath()).isEmpty());
+
+            committed[0] = true;
+            assertEquals(1, AutoRSSConfigurator.checkpoint());
+            // journal had no record yet when output was committed
+            assertEquals(Arrays.asList(0, 0), journaledOnCommit);
+            assertEquals(1, ConfigJournal.read(AutoRSSConfigurator.getJournalPath()).size());
+        } finally {
+            AutoRSSConfigurator.setOutputCommitter(() -> true);
+            AutoRSSConfigurator.stopJournal();
+            CheckpointStatistics.getInstance().reset();
+            cleanup();
+            deleteFile(file);
+            deleteFile(file + ".journal");
+        }
+    }
+
+    @Test
+    @DisplayName("Test of journal compaction into config file")
+    public void journalCompactionTest() throws IOException {
+        cleanup();
+        deleteFile(file);
+        AutoRSSConfigurator.setFile(file);
+        int threshold = AutoRSSConfigurator.compactionThreshold;
+        AutoRSSConfigurator.compactionThreshold = 3;
+        try {
+            RSSConfiguration.getInstance().addRSSFeed("dummy.rss", "dummy.txt");
+            AutoRSSConfigurator.startJournal();
+            RSSConfiguration.getInstance().notifyFeedRead("dummy.rss", new Date(1000000L));
+            AutoRSSConfigurator.checkpoint();
+            RSSConfiguration.getInstance().notifyFeedRead("dummy.rss", new Date(2000000L));
+            AutoRSSConfigurator.checkpoint();
+            assertEquals(2, ConfigJournal.read(AutoRSSConfigurator.getJournalPath()).size());
+            RSSConfiguration.getInstance().notifyFeedRead("dummy.rss", new Date(3000000L));
+            AutoRSSConfigurator.checkpoint();
+            assertTrue(ConfigJournal.read(AutoRSSConfigurator.getJournalPath()).isEmpty());
+            RSSConfiguration.getInstance().notifyFeedRead("dummy.rss", new Date(4000000L));
+            AutoRSSConfigurator.checkpoint();
+            assertEquals(1, ConfigJournal.read(AutoRSSConfigurator.getJournalPath()).size());
+            AutoRSSConfigurator.stopJournal();
+
+            List<String> lines = Files.readAllLines(new File(file).toPath());
+            assertEquals(2, lines.size());
+            assertTrue(lines.get(1).startsWith("dummy.rss;dummy.txt;1;3000000;"));
+        } finally {
+            AutoRSSConfigurator.compactionThreshold = threshold;
+            AutoRSSConfigurator.stopJournal();
+            cleanup();
+            deleteFile(file);
+            deleteFile(file + ".journal");
+        }
+    }
+
     @Test
     @DisplayName("Test of ability to load configurations")
     public void autoConfigValidTest() throws IOException {
@@ -107,6 +318,8 @@ public class AutoRSSConfiguratorTest {
         AutoRSSConfigurator.loadRSSConfiguration();
 
         assertEquals((Long)300L, RSSConfiguration.getInstance().getTimeToPoll());
+        assertEquals((Integer)RSSConfiguration.defaultPollThreads, RSSConfiguration.getInstance().getPollThreads());
+        assertEquals(DurabilityMode.NONE, RSSConfiguration.getInstance().getDurabilityMode());
         assertEquals(1, RSSConfiguration.getInstance().getRSSFeeds().size());
 
         assertEquals("dummy.txt", RSSConfiguration.getInstance().getRSSFeeds().get("dummy.rss"));
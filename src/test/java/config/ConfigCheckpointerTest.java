@@ -0,0 +1,69 @@
+package config;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Date;
+
+import static org.junit.Assert.*;
+
+public class ConfigCheckpointerTest {
+
+    private String file = "test.cfg";
+
+    @Before
+    public void setUp() {
+        assertTrue(RSSConfiguration.getInstance().getRSSFeeds().isEmpty());
+        AutoRSSConfigurator.setFile(file);
+        CheckpointStatistics.getInstance().reset();
+        RSSConfiguration.getInstance().addRSSFeed("dummy.rss", "dummy.txt");
+        AutoRSSConfigurator.startJournal();
+    }
+
+    @After
+    public void tearDown() {
+        AutoRSSConfigurator.stopJournal();
+        RSSConfiguration.getInstance().delRSSFeed("dummy.rss");
+        RSSConfiguration.getInstance().setCheckpointInterval(RSSConfiguration.defaultCheckpointInterval);
+        CheckpointStatistics.getInstance().reset();
+        new File(file).delete();
+        new File(file + ".journal").delete();
+    }
+
+    @Test
+    @DisplayName("Test stopped checkpointer takes the last checkpoint")
+    public void stopTest() throws InterruptedException, IOException {
+        ConfigCheckpointer checkpointer = new ConfigCheckpointer();
+        Thread thread = new Thread(checkpointer);
+        thread.start();
+        RSSConfiguration.getInstance().notifyFeedRead("dummy.rss", new Date(1000000L));
+        checkpointer.stop();
+        thread.join(5000);
+        assertFalse(thread.isAlive());
+        assertEquals(1, ConfigJournal.read(AutoRSSConfigurator.getJournalPath()).size());
+    }
+
+    @Test
+    @DisplayName("Test checkpoint is taken every checkpoint interval, new interval is applied at once")
+    public void intervalTest() throws InterruptedException, IOException {
+        ConfigCheckpointer checkpointer = new ConfigCheckpointer();
+        Thread thread = new Thread(checkpointer);
+        thread.start();
+        RSSConfiguration.getInstance().notifyFeedRead("dummy.rss", new Date(1000000L));
+        RSSConfiguration.getInstance().setCheckpointInterval(1L);
+        // change of setting is journaled at once
+        assertEquals(1, ConfigJournal.read(AutoRSSConfigurator.getJournalPath()).size());
+        for (int i = 0; i < 50 && CheckpointStatistics.getInstance().getCheckpoints() == 0; i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(1, CheckpointStatistics.getInstance().getDirtyFeeds());
+        assertEquals(2, ConfigJournal.read(AutoRSSConfigurator.getJournalPath()).size());
+        checkpointer.stop();
+        thread.join(5000);
+        assertFalse(thread.isAlive());
+    }
+}
@@ -0,0 +1,81 @@
+package config;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static org.junit.Assert.*;
+
+public class ConfigJournalTest {
+
+    private Path path = Paths.get("test.journal");
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    @DisplayName("Test records are appended and read in order")
+    public void appendReadTest() throws IOException {
+        assertTrue(ConfigJournal.read(path).isEmpty());
+        try (ConfigJournal journal = new ConfigJournal(path)) {
+            journal.append("-;dummy.rss", false);
+            journal.append("G;100;4;PLATFORM;NONE", true);
+            assertEquals(2, journal.getRecords());
+        }
+        assertEquals(Arrays.asList("-;dummy.rss", "G;100;4;PLATFORM;NONE"), ConfigJournal.read(path));
+
+        try (ConfigJournal journal = new ConfigJournal(path)) {
+            journal.append("-;newdummy.rss", false);
+            assertEquals(1, journal.getRecords());
+        }
+        assertEquals(Arrays.asList("-;dummy.rss", "G;100;4;PLATFORM;NONE", "-;newdummy.rss"), ConfigJournal.read(path));
+    }
+
+    @Test
+    @DisplayName("Test batch of records is appended at once")
+    public void appendBatchTest() throws IOException {
+        try (ConfigJournal journal = new ConfigJournal(path)) {
+            journal.append("-;dummy.rss", false);
+            journal.append(Arrays.asList("-;newdummy.rss", "-;otherdummy.rss"), true);
+            journal.append(Collections.emptyList(), false);
+            assertEquals(3, journal.getRecords());
+        }
+        assertEquals(Arrays.asList("-;dummy.rss", "-;newdummy.rss", "-;otherdummy.rss"), ConfigJournal.read(path));
+    }
+
+    @Test
+    @DisplayName("Test record cut by crash is ignored")
+    public void tornRecordTest() throws IOException {
+        try (ConfigJournal journal = new ConfigJournal(path)) {
+            journal.append("-;dummy.rss", false);
+        }
+        Files.write(path, "+;newdummy.rss;newdummy.t".getBytes(StandardCharsets.UTF_8), APPEND);
+        assertEquals(Arrays.asList("-;dummy.rss"), ConfigJournal.read(path));
+    }
+
+    @Test
+    @DisplayName("Test truncated journal has no records and is removed on close")
+    public void truncateTest() throws IOException {
+        ConfigJournal journal = new ConfigJournal(path);
+        journal.append("-;dummy.rss", false);
+        journal.truncate();
+        assertEquals(0, journal.getRecords());
+        assertTrue(ConfigJournal.read(path).isEmpty());
+        journal.append("-;newdummy.rss", false);
+        assertEquals(Arrays.asList("-;newdummy.rss"), ConfigJournal.read(path));
+        journal.truncate();
+        journal.close();
+        assertFalse(Files.exists(path));
+    }
+}
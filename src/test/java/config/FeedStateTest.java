@@ -0,0 +1,67 @@
+package config;
+
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.Arrays;
+import java.util.Date;
+
+import static org.junit.Assert.*;
+
+public class FeedStateTest {
+
+    @Test
+    @DisplayName("Test FeedState of new feed")
+    public void defaultStateTest() {
+        FeedState state = FeedState.of("dummy.txt");
+        assertEquals("dummy.txt", state.getFile());
+        assertTrue(state.isOn());
+        assertTrue(state.isSorted());
+        assertNull(state.getLastPubDate());
+        assertNull(state.getPollInterval());
+        assertEquals(RSSConfiguration.defaultMaxItems, state.getMaxItems());
+        assertEquals(Arrays.asList("title", "description"), state.getChannelFields());
+        assertEquals(Arrays.asList("title", "description"), state.getItemFields());
+        assertEquals(FieldMask.ofChannelFields(state.getChannelFields()), state.getChannelFieldMask());
+        assertEquals(FieldMask.ofItemFields(state.getItemFields()), state.getItemFieldMask());
+    }
+
+    @Test
+    @DisplayName("Test FeedState changes create new state with the same runtime info")
+    public void withTest() {
+        FeedState state = FeedState.of("dummy.txt");
+        FeedState changed = state
+                .withFile("newdummy.txt")
+                .withMaxItems(5)
+                .withItemFields(Arrays.asList("pubdate"))
+                .withChannelFields(Arrays.asList("copyright"))
+                .withStatus(FeedStatus.OFF)
+                .withPollInterval(3600L);
+
+        assertEquals("dummy.txt", state.getFile());
+        assertEquals(RSSConfiguration.defaultMaxItems, state.getMaxItems());
+        assertEquals(Arrays.asList("title", "description"), state.getItemFields());
+        assertTrue(state.isOn());
+        assertNull(state.getPollInterval());
+
+        assertEquals("newdummy.txt", changed.getFile());
+        assertFalse(changed.isOn());
+        assertEquals((Long)3600L, changed.getPollInterval());
+        assertEquals(5, changed.getMaxItems());
+        assertEquals(Arrays.asList("pubdate"), changed.getItemFields());
+        assertEquals(FieldMask.ofItemFields(Arrays.asList("pubdate")), changed.getItemFieldMask());
+        assertEquals(Arrays.asList("copyright"), changed.getChannelFields());
+        assertEquals(FieldMask.ofChannelFields(Arrays.asList("copyright")), changed.getChannelFieldMask());
+
+        assertSame(state.getInfo(), changed.getInfo());
+        state.getInfo().lastPubDate = new Date(1000000L);
+        assertEquals(new Date(1000000L), changed.getLastPubDate());
+        assertSame(state.getDateFormat("pubdate"), changed.getDateFormat("pubdate"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    @DisplayName("Test FeedState fields can't be modified")
+    public void unmodifiableFieldsTest() {
+        FeedState.of("dummy.txt").withItemFields(Arrays.asList("title")).getItemFields().add("dummy");
+    }
+}
@@ -0,0 +1,57 @@
+package config;
+
+import model.ItemField;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class FieldMaskTest {
+
+    @Test
+    @DisplayName("Test item mask contains only provided available fields")
+    public void itemFieldsTest() {
+        FieldMask mask = FieldMask.ofItemFields(Arrays.asList("title", "pubdate", "dummy"));
+        assertTrue(mask.contains("title"));
+        assertTrue(mask.contains("pubdate"));
+        assertTrue(mask.contains(ItemField.TITLE));
+        assertTrue(mask.contains(ItemField.PUB_DATE));
+        assertFalse(mask.contains("description"));
+        assertFalse(mask.contains(ItemField.DESCRIPTION));
+        assertFalse(mask.contains("dummy"));
+        assertFalse(mask.contains("pubDate"));
+    }
+
+    @Test
+    @DisplayName("Test channel mask contains only provided available fields")
+    public void channelFieldsTest() {
+        FieldMask mask = FieldMask.ofChannelFields(Arrays.asList("skipdays", "copyright", "dummy"));
+        assertTrue(mask.contains("skipdays"));
+        assertTrue(mask.contains("copyright"));
+        assertFalse(mask.contains("title"));
+        assertFalse(mask.contains("dummy"));
+        assertFalse(mask.contains(ItemField.TITLE));
+        assertEquals(FieldMask.ofChannelFields(Collections.emptyList()),
+                FieldMask.ofChannelFields(Collections.singletonList("dummy")));
+    }
+
+    @Test
+    @DisplayName("Test union of masks")
+    public void withTest() {
+        FieldMask mask = FieldMask.ofItemFields(Collections.singletonList("title"))
+                .with(FieldMask.ofItemFields(Collections.singletonList("link")));
+        assertEquals(FieldMask.ofItemFields(Arrays.asList("link", "title")), mask);
+        assertNotEquals(FieldMask.ofChannelFields(Arrays.asList("link", "title")), mask);
+
+        boolean thrown = false;
+        try {
+            mask.with(FieldMask.ofChannelFields(Collections.singletonList("title")));
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assertTrue(thrown);
+    }
+}
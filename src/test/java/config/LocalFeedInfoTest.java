@@ -11,15 +11,11 @@ public class LocalFeedInfoTest {
     @DisplayName("Test LocalFeedInfo initialization")
     public void localFeedInfoInitTest() {
         LocalFeedInfo info = new LocalFeedInfo();
-        assertEquals("ON", info.status.toString());
         assertNull(info.lastPubDate);
-
-        info = new LocalFeedInfo("ON", 1000000L);
-        assertEquals("ON", info.status.toString());
-        assertEquals(1000000L, info.lastPubDate.getTime());
-
-        info = new LocalFeedInfo("OFF", 2000000L);
-        assertEquals("OFF", info.status.toString());
-        assertEquals(2000000L, info.lastPubDate.getTime());
+        assertNull(info.etag);
+        assertNull(info.lastModified);
+        assertNull(info.contentHash);
+        assertTrue(info.sorted);
+        assertFalse(info.dirty.get());
     }
 }
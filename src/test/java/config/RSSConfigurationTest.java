@@ -4,10 +4,15 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.jupiter.api.DisplayName;
+import util.PubDateFormatCache;
+import util.VirtualThreads;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 import static org.junit.Assert.*;
@@ -73,6 +78,112 @@ public class RSSConfigurationTest {
         assertTrue(validItemParams.containsAll(RSSConfiguration.getInstance().getItemFields("dummy.rss")));
     }
 
+    @Test
+    @DisplayName("Test field masks follow RSS Feed reconfiguration")
+    public void fieldMaskTest() {
+        assertEquals(FieldMask.ofChannelFields(Arrays.asList("title", "description")),
+                RSSConfiguration.getInstance().getChannelFieldMask("dummy.rss"));
+        assertEquals(FieldMask.ofItemFields(Arrays.asList("title", "description")),
+                RSSConfiguration.getInstance().getItemFieldMask("dummy.rss"));
+
+        RSSConfiguration.getInstance().reconfig("dummy.rss",
+                Arrays.asList("pubDate", "dummy"), Arrays.asList("copyright", "skipDays"));
+        assertEquals(FieldMask.ofChannelFields(Arrays.asList("copyright", "skipdays")),
+                RSSConfiguration.getInstance().getChannelFieldMask("dummy.rss"));
+        assertEquals(FieldMask.ofItemFields(Arrays.asList("pubdate")),
+                RSSConfiguration.getInstance().getItemFieldMask("dummy.rss"));
+    }
+
+    @Test
+    @DisplayName("Test snapshot is not changed by later edits")
+    public void snapshotTest() {
+        ConfigSnapshot snapshot = RSSConfiguration.getInstance().getSnapshot();
+        RSSConfiguration.getInstance().reconfig("dummy.rss", Arrays.asList("pubDate"), Arrays.asList("copyright"));
+        RSSConfiguration.getInstance().setRSSFeedFile("dummy.rss", "newfile.txt");
+        RSSConfiguration.getInstance().setFeedMaxItems("dummy.rss", 5);
+        RSSConfiguration.getInstance().turnOffRSSFeed("dummy.rss");
+        RSSConfiguration.getInstance().setFeedPollInterval("dummy.rss", 3600L);
+        RSSConfiguration.getInstance().addRSSFeed("newdummy.rss", "newdummy.txt");
+
+        assertEquals("dummy.txt", snapshot.getRSSFeeds().get("dummy.rss"));
+        assertTrue(snapshot.isRSSFeedOn("dummy.rss"));
+        assertNull(snapshot.getFeedState("dummy.rss").getPollInterval());
+        assertFalse(snapshot.getRSSFeeds().containsKey("newdummy.rss"));
+        assertEquals(Arrays.asList("title", "description"), snapshot.getItemFields("dummy.rss"));
+        assertEquals(FieldMask.ofChannelFields(Arrays.asList("title", "description")),
+                snapshot.getChannelFieldMask("dummy.rss"));
+        assertEquals((Integer)RSSConfiguration.defaultMaxItems, snapshot.getFeedMaxItems("dummy.rss"));
+
+        ConfigSnapshot current = RSSConfiguration.getInstance().getSnapshot();
+        assertEquals("newfile.txt", current.getRSSFeeds().get("dummy.rss"));
+        assertEquals(Arrays.asList("pubdate"), current.getItemFields("dummy.rss"));
+        assertEquals(FieldMask.ofChannelFields(Arrays.asList("copyright")), current.getChannelFieldMask("dummy.rss"));
+        assertEquals((Integer)5, current.getFeedMaxItems("dummy.rss"));
+        assertFalse(current.isRSSFeedOn("dummy.rss"));
+        assertEquals((Long)3600L, current.getFeedPollInterval("dummy.rss"));
+        assertTrue(getUnsupportedOperationException(key -> current.getRSSFeeds().remove(key), "dummy.rss"));
+
+        // feed state written by poll workers is seen by every snapshot
+        Date pubDate = new Date(1000000L);
+        RSSConfiguration.getInstance().notifyFeedRead("dummy.rss", pubDate);
+        assertEquals(pubDate, snapshot.getRSSFeedLastPubDate("dummy.rss"));
+
+        RSSConfiguration.getInstance().delRSSFeed("newdummy.rss");
+        assertTrue(current.getRSSFeeds().containsKey("newdummy.rss"));
+        assertTrue(getIllegalArgumentException(RSSConfiguration.getInstance()::isRSSFeedOn, "newdummy.rss"));
+    }
+
+    @Test
+    @DisplayName("Test removal of RSS Feed drops all its state")
+    public void delRSSFeedStateTest() {
+        RSSConfiguration.getInstance().addRSSFeed("newdummy.rss", "newdummy.txt");
+        RSSConfiguration.getInstance().setFeedMaxItems("newdummy.rss", 5);
+        FeedState state = RSSConfiguration.getInstance().getSnapshot().getFeedState("newdummy.rss");
+        assertEquals(5, state.getMaxItems());
+
+        RSSConfiguration.getInstance().delRSSFeed("newdummy.rss");
+        assertFalse(RSSConfiguration.getInstance().getSnapshot().getFeedStates().containsKey("newdummy.rss"));
+        assertTrue(getIllegalArgumentException(RSSConfiguration.getInstance().getSnapshot()::getFeedState, "newdummy.rss"));
+
+        RSSConfiguration.getInstance().addRSSFeed("newdummy.rss", "newdummy.txt");
+        assertEquals((Integer)RSSConfiguration.defaultMaxItems, RSSConfiguration.getInstance().getFeedMaxItems("newdummy.rss"));
+        RSSConfiguration.getInstance().delRSSFeed("newdummy.rss");
+    }
+
+    @Test
+    @DisplayName("Test snapshot can be read while feeds are edited")
+    public void concurrentSnapshotTest() throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread editor = new Thread(() -> {
+            for (int i = 0; running.get(); i++) {
+                String feed = "feed" + (i % 16) + ".rss";
+                if (RSSConfiguration.getInstance().getRSSFeeds().containsKey(feed)) {
+                    RSSConfiguration.getInstance().delRSSFeed(feed);
+                } else {
+                    RSSConfiguration.getInstance().addRSSFeed(feed, feed + ".txt");
+                    RSSConfiguration.getInstance().setFeedMaxItems(feed, 1 + i % 5);
+                }
+            }
+        });
+        editor.start();
+        try {
+            for (int i = 0; i < 10000; i++) {
+                ConfigSnapshot snapshot = RSSConfiguration.getInstance().getSnapshot();
+                for (String feed : snapshot.getRSSFeeds().keySet()) {
+                    assertTrue(snapshot.isRSSFeedOn(feed));
+                    assertTrue(snapshot.getFeedMaxItems(feed) > 0);
+                    assertNotNull(snapshot.getItemFieldMask(feed));
+                }
+            }
+        } finally {
+            running.set(false);
+            editor.join();
+        }
+        for (String feed : RSSConfiguration.getInstance().getRSSFeeds().keySet()) {
+            if (!feed.equals("dummy.rss")) RSSConfiguration.getInstance().delRSSFeed(feed);
+        }
+    }
+
     @Test
     @DisplayName("Test ability of turning RSS Feed On and Off")
     public void turnRSSFeedOnOffTest() {
@@ -129,6 +240,170 @@ public class RSSConfigurationTest {
         assertEquals((Long)100L, RSSConfiguration.getInstance().getTimeToPoll());
     }
 
+    @Test
+    @DisplayName("Test ability of changing poll threads count")
+    public void changePollThreadsTest() {
+        assertEquals((Integer)RSSConfiguration.defaultPollThreads, RSSConfiguration.getInstance().getPollThreads());
+        RSSConfiguration.getInstance().setPollThreads(16);
+        assertEquals((Integer)16, RSSConfiguration.getInstance().getPollThreads());
+        RSSConfiguration.getInstance().setPollThreads(RSSConfiguration.defaultPollThreads);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    @DisplayName("Test ability of changing poll threads count to throw")
+    public void changePollThreadsTestThrow() {
+        RSSConfiguration.getInstance().setPollThreads(0);
+    }
+
+    @Test
+    @DisplayName("Test ability of changing poll mode")
+    public void changePollModeTest() {
+        assertEquals(PollMode.PLATFORM, RSSConfiguration.getInstance().getPollMode());
+        boolean thrown = false;
+        try {
+            RSSConfiguration.getInstance().setPollMode(PollMode.VIRTUAL);
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assertEquals(!VirtualThreads.isSupported(), thrown);
+        RSSConfiguration.getInstance().setPollMode(PollMode.PLATFORM);
+        assertEquals(PollMode.PLATFORM, RSSConfiguration.getInstance().getPollMode());
+    }
+
+    @Test
+    @DisplayName("Test ability of changing durability mode")
+    public void changeDurabilityModeTest() {
+        assertEquals(DurabilityMode.NONE, RSSConfiguration.getInstance().getDurabilityMode());
+        RSSConfiguration.getInstance().setDurabilityMode(DurabilityMode.CYCLE);
+        assertEquals(DurabilityMode.CYCLE, RSSConfiguration.getInstance().getDurabilityMode());
+        RSSConfiguration.getInstance().setDurabilityMode(DurabilityMode.NONE);
+        assertEquals(DurabilityMode.NONE, RSSConfiguration.getInstance().getDurabilityMode());
+    }
+
+    @Test
+    @DisplayName("Test ability of changing feed poll interval")
+    public void changeFeedPollIntervalTest() {
+        assertNull(RSSConfiguration.getInstance().getOwnFeedPollInterval("dummy.rss"));
+        assertEquals(RSSConfiguration.getInstance().getTimeToPoll(), RSSConfiguration.getInstance().getFeedPollInterval("dummy.rss"));
+        RSSConfiguration.getInstance().setFeedPollInterval("dummy.rss", 3600L);
+        assertEquals((Long)3600L, RSSConfiguration.getInstance().getFeedPollInterval("dummy.rss"));
+        RSSConfiguration.getInstance().setFeedPollInterval("dummy.rss", 1L);
+        assertEquals((Long)RSSConfiguration.timeCheckThreshold, RSSConfiguration.getInstance().getFeedPollInterval("dummy.rss"));
+        RSSConfiguration.getInstance().setFeedPollInterval("dummy.rss", null);
+        assertNull(RSSConfiguration.getInstance().getOwnFeedPollInterval("dummy.rss"));
+        assertEquals(RSSConfiguration.getInstance().getTimeToPoll(), RSSConfiguration.getInstance().getFeedPollInterval("dummy.rss"));
+    }
+
+    @Test
+    @DisplayName("Test that cache validators are changed fine")
+    public void changeFeedValidatorsTest() {
+        assertNull(RSSConfiguration.getInstance().getRSSFeedETag("dummy.rss"));
+        assertNull(RSSConfiguration.getInstance().getRSSFeedLastModified("dummy.rss"));
+        RSSConfiguration.getInstance().notifyFeedValidators("dummy.rss", "\"v1\"", "Sun, 19 May 2019 10:00:00 GMT");
+        assertEquals("\"v1\"", RSSConfiguration.getInstance().getRSSFeedETag("dummy.rss"));
+        assertEquals("Sun, 19 May 2019 10:00:00 GMT", RSSConfiguration.getInstance().getRSSFeedLastModified("dummy.rss"));
+        RSSConfiguration.getInstance().notifyFeedValidators("dummy.rss", null, "Mon, 20 May 2019 10:00:00 GMT");
+        assertNull(RSSConfiguration.getInstance().getRSSFeedETag("dummy.rss"));
+        assertEquals("Mon, 20 May 2019 10:00:00 GMT", RSSConfiguration.getInstance().getRSSFeedLastModified("dummy.rss"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    @DisplayName("Test that cache validators of unknown feed can't be changed")
+    public void changeFeedValidatorsTestThrow() {
+        RSSConfiguration.getInstance().notifyFeedValidators("unknown.rss", "\"v1\"", null);
+    }
+
+    @Test
+    @DisplayName("Test that feed can be marked as unsorted")
+    public void feedUnsortedTest() {
+        assertTrue(RSSConfiguration.getInstance().isRSSFeedSorted("dummy.rss"));
+        RSSConfiguration.getInstance().notifyFeedUnsorted("dummy.rss");
+        assertFalse(RSSConfiguration.getInstance().isRSSFeedSorted("dummy.rss"));
+    }
+
+    @Test
+    @DisplayName("Test that date layout of feed field is kept")
+    public void feedDateFormatTest() {
+        assertTrue(RSSConfiguration.getInstance().getRSSFeedDateFormats("dummy.rss").isEmpty());
+        PubDateFormatCache dateFormat = RSSConfiguration.getInstance().getRSSFeedDateFormat("dummy.rss", "pubdate");
+        assertSame(dateFormat, RSSConfiguration.getInstance().getRSSFeedDateFormat("dummy.rss", "pubdate"));
+        assertNotSame(dateFormat, RSSConfiguration.getInstance().getRSSFeedDateFormat("dummy.rss", "updated"));
+        assertEquals(2, RSSConfiguration.getInstance().getRSSFeedDateFormats("dummy.rss").size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    @DisplayName("Test that date layout of not added feed is not available")
+    public void feedDateFormatTestThrow() {
+        RSSConfiguration.getInstance().getRSSFeedDateFormat("not.added.rss", "pubdate");
+    }
+
+    @Test
+    @DisplayName("Test that schedule listeners are notified")
+    public void scheduleListenerTest() {
+        AtomicInteger notifications = new AtomicInteger();
+        Runnable listener = notifications::incrementAndGet;
+        RSSConfiguration.getInstance().addScheduleListener(listener);
+        RSSConfiguration.getInstance().setFeedPollInterval("dummy.rss", 100L);
+        RSSConfiguration.getInstance().turnOffRSSFeed("dummy.rss");
+        RSSConfiguration.getInstance().turnOnRSSFeed("dummy.rss");
+        RSSConfiguration.getInstance().setFeedMaxItems("dummy.rss", 5);
+        assertEquals(3, notifications.get());
+        RSSConfiguration.getInstance().removeScheduleListener(listener);
+        RSSConfiguration.getInstance().setFeedPollInterval("dummy.rss", null);
+        assertEquals(3, notifications.get());
+    }
+
+    @Test
+    @DisplayName("Test that change listeners are notified with changed feed")
+    public void changeListenerTest() {
+        List<String> changes = new ArrayList<>();
+        Consumer<String> listener = changes::add;
+        RSSConfiguration.getInstance().addChangeListener(listener);
+        RSSConfiguration.getInstance().notifyFeedRead("dummy.rss", null);
+        RSSConfiguration.getInstance().setFeedMaxItems("dummy.rss", 5);
+        RSSConfiguration.getInstance().setTimeToPoll(100L);
+        RSSConfiguration.getInstance().notifyFeedUnsorted("dummy.rss");
+        assertEquals(Arrays.asList("dummy.rss", null), changes);
+        RSSConfiguration.getInstance().removeChangeListener(listener);
+        RSSConfiguration.getInstance().turnOffRSSFeed("dummy.rss");
+        assertEquals(2, changes.size());
+    }
+
+    @Test
+    @DisplayName("Test pubDate and validators read by poll mark feed dirty instead of running change listeners")
+    public void dirtyFeedTest() {
+        List<String> changes = new ArrayList<>();
+        Consumer<String> listener = changes::add;
+        RSSConfiguration.getInstance().addChangeListener(listener);
+        LocalFeedInfo info = RSSConfiguration.getInstance().getSnapshot().getFeedState("dummy.rss").getInfo();
+        assertFalse(info.dirty.get());
+        RSSConfiguration.getInstance().notifyFeedRead("dummy.rss", null);
+        assertFalse(info.dirty.get());
+        RSSConfiguration.getInstance().notifyFeedRead("dummy.rss", new Date(1000000L));
+        assertTrue(info.dirty.getAndSet(false));
+        RSSConfiguration.getInstance().notifyFeedValidators("dummy.rss", "\"v1\"", null);
+        assertTrue(info.dirty.get());
+        assertTrue(changes.isEmpty());
+        RSSConfiguration.getInstance().removeChangeListener(listener);
+    }
+
+    @Test
+    @DisplayName("Test checkpoint interval should be positive")
+    public void checkpointIntervalTest() {
+        assertEquals((Long)RSSConfiguration.defaultCheckpointInterval, RSSConfiguration.getInstance().getCheckpointInterval());
+        RSSConfiguration.getInstance().setCheckpointInterval(5L);
+        assertEquals((Long)5L, RSSConfiguration.getInstance().getCheckpointInterval());
+        boolean thrown = false;
+        try {
+            RSSConfiguration.getInstance().setCheckpointInterval(0L);
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assertTrue(thrown);
+        assertEquals((Long)5L, RSSConfiguration.getInstance().getCheckpointInterval());
+        RSSConfiguration.getInstance().setCheckpointInterval(RSSConfiguration.defaultCheckpointInterval);
+    }
+
     @Test
     @DisplayName("Test disability of config lists to be modified")
     public void unmodifiableListsTest() {
@@ -199,6 +474,8 @@ public class RSSConfigurationTest {
         assertTrue(getIllegalArgumentException(RSSConfiguration.getInstance()::getRSSFeedLastPubDate, "newdummy.rss"));
         assertTrue(getIllegalArgumentException(RSSConfiguration.getInstance()::getChannelFields, "newdummy.rss"));
         assertTrue(getIllegalArgumentException(RSSConfiguration.getInstance()::getItemFields, "newdummy.rss"));
+        assertTrue(getIllegalArgumentException(RSSConfiguration.getInstance()::getChannelFieldMask, "newdummy.rss"));
+        assertTrue(getIllegalArgumentException(RSSConfiguration.getInstance()::getItemFieldMask, "newdummy.rss"));
         assertTrue(getIllegalArgumentException(RSSConfiguration.getInstance()::getFeedMaxItems, "newdummy.rss"));
     }
 
@@ -220,4 +497,14 @@ public class RSSConfigurationTest {
         assertEquals("copyright", RSSConfiguration.atomToRSS("atom:rights"));
         assertEquals("", RSSConfiguration.atomToRSS("atom:dummy"));
     }
+
+    @Test
+    @DisplayName("Test Atom fields priority")
+    public void atomFieldPreferredTest() {
+        assertTrue(RSSConfiguration.isAtomFieldPreferred("atom:updated", "atom:published"));
+        assertFalse(RSSConfiguration.isAtomFieldPreferred("atom:published", "atom:updated"));
+        assertTrue(RSSConfiguration.isAtomFieldPreferred("atom:content", "atom:summary"));
+        assertFalse(RSSConfiguration.isAtomFieldPreferred("atom:summary", "atom:content"));
+        assertFalse(RSSConfiguration.isAtomFieldPreferred("atom:icon", "atom:logo"));
+    }
 }
@@ -2,42 +2,34 @@ package model;
 
 import org.junit.Test;
 import org.junit.jupiter.api.DisplayName;
+import parser.FeedModelParser;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 public class FeedModelTest {
     @Test
-    @DisplayName("Test to turn Atom into RSS")
+    @DisplayName("Test that atomToRSS leaves model mapped by parser as it is")
     public void atomToRssTest() {
-        FeedModel model = new FeedModel();
-        model.metaSource.put("atom:title", "dummy title");
-        model.metaSource.put("atom:id", "dummy guid");
-        model.metaSource.put("atom:contributor", "dummy managingeditor");
-
-        Map<String, String> itemSource = new HashMap<>();
-        itemSource.put("atom:rights", "dummy copyright");
-        itemSource.put("atom:published", "dummy pubdate");
-        itemSource.put("atom:content", "dummy description");
-        model.itemSources.add(itemSource);
-
-        model.atomToRSS();
-
-        assertEquals(3, model.metaSource.size());
-        for (String key : model.metaSource.keySet()) {
-            assertEquals("dummy " + key, model.metaSource.get(key));
-        }
-        assertEquals(1, model.itemSources.size());
-        assertEquals(3, model.itemSources.get(0).size());
-        for (String key : model.itemSources.get(0).keySet()) {
-            assertEquals("dummy " + key, model.itemSources.get(0).get(key));
-        }
+        String feed = "<rss xmlns:atom=\"http://www.w3.org/2005/Atom\">\n<atom:feed>\n"
+                + "<atom:title>dummy title</atom:title>\n"
+                + "<atom:entry>\n<atom:rights>dummy copyright</atom:rights>\n"
+                + "<atom:published>dummy pubdate</atom:published>\n</atom:entry>\n"
+                + "</atom:feed>\n</rss>\n";
+        FeedModel model = new FeedModelParser().parse(new ByteArrayInputStream(feed.getBytes(StandardCharsets.UTF_8)));
+        assertEquals("dummy title", model.metaSource.get("title"));
+        assertEquals("dummy pubdate", model.itemSources.get(0).get("pubdate"));
+        assertUnchanged(model);
     }
 
     @Test
-    @DisplayName("Test to turn Atom into RSS when there is not Atom")
+    @DisplayName("Test that atomToRSS leaves model without Atom fields as it is")
     public void atomToRssNoAtomTest() {
         FeedModel model = new FeedModel();
         model.metaSource.put("title", "dummy title");
@@ -46,33 +38,38 @@ public class FeedModelTest {
         itemSource.put("title", "dummy title");
         model.itemSources.add(itemSource);
 
-        model.atomToRSS();
-
-        assertEquals(1, model.metaSource.size());
-        assertEquals("dummy title", model.metaSource.get("title"));
-        assertEquals(1, model.itemSources.size());
-        assertEquals(1, model.itemSources.get(0).size());
-        assertEquals("dummy title", model.itemSources.get(0).get("title"));
+        assertUnchanged(model);
     }
 
     @Test
-    @DisplayName("Test to turn Atom into RSS when there are both Atom and RSS fields")
+    @DisplayName("Test that atomToRSS keeps RSS field which won over Atom one while parsing")
     public void atomToRssAtomAndRssTest() {
-        FeedModel model = new FeedModel();
-        model.metaSource.put("title", "dummy title");
-        model.metaSource.put("atom:title", "dummy atom title");
+        String feed = "<rss xmlns:atom=\"http://www.w3.org/2005/Atom\">\n<channel>\n"
+                + "<title>dummy title</title>\n<atom:title>dummy atom title</atom:title>\n"
+                + "<item>\n<atom:rights>dummy atom rights</atom:rights>\n<copyright>dummy copyright</copyright>\n</item>\n"
+                + "</channel>\n</rss>\n";
+        FeedModel model = new FeedModelParser().parse(new ByteArrayInputStream(feed.getBytes(StandardCharsets.UTF_8)));
+        assertEquals("dummy title", model.metaSource.get("title"));
+        assertEquals("dummy copyright", model.itemSources.get(0).get("copyright"));
+        assertUnchanged(model);
+    }
 
-        Map<String, String> itemSource = new HashMap<>();
-        itemSource.put("atom:rights", "dummy atom rights");
-        itemSource.put("copyright", "dummy copyright");
-        model.itemSources.add(itemSource);
+    /**
+     * Call atomToRSS and check that neither sources nor their content are replaced
+     *
+     * @param model model with RSS fields only
+     */
+    private static void assertUnchanged(FeedModel model) {
+        Map<String, String> metaSource = model.metaSource;
+        List<Map<String, String>> itemSources = model.itemSources;
+        FeedModel expected = new FeedModel();
+        expected.metaSource.putAll(metaSource);
+        itemSources.forEach(source -> expected.itemSources.add(new HashMap<>(source)));
 
         model.atomToRSS();
 
-        assertEquals(1, model.metaSource.size());
-        assertEquals("dummy title", model.metaSource.get("title"));
-        assertEquals(1, model.itemSources.size());
-        assertEquals(1, model.itemSources.get(0).size());
-        assertEquals("dummy copyright", model.itemSources.get(0).get("copyright"));
+        assertSame(metaSource, model.metaSource);
+        assertSame(itemSources, model.itemSources);
+        assertEquals(expected, model);
     }
 }
@@ -0,0 +1,168 @@
+package model;
+
+import config.RSSConfiguration;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class ItemSourceTest {
+
+    @Test
+    @DisplayName("Test ItemField covers available item fields")
+    public void itemFieldsTest() {
+        Set<String> available = RSSConfiguration.getAvailableItemFields()
+                .stream()
+                .map(String::toLowerCase)
+                .collect(Collectors.toSet());
+        Set<String> fields = Arrays.stream(ItemField.values()).map(ItemField::getKey).collect(Collectors.toSet());
+        assertEquals(available, fields);
+        fields.forEach(key -> assertEquals(key, ItemField.of(key).getKey()));
+        assertNull(ItemField.of("creator"));
+    }
+
+    @Test
+    @DisplayName("Test ItemSource behaves as Map")
+    public void mapTest() {
+        ItemSource source = new ItemSource();
+        Map<String, String> expected = new HashMap<>();
+        for (Map<String, String> map : Arrays.asList(source, expected)) {
+            map.put("title", "dummy title");
+            map.put("creator", "dummy creator");
+            map.put("pubdate", null);
+            map.put("description", "dummy description");
+            map.put("title", "new title");
+        }
+        assertEquals(expected, source);
+        assertEquals(source, expected);
+        assertEquals(expected.hashCode(), source.hashCode());
+        assertEquals(4, source.size());
+        assertTrue(source.containsKey("pubdate"));
+        assertNull(source.get("pubdate"));
+        assertFalse(source.containsKey("link"));
+        assertEquals("new title", source.get(ItemField.TITLE));
+        assertEquals("dummy creator", source.get("creator"));
+
+        assertEquals("dummy description", source.remove("description"));
+        assertEquals("dummy creator", source.remove("creator"));
+        assertNull(source.remove("creator"));
+        assertEquals(2, source.size());
+        assertEquals(new HashSet<>(Arrays.asList("title", "pubdate")), source.keySet());
+
+        source.entrySet().removeIf(entry -> entry.getKey().equals("title"));
+        assertEquals(Collections.singleton("pubdate"), source.keySet());
+        source.clear();
+        assertTrue(source.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test ItemSource iteration order")
+    public void orderTest() {
+        ItemSource source = new ItemSource();
+        source.put("pubdate", "Tue, 03 May 2016 11:46:11 +0200");
+        source.put("creator", "dummy creator");
+        source.put("title", "dummy title");
+        source.put("description", "dummy description");
+        assertEquals(Arrays.asList("description", "title", "pubdate", "creator"), new ArrayList<>(source.keySet()));
+
+        List<String> keys = new ArrayList<>();
+        source.forEach((key, value) -> keys.add(key));
+        assertEquals(new ArrayList<>(source.keySet()), keys);
+    }
+
+    @Test
+    @DisplayName("Test ItemSource copied from HashMap")
+    public void copyTest() {
+        Map<String, String> hashMap = new HashMap<>();
+        hashMap.put("title", "Story number 1");
+        hashMap.put("link", "https://www.example.org/news/1");
+        hashMap.put("description", "Paragraph of story 1");
+        hashMap.put("guid", "1");
+        hashMap.put("pubdate", "Sun, 19 May 2019 10:00:00 GMT");
+        ItemSource itemSource = new ItemSource(hashMap);
+        assertEquals(hashMap, itemSource);
+        assertEquals(hashMap.hashCode(), itemSource.hashCode());
+
+        itemSource.put("creator", "Editor");
+        assertEquals(6, itemSource.size());
+        assertEquals("Editor", itemSource.get("creator"));
+        assertFalse(hashMap.containsKey("creator"));
+    }
+
+    @Test
+    @DisplayName("Test ItemSource takes several times less heap than HashMap with the same item")
+    public void footprintTest() throws ClassNotFoundException {
+        Map<String, String> hashMap = new HashMap<>();
+        hashMap.put("title", "Story number 1");
+        hashMap.put("link", "https://www.example.org/news/1");
+        hashMap.put("description", "Paragraph of story 1");
+        hashMap.put("guid", "1");
+        hashMap.put("pubdate", "Sun, 19 May 2019 10:00:00 GMT");
+        // Keys and values are the same strings in both maps, so only the maps themselves are counted
+        long hashMapSize = shallowSize(HashMap.class)
+                + arraySize(hashMapCapacity(hashMap.size()))
+                + hashMap.size() * shallowSize(Class.forName("java.util.HashMap$Node"));
+        long itemSourceSize = shallowSize(ItemSource.class) + arraySize(ItemField.values().length);
+        // 288 bytes against 88 bytes with compressed references
+        assertTrue(hashMapSize + " vs " + itemSourceSize, itemSourceSize * 3 < hashMapSize);
+    }
+
+    /**
+     * Estimate shallow size of object on 64-bit JVM with compressed references:
+     * 12 bytes of header and instance fields of the class and its superclasses, aligned to 8 bytes
+     *
+     * @param type class of object
+     * @return size in bytes
+     */
+    private static long shallowSize(Class<?> type) {
+        long size = 12;
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) continue;
+                Class<?> fieldType = field.getType();
+                if (fieldType == long.class || fieldType == double.class) size += 8;
+                else if (fieldType == short.class || fieldType == char.class) size += 2;
+                else if (fieldType == byte.class || fieldType == boolean.class) size += 1;
+                else size += 4;
+            }
+        }
+        return align(size);
+    }
+
+    /**
+     * Estimate size of array of references: 16 bytes of header and length, 4 bytes per element, aligned to 8 bytes
+     *
+     * @param length length of array
+     * @return size in bytes
+     */
+    private static long arraySize(int length) {
+        return align(16 + 4L * length);
+    }
+
+    /**
+     * Length of HashMap table after entries are put one by one with default capacity and load factor
+     *
+     * @param entries count of entries
+     * @return length of table
+     */
+    private static int hashMapCapacity(int entries) {
+        int capacity = 16;
+        while (entries > capacity * 3 / 4) capacity *= 2;
+        return capacity;
+    }
+
+    /**
+     * Round size up to object alignment
+     *
+     * @param size size in bytes
+     * @return aligned size
+     */
+    private static long align(long size) {
+        return (size + 7) / 8 * 8;
+    }
+}
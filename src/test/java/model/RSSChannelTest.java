@@ -11,6 +11,7 @@ import util.PubDateParser;
 
 import java.io.InvalidObjectException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -175,4 +176,50 @@ public class RSSChannelTest {
             assertNotEquals(PubDateParser.parse("Tue, 03 May 2016 11:46:11 +0200"), item.getLatestPubDate());
         }
     }
+
+    @Test
+    @DisplayName("Test RSSChannel keeps the newest RSS Items in order")
+    public void newestItemsOrderTest() throws InvalidObjectException {
+        FeedModel model = new FeedModel();
+        RSSConfiguration.getRawMandatoryChannelFields().forEach(field -> model.metaSource.put(field, "dummy " + field));
+
+        String[] pubDates = {
+                "Tue, 03 May 2016 11:46:11 +0200",
+                "Tue, 06 May 2016 11:46:11 +0200",
+                "Tue, 05 May 2016 11:46:11 +0200",
+                "Tue, 06 May 2016 11:46:11 +0200",
+                "Tue, 04 May 2016 11:46:11 +0200"
+        };
+        for (int i = 0; i < pubDates.length; i++) {
+            Map<String, String> itemSource = new HashMap<>();
+            RSSConfiguration.getRawMandatoryItemFields().forEach(field -> itemSource.put(field, "dummy " + field));
+            itemSource.put("title", "item " + i);
+            itemSource.put("pubdate", pubDates[i]);
+            model.itemSources.add(itemSource);
+        }
+
+        RSSConfiguration.getInstance().reconfig("dummy.rss", Arrays.asList("title", "pubdate"), null);
+        RSSConfiguration.getInstance().setFeedMaxItems("dummy.rss", 3);
+        RSSChannel channel = new RSSChannel(RSSConfiguration.getInstance(), "dummy.rss", model);
+        assertEquals(3, channel.getItems().size());
+        assertEquals("item 1", channel.getItems().get(0).getBody().get("title"));
+        assertEquals("item 3", channel.getItems().get(1).getBody().get("title"));
+        assertEquals("item 2", channel.getItems().get(2).getBody().get("title"));
+        assertEquals(PubDateParser.parse("Tue, 06 May 2016 11:46:11 +0200"), channel.getLatestPubDate());
+    }
+
+    @Test
+    @DisplayName("Test RSSChannel with unparsable PubDate of RSS Item")
+    public void initRSSChannelUnparsablePubDateTest() throws InvalidObjectException {
+        exception.expect(InvalidObjectException.class);
+        exception.expectMessage("RSS Item");
+
+        FeedModel model = new FeedModel();
+        RSSConfiguration.getRawMandatoryChannelFields().forEach(field -> model.metaSource.put(field, "dummy " + field));
+        Map<String, String> itemSource = new HashMap<>();
+        RSSConfiguration.getRawMandatoryItemFields().forEach(field -> itemSource.put(field, "dummy " + field));
+        itemSource.put("pubdate", "yesterday");
+        model.itemSources.add(itemSource);
+        new RSSChannel(RSSConfiguration.getInstance(), "dummy.rss", model);
+    }
 }
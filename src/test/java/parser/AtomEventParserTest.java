@@ -3,10 +3,9 @@ package parser;
 import org.junit.Test;
 import org.junit.jupiter.api.DisplayName;
 
-import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
-import javax.xml.stream.events.XMLEvent;
+import javax.xml.stream.XMLStreamReader;
 import java.io.File;
 import java.io.InputStream;
 
@@ -20,12 +19,11 @@ public class AtomEventParserTest {
         InputStream inputStream = RSSItemParserTest.class.getClassLoader().getResourceAsStream(file);
 
         XMLInputFactory inputFactory = XMLInputFactory.newInstance();
-        XMLEventReader eventReader = inputFactory.createXMLEventReader(inputStream);
-        // Skip first <xml> event
-        XMLEvent event = eventReader.nextEvent();
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream);
+        // Stay at start of document
 
-        new AtomEventParser().parse(event, eventReader);
-        eventReader.close();
+        new AtomEventParser().parse(reader);
+        reader.close();
     }
 
     @Test
@@ -35,17 +33,15 @@ public class AtomEventParserTest {
         InputStream inputStream = RSSItemParserTest.class.getClassLoader().getResourceAsStream(file);
 
         XMLInputFactory inputFactory = XMLInputFactory.newInstance();
-        XMLEventReader eventReader = inputFactory.createXMLEventReader(inputStream);
-        // Skip first <xml> event
-        eventReader.nextEvent();
-
-        XMLEvent event = eventReader.nextEvent();
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream);
+        // Move from start of document to the first tag
+        reader.next();
 
         String excpected = "self : http://atom.href";
 
-        assertEquals(excpected, new AtomEventParser().parse(event, eventReader));
+        assertEquals(excpected, new AtomEventParser().parse(reader));
 
-        eventReader.close();
+        reader.close();
     }
 
 }
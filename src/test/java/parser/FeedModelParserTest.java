@@ -6,6 +6,7 @@ import org.junit.jupiter.api.DisplayName;
 
 import java.io.File;
 import java.io.InputStream;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -48,6 +49,42 @@ public class FeedModelParserTest {
         assertModelIs(model, getRegularFeedModel());
     }
 
+    @Test
+    @DisplayName("Test for RSS Feed parsing with projection of fields")
+    public void parseRSSFeedWithProjectionTest() {
+        String file = "parser" + File.separator + "regularRss.xml";
+        InputStream inputStream = FeedModelParser.class.getClassLoader().getResourceAsStream(file);
+
+        FieldProjection projection = FieldProjection.of(Collections.singletonList("description"), Collections.emptyList());
+        FeedModel model = new FeedModelParser().parse(inputStream, projection);
+
+        FeedModel expectedModel = getRegularFeedModel();
+        // Item description is not projected, but title and pubDate are mandatory
+        expectedModel.itemSources.get(0).remove("description");
+        assertModelIs(model, expectedModel);
+        assertEquals(expectedModel.itemSources.get(0).size(), model.itemSources.get(0).size());
+    }
+
+    @Test
+    @DisplayName("Test for RSS Feed parsing without loading of its DTD")
+    public void parseRSSFeedWithDoctypeTest() {
+        String file = "parser" + File.separator + "rssWithDoctype.xml";
+        InputStream inputStream = FeedModelParser.class.getClassLoader().getResourceAsStream(file);
+
+        FeedModel model = new FeedModelParser().parse(inputStream);
+        assertModelIs(model, getRegularFeedModel());
+    }
+
+    @Test
+    @DisplayName("Test that entities declared in DTD are not expanded")
+    public void parseRSSFeedWithEntityTest() {
+        String file = "parser" + File.separator + "rssWithEntity.xml";
+        InputStream inputStream = FeedModelParser.class.getClassLoader().getResourceAsStream(file);
+
+        FeedModel model = new FeedModelParser().parse(inputStream);
+        assertTrue(model.metaSource.isEmpty());
+    }
+
     @Test
     @DisplayName("Test for ability to parse RSSFeed with sub tag")
     public void parseRSSFeedWithSubTagTest() {
@@ -127,15 +164,34 @@ public class FeedModelParserTest {
         InputStream inputStream = FeedModelParser.class.getClassLoader().getResourceAsStream(file);
 
         FeedModel expectedModel = new FeedModel();
-        expectedModel.metaSource.put("atom:title", "CHANNEL NAME");
-        expectedModel.metaSource.put("atom:summary", "CHANNEL DESCRIPTION");
+        expectedModel.metaSource.put("title", "CHANNEL NAME");
+        expectedModel.metaSource.put("description", "CHANNEL DESCRIPTION");
         Map<String, String> source = new HashMap<>();
-        source.put("atom:title", "NAME");
-        source.put("atom:content", "DESCRIPTION");
-        source.put("atom:published", "DATE");
+        source.put("title", "NAME");
+        source.put("description", "DESCRIPTION");
+        source.put("pubdate", "DATE");
         expectedModel.itemSources.add(source);
 
         FeedModel model = new FeedModelParser().parse(inputStream);
         assertModelIs(model, expectedModel);
     }
+
+    @Test
+    @DisplayName("Test for Atom RSS Feed with multiple entries parsing")
+    public void parseAtomRSSFeedMultipleEntriesTest() {
+        String file = "parser" + File.separator + "atomRssWithMultipleEntries.xml";
+        InputStream inputStream = FeedModelParser.class.getClassLoader().getResourceAsStream(file);
+
+        FeedModel expectedModel = new FeedModel();
+        expectedModel.metaSource.put("title", "CHANNEL NAME");
+        for (int i = 1; i <= 2; i++) {
+            Map<String, String> source = new HashMap<>();
+            source.put("title", "NAME " + i);
+            source.put("pubdate", "DATE " + i);
+            expectedModel.itemSources.add(source);
+        }
+
+        FeedModel model = new FeedModelParser().parse(inputStream);
+        assertEquals(expectedModel, model);
+    }
 }
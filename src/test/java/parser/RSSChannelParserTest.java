@@ -3,17 +3,19 @@ package parser;
 import model.FeedModel;
 import org.junit.Test;
 import org.junit.jupiter.api.DisplayName;
+import util.PubDateParser;
 
-import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
-import javax.xml.stream.events.XMLEvent;
+import javax.xml.stream.XMLStreamReader;
 import java.io.File;
 import java.io.InputStream;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class RSSChannelParserTest {
@@ -24,12 +26,11 @@ public class RSSChannelParserTest {
         InputStream inputStream = RSSChannelParserTest.class.getClassLoader().getResourceAsStream(file);
 
         XMLInputFactory inputFactory = XMLInputFactory.newInstance();
-        XMLEventReader eventReader = inputFactory.createXMLEventReader(inputStream);
-        // Skip first <xml> event
-        XMLEvent event = eventReader.nextEvent();
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream);
+        // Stay at start of document
 
-        new RSSItemParser().parse(event, eventReader);
-        eventReader.close();
+        new RSSItemParser().parse(reader);
+        reader.close();
     }
 
     @Test
@@ -39,11 +40,9 @@ public class RSSChannelParserTest {
         InputStream inputStream = RSSChannelParserTest.class.getClassLoader().getResourceAsStream(file);
 
         XMLInputFactory inputFactory = XMLInputFactory.newInstance();
-        XMLEventReader eventReader = inputFactory.createXMLEventReader(inputStream);
-        // Skip first <xml> event
-        eventReader.nextEvent();
-
-        XMLEvent event = eventReader.nextEvent();
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream);
+        // Move from start of document to the first tag
+        reader.next();
 
         FeedModel expectedModel  = new FeedModel();
         expectedModel.metaSource.put("title", "CHANNEL NAME");
@@ -53,7 +52,7 @@ public class RSSChannelParserTest {
         source.put("description", "DESCRIPTION");
         source.put("pubdate", "DATE");
         expectedModel.itemSources.add(source);
-        FeedModel model = new RSSChannelParser().parse(event, eventReader);
+        FeedModel model = new RSSChannelParser().parse(reader);
 
         assertEquals(expectedModel.metaSource.size(), model.metaSource.size());
         for (String key : expectedModel.metaSource.keySet()) {
@@ -61,7 +60,7 @@ public class RSSChannelParserTest {
         }
         assertEquals(expectedModel.itemSources.size(), model.itemSources.size());
 
-        eventReader.close();
+        reader.close();
     }
 
     @Test
@@ -71,17 +70,15 @@ public class RSSChannelParserTest {
         InputStream inputStream = RSSChannelParserTest.class.getClassLoader().getResourceAsStream(file);
 
         XMLInputFactory inputFactory = XMLInputFactory.newInstance();
-        XMLEventReader eventReader = inputFactory.createXMLEventReader(inputStream);
-        // Skip first <xml> event
-        eventReader.nextEvent();
-
-        XMLEvent event = eventReader.nextEvent();
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream);
+        // Move from start of document to the first tag
+        reader.next();
 
         FeedModel expectedModel  = new FeedModel();
         expectedModel.metaSource.put("title", "CHANNEL NAME");
         expectedModel.metaSource.put("description", "CHANNEL DESCRIPTION");
 
-        FeedModel model = new RSSChannelParser().parse(event, eventReader);
+        FeedModel model = new RSSChannelParser().parse(reader);
 
         assertEquals(expectedModel.metaSource.size(), model.metaSource.size());
         for (String key : expectedModel.metaSource.keySet()) {
@@ -89,7 +86,7 @@ public class RSSChannelParserTest {
         }
         assertEquals(expectedModel.itemSources.size(), model.itemSources.size());
 
-        eventReader.close();
+        reader.close();
     }
 
     @Test
@@ -99,11 +96,9 @@ public class RSSChannelParserTest {
         InputStream inputStream = RSSChannelParserTest.class.getClassLoader().getResourceAsStream(file);
 
         XMLInputFactory inputFactory = XMLInputFactory.newInstance();
-        XMLEventReader eventReader = inputFactory.createXMLEventReader(inputStream);
-        // Skip first <xml> event
-        eventReader.nextEvent();
-
-        XMLEvent event = eventReader.nextEvent();
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream);
+        // Move from start of document to the first tag
+        reader.next();
 
         FeedModel expectedModel  = new FeedModel();
         expectedModel.metaSource.put("title", "CHANNEL NAME");
@@ -114,7 +109,7 @@ public class RSSChannelParserTest {
         source.put("pubdate", "DATE");
         expectedModel.itemSources.add(source);
         expectedModel.itemSources.add(source);
-        FeedModel model = new RSSChannelParser().parse(event, eventReader);
+        FeedModel model = new RSSChannelParser().parse(reader);
 
         assertEquals(expectedModel.metaSource.size(), model.metaSource.size());
         for (String key : expectedModel.metaSource.keySet()) {
@@ -122,7 +117,7 @@ public class RSSChannelParserTest {
         }
         assertEquals(expectedModel.itemSources.size(), model.itemSources.size());
 
-        eventReader.close();
+        reader.close();
     }
 
     @Test
@@ -132,14 +127,12 @@ public class RSSChannelParserTest {
         InputStream inputStream = RSSChannelParserTest.class.getClassLoader().getResourceAsStream(file);
 
         XMLInputFactory inputFactory = XMLInputFactory.newInstance();
-        XMLEventReader eventReader = inputFactory.createXMLEventReader(inputStream);
-        // Skip first <xml> event
-        eventReader.nextEvent();
-
-        XMLEvent event = eventReader.nextEvent();
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream);
+        // Move from start of document to the first tag
+        reader.next();
 
-        new RSSChannelParser().parse(event, eventReader);
-        eventReader.close();
+        new RSSChannelParser().parse(reader);
+        reader.close();
     }
 
     @Test
@@ -149,14 +142,12 @@ public class RSSChannelParserTest {
         InputStream inputStream = RSSChannelParserTest.class.getClassLoader().getResourceAsStream(file);
 
         XMLInputFactory inputFactory = XMLInputFactory.newInstance();
-        XMLEventReader eventReader = inputFactory.createXMLEventReader(inputStream);
-        // Skip first <xml> event
-        eventReader.nextEvent();
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream);
+        // Move from start of document to the first tag
+        reader.next();
 
-        XMLEvent event = eventReader.nextEvent();
-
-        new RSSChannelParser().parse(event, eventReader);
-        eventReader.close();
+        new RSSChannelParser().parse(reader);
+        reader.close();
     }
 
     @Test
@@ -166,16 +157,14 @@ public class RSSChannelParserTest {
         InputStream inputStream = RSSChannelParserTest.class.getClassLoader().getResourceAsStream(file);
 
         XMLInputFactory inputFactory = XMLInputFactory.newInstance();
-        XMLEventReader eventReader = inputFactory.createXMLEventReader(inputStream);
-        // Skip first <xml> event
-        eventReader.nextEvent();
-
-        XMLEvent event = eventReader.nextEvent();
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream);
+        // Move from start of document to the first tag
+        reader.next();
 
-        FeedModel model = new RSSChannelParser().parse(event, eventReader);
+        FeedModel model = new RSSChannelParser().parse(reader);
         assertTrue(model.metaSource.isEmpty());
         assertTrue(model.itemSources.isEmpty());
-        eventReader.close();
+        reader.close();
     }
 
     @Test
@@ -185,21 +174,19 @@ public class RSSChannelParserTest {
         InputStream inputStream = RSSChannelParserTest.class.getClassLoader().getResourceAsStream(file);
 
         XMLInputFactory inputFactory = XMLInputFactory.newInstance();
-        XMLEventReader eventReader = inputFactory.createXMLEventReader(inputStream);
-        // Skip first <xml> event
-        eventReader.nextEvent();
-
-        XMLEvent event = eventReader.nextEvent();
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream);
+        // Move from start of document to the first tag
+        reader.next();
 
         FeedModel expectedModel  = new FeedModel();
-        expectedModel.metaSource.put("atom:title", "NAME");
-        expectedModel.metaSource.put("atom:link", "self : http://atom.href");
+        expectedModel.metaSource.put("title", "NAME");
+        expectedModel.metaSource.put("link", "self : http://atom.href");
         Map<String, String> source = new HashMap<>();
         source.put("title", "NAME");
         source.put("description", "DESCRIPTION");
         source.put("pubdate", "DATE");
         expectedModel.itemSources.add(source);
-        FeedModel model = new RSSChannelParser().parse(event, eventReader);
+        FeedModel model = new RSSChannelParser().parse(reader);
 
         assertEquals(expectedModel.metaSource.size(), model.metaSource.size());
         for (String key : expectedModel.metaSource.keySet()) {
@@ -207,6 +194,63 @@ public class RSSChannelParserTest {
         }
         assertEquals(expectedModel.itemSources.size(), model.itemSources.size());
 
-        eventReader.close();
+        reader.close();
+    }
+
+    private FeedModel parseWithCutoff(String file, ItemCutoff cutoff) throws XMLStreamException, IllegalAccessException {
+        InputStream inputStream = RSSChannelParserTest.class.getClassLoader().getResourceAsStream(file);
+
+        XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream);
+        // Move from start of document to the first tag
+        reader.next();
+
+        FeedModel model = new RSSChannelParser().parse(reader, FieldProjection.all(), cutoff);
+        reader.close();
+        return model;
+    }
+
+    @Test
+    @DisplayName("Test that reading of sorted items stops on item which is already read")
+    public void parseRSSChannelCutoffByPubDateTest() throws XMLStreamException, IllegalAccessException {
+        String file = "parser" + File.separator + "channelWithSortedItems.xml";
+        Date lastPubDate = PubDateParser.parse("Wed, 04 May 2016 11:46:11 EST");
+
+        ItemCutoff cutoff = new ItemCutoff(lastPubDate, 10);
+        FeedModel model = parseWithCutoff(file, cutoff);
+
+        assertTrue(cutoff.isSorted());
+        // The third item is not newer, the fourth one is skipped
+        assertEquals(3, model.itemSources.size());
+        // Channel fields after items are still read
+        assertEquals(2, model.metaSource.size());
+        assertEquals("CHANNEL DESCRIPTION", model.metaSource.get("description"));
+    }
+
+    @Test
+    @DisplayName("Test that reading of sorted items stops on max items")
+    public void parseRSSChannelCutoffByMaxItemsTest() throws XMLStreamException, IllegalAccessException {
+        String file = "parser" + File.separator + "channelWithSortedItems.xml";
+
+        ItemCutoff cutoff = new ItemCutoff(null, 2);
+        FeedModel model = parseWithCutoff(file, cutoff);
+
+        assertTrue(cutoff.isSorted());
+        assertEquals(2, model.itemSources.size());
+        assertEquals("CHANNEL DESCRIPTION", model.metaSource.get("description"));
+    }
+
+    @Test
+    @DisplayName("Test that all the unsorted items are read")
+    public void parseRSSChannelCutoffUnsortedTest() throws XMLStreamException, IllegalAccessException {
+        String file = "parser" + File.separator + "channelWithUnsortedItems.xml";
+        Date lastPubDate = PubDateParser.parse("Wed, 04 May 2016 11:46:11 EST");
+
+        ItemCutoff cutoff = new ItemCutoff(lastPubDate, 1);
+        FeedModel model = parseWithCutoff(file, cutoff);
+
+        assertFalse(cutoff.isSorted());
+        assertEquals(4, model.itemSources.size());
+        assertEquals(2, model.metaSource.size());
     }
 }
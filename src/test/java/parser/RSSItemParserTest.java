@@ -3,10 +3,9 @@ package parser;
 import org.junit.Test;
 import org.junit.jupiter.api.DisplayName;
 
-import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
-import javax.xml.stream.events.XMLEvent;
+import javax.xml.stream.XMLStreamReader;
 import java.io.File;
 import java.io.InputStream;
 import java.util.HashMap;
@@ -24,12 +23,11 @@ public class RSSItemParserTest {
         InputStream inputStream = RSSItemParserTest.class.getClassLoader().getResourceAsStream(file);
 
         XMLInputFactory inputFactory = XMLInputFactory.newInstance();
-        XMLEventReader eventReader = inputFactory.createXMLEventReader(inputStream);
-        // Skip first <xml> event
-        XMLEvent event = eventReader.nextEvent();
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream);
+        // Stay at start of document
 
-        new RSSItemParser().parse(event, eventReader);
-        eventReader.close();
+        new RSSItemParser().parse(reader);
+        reader.close();
     }
 
     @Test
@@ -39,24 +37,22 @@ public class RSSItemParserTest {
         InputStream inputStream = RSSItemParserTest.class.getClassLoader().getResourceAsStream(file);
 
         XMLInputFactory inputFactory = XMLInputFactory.newInstance();
-        XMLEventReader eventReader = inputFactory.createXMLEventReader(inputStream);
-        // Skip first <xml> event
-        eventReader.nextEvent();
-
-        XMLEvent event = eventReader.nextEvent();
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream);
+        // Move from start of document to the first tag
+        reader.next();
 
         Map<String, String> expectedModel = new HashMap<>();
         expectedModel.put("title", "NAME");
         expectedModel.put("description", "DESCRIPTION");
         expectedModel.put("pubdate", "DATE");
-        Map<String, String> model = new RSSItemParser().parse(event, eventReader);
+        Map<String, String> model = new RSSItemParser().parse(reader);
 
         assertEquals(expectedModel.size(), model.size());
         for (String key : expectedModel.keySet()) {
             assertEquals(expectedModel.get(key), model.get(key));
         }
 
-        eventReader.close();
+        reader.close();
     }
 
     @Test
@@ -66,14 +62,12 @@ public class RSSItemParserTest {
         InputStream inputStream = RSSItemParserTest.class.getClassLoader().getResourceAsStream(file);
 
         XMLInputFactory inputFactory = XMLInputFactory.newInstance();
-        XMLEventReader eventReader = inputFactory.createXMLEventReader(inputStream);
-        // Skip first <xml> event
-        eventReader.nextEvent();
-
-        XMLEvent event = eventReader.nextEvent();
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream);
+        // Move from start of document to the first tag
+        reader.next();
 
-        new RSSItemParser().parse(event, eventReader);
-        eventReader.close();
+        new RSSItemParser().parse(reader);
+        reader.close();
     }
 
     @Test
@@ -83,14 +77,12 @@ public class RSSItemParserTest {
         InputStream inputStream = RSSItemParserTest.class.getClassLoader().getResourceAsStream(file);
 
         XMLInputFactory inputFactory = XMLInputFactory.newInstance();
-        XMLEventReader eventReader = inputFactory.createXMLEventReader(inputStream);
-        // Skip first <xml> event
-        eventReader.nextEvent();
-
-        XMLEvent event = eventReader.nextEvent();
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream);
+        // Move from start of document to the first tag
+        reader.next();
 
-        new RSSItemParser().parse(event, eventReader);
-        eventReader.close();
+        new RSSItemParser().parse(reader);
+        reader.close();
     }
 
     @Test
@@ -100,15 +92,35 @@ public class RSSItemParserTest {
         InputStream inputStream = RSSItemParserTest.class.getClassLoader().getResourceAsStream(file);
 
         XMLInputFactory inputFactory = XMLInputFactory.newInstance();
-        XMLEventReader eventReader = inputFactory.createXMLEventReader(inputStream);
-        // Skip first <xml> event
-        eventReader.nextEvent();
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream);
+        // Move from start of document to the first tag
+        reader.next();
 
-        XMLEvent event = eventReader.nextEvent();
-
-        Map<String, String> model = new RSSItemParser().parse(event, eventReader);
+        Map<String, String> model = new RSSItemParser().parse(reader);
         assertTrue(model.isEmpty());
-        eventReader.close();
+        reader.close();
+    }
+
+    @Test
+    @DisplayName("Test for RSS fields winning over Atom ones in RSSItem")
+    public void parseAtomAndRSSItemTest() throws XMLStreamException, IllegalAccessException {
+        String file = "parser" + File.separator + "itemWithAtomAndRssFields.xml";
+        InputStream inputStream = RSSItemParserTest.class.getClassLoader().getResourceAsStream(file);
+
+        XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream);
+        // Move from start of document to the first tag
+        reader.next();
+
+        Map<String, String> expectedModel = new HashMap<>();
+        expectedModel.put("title", "NAME");
+        expectedModel.put("description", "DESCRIPTION");
+        expectedModel.put("pubdate", "UPDATED");
+        Map<String, String> model = new RSSItemParser().parse(reader);
+
+        assertEquals(expectedModel, model);
+
+        reader.close();
     }
 
     @Test
@@ -118,23 +130,21 @@ public class RSSItemParserTest {
         InputStream inputStream = RSSItemParserTest.class.getClassLoader().getResourceAsStream(file);
 
         XMLInputFactory inputFactory = XMLInputFactory.newInstance();
-        XMLEventReader eventReader = inputFactory.createXMLEventReader(inputStream);
-        // Skip first <xml> event
-        eventReader.nextEvent();
-
-        XMLEvent event = eventReader.nextEvent();
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream);
+        // Move from start of document to the first tag
+        reader.next();
 
         Map<String, String> expectedModel = new HashMap<>();
-        expectedModel.put("atom:title", "NAME");
-        expectedModel.put("atom:link", "self : http://atom.href");
-        Map<String, String> model = new RSSItemParser().parse(event, eventReader);
+        expectedModel.put("title", "NAME");
+        expectedModel.put("link", "self : http://atom.href");
+        Map<String, String> model = new RSSItemParser().parse(reader);
 
         assertEquals(expectedModel.size(), model.size());
         for (String key : expectedModel.keySet()) {
             assertEquals(expectedModel.get(key), model.get(key));
         }
 
-        eventReader.close();
+        reader.close();
     }
 
 }
@@ -0,0 +1,134 @@
+package poller;
+
+import config.DurabilityMode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+public class FeedFileWriterTest {
+
+    private Path path = new File("dummy.txt").toPath();
+    private PollStatistics statistics = PollStatistics.getInstance();
+    private FeedFileWriter writer;
+
+    @Before
+    public void setUp() {
+        statistics.reset();
+        writer = new FeedFileWriter(statistics);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        writer.close();
+        Files.deleteIfExists(path);
+        statistics.reset();
+    }
+
+    @Test
+    @DisplayName("Test file is opened once and appended with a write per batch")
+    public void appendTest() throws IOException {
+        writer.append(path, ByteBuffer.wrap("first\n".getBytes()));
+        writer.append(path, ByteBuffer.wrap("second\n".getBytes()));
+        assertEquals("first\nsecond\n", new String(Files.readAllBytes(path)));
+        assertEquals(1, statistics.getFilesOpened());
+        assertEquals(2, statistics.getFileWrites());
+        assertEquals(1, writer.getOpenFiles());
+    }
+
+    @Test
+    @DisplayName("Test idle file is closed and reopened on the next write")
+    public void closeIdleTest() throws IOException {
+        writer.append(path, ByteBuffer.wrap("first\n".getBytes()));
+        writer.closeIdle(Long.MAX_VALUE);
+        assertEquals(1, writer.getOpenFiles());
+
+        writer.closeIdle(0);
+        assertEquals(0, writer.getOpenFiles());
+
+        writer.append(path, ByteBuffer.wrap("second\n".getBytes()));
+        assertEquals("first\nsecond\n", new String(Files.readAllBytes(path)));
+        assertEquals(2, statistics.getFilesOpened());
+        assertEquals(1, writer.getOpenFiles());
+    }
+
+    @Test
+    @DisplayName("Test every file is closed after its own idle timeout")
+    public void closeIdlePerFileTest() throws IOException {
+        Path otherPath = new File("newdummy.txt").toPath();
+        try {
+            writer.append(path, ByteBuffer.wrap("first\n".getBytes()));
+            writer.append(otherPath, ByteBuffer.wrap("second\n".getBytes()));
+            writer.closeIdle(file -> file.equals(path) ? Long.MAX_VALUE : 0);
+            assertEquals(1, writer.getOpenFiles());
+
+            writer.append(path, ByteBuffer.wrap("third\n".getBytes()));
+            assertEquals(2, statistics.getFilesOpened());
+            assertEquals("first\nthird\n", new String(Files.readAllBytes(path)));
+        } finally {
+            writer.close();
+            Files.deleteIfExists(otherPath);
+        }
+    }
+
+    @Test
+    @DisplayName("Test appending to existing file")
+    public void appendExistingFileTest() throws IOException {
+        Files.write(path, "existing\n".getBytes());
+        writer.append(path, ByteBuffer.wrap("appended\n".getBytes()));
+        writer.close();
+        assertEquals("existing\nappended\n", new String(Files.readAllBytes(path)));
+        assertEquals(0, writer.getOpenFiles());
+    }
+
+    @Test
+    @DisplayName("Test files written during cycle are forced by a single commit")
+    public void cycleCommitTest() throws IOException {
+        Path otherPath = new File("newdummy.txt").toPath();
+        try {
+            writer.append(path, ByteBuffer.wrap("first\n".getBytes()), DurabilityMode.CYCLE);
+            writer.append(otherPath, ByteBuffer.wrap("second\n".getBytes()), DurabilityMode.CYCLE);
+            assertEquals(0, statistics.getCommits());
+
+            assertTrue(writer.commit());
+            assertEquals(1, statistics.getCommits());
+
+            writer.commit();
+            assertEquals(1, statistics.getCommits());
+        } finally {
+            writer.close();
+            Files.deleteIfExists(otherPath);
+        }
+    }
+
+    @Test
+    @DisplayName("Test file is forced right after feed is written")
+    public void feedCommitTest() throws IOException {
+        writer.append(path, ByteBuffer.wrap("first\n".getBytes()), DurabilityMode.FEED);
+        assertEquals(1, statistics.getCommits());
+        assertTrue(statistics.getMaxCommitLatency() >= statistics.getAverageCommitLatency());
+
+        writer.append(path, ByteBuffer.wrap("second\n".getBytes()), DurabilityMode.NONE);
+        writer.commit();
+        assertEquals(1, statistics.getCommits());
+    }
+
+    @Test
+    @DisplayName("Test dirty file is forced before it's closed as idle")
+    public void closeDirtyTest() throws IOException {
+        writer.append(path, ByteBuffer.wrap("first\n".getBytes()), DurabilityMode.CYCLE);
+        writer.closeIdle(0);
+        assertEquals(1, statistics.getCommits());
+        writer.commit();
+        assertEquals(1, statistics.getCommits());
+        assertEquals("first\n", new String(Files.readAllBytes(path)));
+    }
+}
@@ -0,0 +1,109 @@
+package poller;
+
+import config.DurabilityMode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class FeedOutputQueueTest {
+
+    private Path path = new File("dummy.txt").toPath();
+    private PollStatistics statistics = PollStatistics.getInstance();
+    private List<FeedRenderer> released = Collections.synchronizedList(new ArrayList<>());
+    private FeedOutputQueue queue;
+
+    private FeedRenderer render(String title) {
+        FeedRenderer renderer = new FeedRenderer();
+        renderer.append(Collections.singletonMap("title", title), key -> true, 0);
+        return renderer;
+    }
+
+    @Before
+    public void setUp() {
+        statistics.reset();
+        queue = new FeedOutputQueue(new FeedFileWriter(statistics), statistics, released::add, 2);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        queue.close();
+        Files.deleteIfExists(path);
+        statistics.reset();
+    }
+
+    @Test
+    @DisplayName("Test enqueued feeds are written in order and renderers are released")
+    public void enqueueDrainTest() throws IOException, InterruptedException {
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            FeedRenderer renderer = render("title " + i);
+            expected.append(renderer);
+            queue.enqueue(path, renderer, renderer.encode(), DurabilityMode.NONE);
+        }
+        assertTrue(queue.drain(10, TimeUnit.SECONDS));
+        assertEquals(expected.toString(), new String(Files.readAllBytes(path)));
+        assertEquals(10, released.size());
+        assertEquals(0, statistics.getQueueDepth());
+        assertTrue(statistics.getMaxQueueDepth() >= 1);
+        assertTrue(statistics.getFileWrites() <= 10);
+    }
+
+    @Test
+    @DisplayName("Test commit forces files after enqueued feeds are written")
+    public void commitTest() throws IOException, InterruptedException {
+        FeedRenderer renderer = render("title");
+        queue.enqueue(path, renderer, renderer.encode(), DurabilityMode.CYCLE);
+        queue.commit();
+        assertTrue(queue.drain(10, TimeUnit.SECONDS));
+        assertEquals(1, statistics.getCommits());
+    }
+
+    @Test
+    @DisplayName("Test close writes the rest of feeds and rejects new ones")
+    public void closeTest() throws IOException {
+        FeedRenderer renderer = render("title");
+        queue.enqueue(path, renderer, renderer.encode(), DurabilityMode.NONE);
+        queue.close();
+        assertEquals(renderer.toString(), new String(Files.readAllBytes(path)));
+
+        boolean thrown = false;
+        try {
+            queue.enqueue(path, renderer, renderer.encode(), DurabilityMode.NONE);
+        } catch (IOException e) {
+            thrown = true;
+        }
+        assertTrue(thrown);
+    }
+
+    @Test
+    @DisplayName("Test feed enqueued while queue is being closed fails instead of waiting forever")
+    public void closeRaceTest() throws IOException {
+        queue.close();
+        // Queue is closed after the batch passes the check of closed queue but before its task is added
+        PollStatistics closing = Mockito.spy(statistics);
+        Mockito.doAnswer(invocation -> {
+            queue.close();
+            return null;
+        }).when(closing).notifyQueued();
+        queue = new FeedOutputQueue(new FeedFileWriter(statistics), closing, released::add, 2);
+        FeedRenderer renderer = render("title");
+        CompletableFuture<Void> written = queue.enqueue(path, renderer, renderer.encode(), DurabilityMode.NONE);
+        assertTrue(written.isCompletedExceptionally());
+        assertEquals(Collections.singletonList(renderer), released);
+        assertFalse(path.toFile().exists());
+    }
+}
@@ -0,0 +1,60 @@
+package poller;
+
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+
+public class FeedRendererTest {
+
+    @Test
+    @DisplayName("Test renderer appends maps one after another and is reused after reset")
+    public void appendResetTest() {
+        Map<String, String> map = new TreeMap<>();
+        map.put("title", "dummy title");
+        map.put("link", "dummy link");
+        FeedRenderer renderer = new FeedRenderer();
+        renderer.append(map, Arrays.asList("title", "link")::contains, 0)
+                .append(map, "title"::equals, 1);
+        assertEquals("link:\n\tdummy link\ntitle:\n\tdummy title\n\n\ttitle:\n\t\tdummy title\n\n", renderer.toString());
+
+        renderer.reset().append(map, "link"::equals, 0);
+        assertEquals("link:\n\tdummy link\n\n", renderer.getText().toString());
+    }
+
+    @Test
+    @DisplayName("Test renderer indents deeper than precomputed prefixes")
+    public void deepIndentTest() {
+        Map<String, String> map = new TreeMap<>();
+        map.put("title", "dummy title");
+        String result = new FeedRenderer().append(map, key -> true, 4).toString();
+        assertEquals("\t\t\t\ttitle:\n\t\t\t\t\tdummy title\n\n", result);
+    }
+
+    @Test
+    @DisplayName("Test renderer encodes non-ASCII text to UTF-8 and grows byte buffer")
+    public void encodeTest() {
+        Map<String, String> map = new TreeMap<>();
+        map.put("title", "\u041f\u0440\u0438\u0432\u0435\u0442, \u043c\u0438\u0440 \u2014 \u00fcn\u00efc\u00f6d\u00e9 \u2713");
+        FeedRenderer renderer = new FeedRenderer();
+        renderer.append(map, key -> true, 0);
+        ByteBuffer bytes = renderer.encode();
+        assertEquals(renderer.toString(), StandardCharsets.UTF_8.decode(bytes).toString());
+
+        StringBuilder longTitle = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            longTitle.append("\u0416");
+        }
+        map.put("title", longTitle.toString());
+        renderer.reset().append(map, key -> true, 0);
+        bytes = renderer.encode();
+        assertEquals("title:\n\t".length() + 20000 + 2, bytes.remaining());
+        assertEquals(renderer.toString(), StandardCharsets.UTF_8.decode(bytes).toString());
+    }
+}
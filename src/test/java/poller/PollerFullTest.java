@@ -7,6 +7,7 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.jupiter.api.DisplayName;
+import org.mockito.Mockito;
 
 import java.io.File;
 import java.io.IOException;
@@ -174,4 +175,46 @@ public class PollerFullTest {
         poller.poll(RSSConfiguration.getInstance());
         assertEquals(readFromResource(resourceTXT), readFromFile());
     }
+
+    @Test
+    @DisplayName("Test that Poller doesn't handle RSS Feed which is not modified")
+    public void pollerConditionalGetCheck() throws IOException {
+        Poller poller = Mockito.spy(new Poller());
+        String feed = "http://localhost:8089/dummy.rss";
+
+        String resourceXML = "poller" + File.separator + "regularRss.xml";
+        String resourceTXT = "poller" + File.separator + "regularRss.txt";
+        stubFor(
+                get(
+                        urlEqualTo("/dummy.rss")
+                ).willReturn(
+                        aResponse()
+                                .withHeader("ETag", "\"v1\"")
+                                .withHeader("Last-Modified", "Sun, 19 May 2019 10:00:00 GMT")
+                                .withBody(readFromResource(resourceXML))
+                )
+        );
+        poller.poll(RSSConfiguration.getInstance());
+        assertEquals(readFromResource(resourceTXT), readFromFile());
+        assertEquals("\"v1\"", RSSConfiguration.getInstance().getRSSFeedETag(feed));
+        assertEquals("Sun, 19 May 2019 10:00:00 GMT", RSSConfiguration.getInstance().getRSSFeedLastModified(feed));
+
+        stubFor(
+                get(
+                        urlEqualTo("/dummy.rss")
+                ).withHeader(
+                        "If-None-Match", equalTo("\"v1\"")
+                ).withHeader(
+                        "If-Modified-Since", equalTo("Sun, 19 May 2019 10:00:00 GMT")
+                ).willReturn(
+                        aResponse()
+                                .withStatus(304)
+                )
+        );
+        poller.poll(RSSConfiguration.getInstance());
+        assertEquals(readFromResource(resourceTXT), readFromFile());
+        assertEquals("\"v1\"", RSSConfiguration.getInstance().getRSSFeedETag(feed));
+        Mockito.verify(poller, Mockito.times(1))
+                .handleRSSFeed(Mockito.any(InputStream.class), Mockito.eq(feed), PollerTest.stateOf(file));
+    }
 }
@@ -1,21 +1,30 @@
 package poller;
 
+import config.FeedState;
+import config.PollMode;
 import config.RSSConfiguration;
 import model.FeedModel;
 import model.RSSChannel;
 import org.junit.After;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.jupiter.api.DisplayName;
+import org.mockito.ArgumentMatcher;
 import org.mockito.Mockito;
 import util.PubDateParser;
+import util.VirtualThreads;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
 
@@ -37,6 +46,25 @@ public class PollerTest {
         return model;
     }
 
+    private FeedState getFeedState() {
+        return RSSConfiguration.getInstance().getSnapshot().getFeedState("dummy.rss");
+    }
+
+    /**
+     * Match state of feed which is written to the file
+     *
+     * @param file path to output file
+     * @return null, matcher is registered by Mockito
+     */
+    static FeedState stateOf(String file) {
+        return Mockito.argThat(new ArgumentMatcher<FeedState>() {
+            @Override
+            public boolean matches(Object state) {
+                return state instanceof FeedState && file.equals(((FeedState) state).getFile());
+            }
+        });
+    }
+
     private void deleteFile() {
         File f = new File(file);
         f.delete();
@@ -160,10 +188,47 @@ public class PollerTest {
         Path path = new File(file).toPath();
         FeedModel model = getRegularFeedModel();
         RSSChannel channel = new RSSChannel(RSSConfiguration.getInstance(), "dummy.rss", model);
-        poller.printRSSFeedToFile(channel, "dummy.rss", path);
+        poller.printRSSFeedToFile(channel, getFeedState(), path);
+        poller.drainOutput(RSSConfiguration.getInstance());
         assertEquals(readFromResource(resource), readFromFile());
     }
 
+    @Test
+    @DisplayName("Test to make sure poller appends RSSChannel with a single write")
+    public void printRSSFeedToFileSingleWriteTest() throws IOException {
+        Poller poller = new Poller();
+        Path path = new File(file).toPath();
+        FeedModel model = getRegularFeedModel();
+        Map<String, String> itemSource = new HashMap<>(model.itemSources.get(0));
+        itemSource.put("pubdate", "Tue, 04 May 2016 11:46:11 EST");
+        model.itemSources.add(itemSource);
+        RSSChannel channel = new RSSChannel(RSSConfiguration.getInstance(), "dummy.rss", model);
+        PollStatistics statistics = PollStatistics.getInstance();
+        statistics.reset();
+
+        poller.printRSSFeedToFile(channel, getFeedState(), path);
+        poller.drainOutput(RSSConfiguration.getInstance());
+        poller.printRSSFeedToFile(channel, getFeedState(), path);
+        poller.drainOutput(RSSConfiguration.getInstance());
+        assertEquals(2, statistics.getFileWrites());
+        assertEquals(1, statistics.getFilesOpened());
+        statistics.reset();
+    }
+
+    @Test
+    @DisplayName("Test to make sure poller prints non-ASCII RSSChannel in UTF-8")
+    public void printRSSFeedToFileUTF8Test() throws IOException {
+        Poller poller = new Poller();
+        Path path = new File(file).toPath();
+        FeedModel model = getRegularFeedModel();
+        model.metaSource.put("title", "\u041d\u043e\u0432\u043e\u0441\u0442\u0438 \u2014 \u00fcn\u00efc\u00f6d\u00e9");
+        RSSChannel channel = new RSSChannel(RSSConfiguration.getInstance(), "dummy.rss", model);
+        poller.printRSSFeedToFile(channel, getFeedState(), path);
+        poller.drainOutput(RSSConfiguration.getInstance());
+        String written = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        assertTrue(written.contains("title:\n\t\u041d\u043e\u0432\u043e\u0441\u0442\u0438 \u2014 \u00fcn\u00efc\u00f6d\u00e9\n"));
+    }
+
     @Test
     @DisplayName("Test to make sure poller can print RSSChannel properly in time")
     public void printRSSFeedToFileInTimeTest() throws IOException {
@@ -172,7 +237,8 @@ public class PollerTest {
         Path path = new File(file).toPath();
         FeedModel model = getRegularFeedModel();
         RSSChannel channel = new RSSChannel(RSSConfiguration.getInstance(), "dummy.rss", model);
-        poller.printRSSFeedToFile(channel, "dummy.rss", path);
+        poller.printRSSFeedToFile(channel, getFeedState(), path);
+        poller.drainOutput(RSSConfiguration.getInstance());
         // Manually notify since it's not responsibility of poller.printRSSFeedToFile
         RSSConfiguration.getInstance().notifyFeedRead("dummy.rss", PubDateParser.parse("Tue, 03 May 2016 11:46:11 EST"));
         assertEquals(readFromResource(resource), readFromFile());
@@ -184,28 +250,33 @@ public class PollerTest {
         model.itemSources.add(itemSource);
         resource = "poller" + File.separator + "secondRegularRss.txt";
         channel = new RSSChannel(RSSConfiguration.getInstance(), "dummy.rss", model);
-        poller.printRSSFeedToFile(channel, "dummy.rss", path);
+        poller.printRSSFeedToFile(channel, getFeedState(), path);
+        poller.drainOutput(RSSConfiguration.getInstance());
         // Manually notify since it's not responsibility of poller.printRSSFeedToFile
         RSSConfiguration.getInstance().notifyFeedRead("dummy.rss", PubDateParser.parse("Tue, 04 May 2016 11:46:11 EST"));
         assertEquals(readFromResource(resource), readFromFile());
 
         model.itemSources.add(model.itemSources.get(0));
         channel = new RSSChannel(RSSConfiguration.getInstance(), "dummy.rss", model);
-        poller.printRSSFeedToFile(channel, "dummy.rss", path);
+        poller.printRSSFeedToFile(channel, getFeedState(), path);
+        poller.drainOutput(RSSConfiguration.getInstance());
         // Manually notify since it's not responsibility of poller.printRSSFeedToFile
         // No need since new feed is older than previous
         assertEquals(readFromResource(resource), readFromFile());
     }
 
-    @Test(expected = IllegalArgumentException.class)
+    @Test
     @DisplayName("Test to make sure poller can handle RSSFeed removal")
     public void printRSSFeedToFileNoRSSFeedTest() throws IOException {
+        String resource = "poller" + File.separator + "regularRss.xml";
+        InputStream in = PollerTest.class.getClassLoader().getResourceAsStream(resource);
         Poller poller = new Poller();
-        FeedModel model = getRegularFeedModel();
-        RSSChannel channel = new RSSChannel(RSSConfiguration.getInstance(), "dummy.rss", model);
+        FeedState state = getFeedState();
         RSSConfiguration.getInstance().delRSSFeed("dummy.rss");
-        Path path = new File(file).toPath();
-        poller.printRSSFeedToFile(channel, "dummy.rss", path);
+        // Feed which is removed during poll is finished with the state it's dispatched with
+        assertEquals(PubDateParser.parse("Tue, 03 May 2016 11:46:11 EST"), poller.handleRSSFeed(in, "dummy.rss", state).join());
+        poller.drainOutput(RSSConfiguration.getInstance());
+        assertNull(RSSConfiguration.getInstance().getSnapshot().getFeedStates().get("dummy.rss"));
     }
 
     @Test
@@ -216,7 +287,7 @@ public class PollerTest {
         model.itemSources = new ArrayList<>();
         RSSChannel channel = new RSSChannel(RSSConfiguration.getInstance(), "dummy.rss", model);
         Path path = new File(file).toPath();
-        poller.printRSSFeedToFile(channel, "dummy.rss", path);
+        poller.printRSSFeedToFile(channel, getFeedState(), path);
         assertFalse(new File(file).exists());
     }
 
@@ -227,15 +298,178 @@ public class PollerTest {
         InputStream in = PollerTest.class.getClassLoader().getResourceAsStream(resource);
 
         Poller poller = Mockito.spy(new Poller());
-        Mockito.doNothing().when(poller).printRSSFeedToFile(Mockito.any(RSSChannel.class), Mockito.eq("dummy.rss"), Mockito.any(Path.class));
-        assertEquals(PubDateParser.parse("Tue, 03 May 2016 11:46:11 EST"), poller.handleRSSFeed(in, "dummy.rss", file));
+        Mockito.doReturn(CompletableFuture.completedFuture(null)).when(poller).printRSSFeedToFile(Mockito.any(RSSChannel.class), Mockito.any(FeedState.class), Mockito.any(Path.class));
+        assertEquals(PubDateParser.parse("Tue, 03 May 2016 11:46:11 EST"), poller.handleRSSFeed(in, "dummy.rss", getFeedState()).join());
+    }
+
+    @Test
+    @DisplayName("Test if poller waits for all the feeds of the cycle")
+    public void pollCycleTest() throws IOException {
+        RSSConfiguration.getInstance().addRSSFeed("newdummy.rss", "newdummy.txt");
+        try {
+            Poller poller = Mockito.spy(new Poller());
+            Mockito.doReturn(new FeedResponse(new ByteArrayInputStream(new byte[0]), null, null))
+                .when(poller).fetch(Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
+            Mockito.doReturn(CompletableFuture.completedFuture(null)).when(poller).handleRSSFeed(Mockito.any(InputStream.class), Mockito.anyString(), Mockito.any(FeedState.class));
+            poller.poll(RSSConfiguration.getInstance());
+            Mockito.verify(poller, Mockito.times(1)).handleRSSFeed(Mockito.any(InputStream.class), Mockito.eq("dummy.rss"), stateOf("dummy.txt"));
+            Mockito.verify(poller, Mockito.times(1)).handleRSSFeed(Mockito.any(InputStream.class), Mockito.eq("newdummy.rss"), stateOf("newdummy.txt"));
+        } finally {
+            RSSConfiguration.getInstance().delRSSFeed("newdummy.rss");
+        }
+    }
+
+    @Test
+    @DisplayName("Test if poller polls on virtual threads")
+    public void pollCycleVirtualTest() throws IOException {
+        Assume.assumeTrue(VirtualThreads.isSupported());
+        RSSConfiguration.getInstance().setPollMode(PollMode.VIRTUAL);
+        try {
+            Poller poller = Mockito.spy(new Poller());
+            Mockito.doReturn(new FeedResponse(new ByteArrayInputStream(new byte[0]), null, null))
+                .when(poller).fetch(Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
+            Mockito.doReturn(CompletableFuture.completedFuture(null)).when(poller).handleRSSFeed(Mockito.any(InputStream.class), Mockito.anyString(), Mockito.any(FeedState.class));
+            poller.poll(RSSConfiguration.getInstance());
+            Mockito.verify(poller, Mockito.times(1)).handleRSSFeed(Mockito.any(InputStream.class), Mockito.eq("dummy.rss"), stateOf("dummy.txt"));
+        } finally {
+            RSSConfiguration.getInstance().setPollMode(PollMode.PLATFORM);
+        }
+    }
+
+    @Test
+    @DisplayName("Test if scheduler polls feeds when they are due")
+    public void scheduleTest() throws IOException, InterruptedException {
+        Poller poller = Mockito.spy(new Poller());
+        Mockito.doReturn(new FeedResponse(new ByteArrayInputStream(new byte[0]), null, null))
+                .when(poller).fetch(Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
+        Mockito.doReturn(CompletableFuture.completedFuture(null)).when(poller).handleRSSFeed(Mockito.any(InputStream.class), Mockito.anyString(), Mockito.any(FeedState.class));
+        Thread pollingThread = new Thread(poller, "Poller");
+        pollingThread.start();
+        try {
+            // Feed is due immediately after start
+            Mockito.verify(poller, Mockito.timeout(5000).times(1)).handleRSSFeed(Mockito.any(InputStream.class), Mockito.eq("dummy.rss"), stateOf("dummy.txt"));
+            // New feed wakes scheduler up and is due immediately as well
+            RSSConfiguration.getInstance().addRSSFeed("newdummy.rss", "newdummy.txt");
+            Mockito.verify(poller, Mockito.timeout(5000).times(1)).handleRSSFeed(Mockito.any(InputStream.class), Mockito.eq("newdummy.rss"), stateOf("newdummy.txt"));
+            // Nothing else is due before poll interval passes
+            TimeUnit.SECONDS.sleep(1);
+            Mockito.verify(poller, Mockito.times(2)).handleRSSFeed(Mockito.any(InputStream.class), Mockito.anyString(), Mockito.any(FeedState.class));
+        } finally {
+            poller.stop();
+            pollingThread.join();
+            RSSConfiguration.getInstance().delRSSFeed("newdummy.rss");
+        }
+    }
+
+    @Test
+    @DisplayName("Test if scheduler commits files only after the feeds due at the same time are written")
+    public void scheduleCommitTest() throws IOException, InterruptedException {
+        Poller poller = Mockito.spy(new Poller());
+        CompletableFuture<Date> written = new CompletableFuture<>();
+        Mockito.doReturn(new FeedResponse(new ByteArrayInputStream(new byte[0]), null, null))
+                .when(poller).fetch(Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
+        Mockito.doReturn(written).when(poller).handleRSSFeed(Mockito.any(InputStream.class), Mockito.anyString(), Mockito.any(FeedState.class));
+        Thread pollingThread = new Thread(poller, "Poller");
+        pollingThread.start();
+        try {
+            Mockito.verify(poller, Mockito.timeout(5000).times(1)).handleRSSFeed(Mockito.any(InputStream.class), Mockito.eq("dummy.rss"), stateOf("dummy.txt"));
+            TimeUnit.MILLISECONDS.sleep(200);
+            Mockito.verify(poller, Mockito.never()).commitFiles();
+            written.complete(null);
+            Mockito.verify(poller, Mockito.timeout(5000).times(1)).commitFiles();
+        } finally {
+            poller.stop();
+            pollingThread.join();
+        }
+    }
+
+    @Test
+    @DisplayName("Test if Poller skips body which is the same as last time")
+    public void contentHashTest() throws IOException {
+        Poller poller = Mockito.spy(new Poller());
+        byte[][] body = {"first".getBytes()};
+        Mockito.doAnswer(invocation -> new FeedResponse(new ByteArrayInputStream(body[0]), null, null))
+                .when(poller).fetch(Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
+        Mockito.doReturn(CompletableFuture.completedFuture(new Date(1000000L))).when(poller).handleRSSFeed(Mockito.any(InputStream.class), Mockito.anyString(), Mockito.any(FeedState.class));
+        PollStatistics statistics = PollStatistics.getInstance();
+        statistics.reset();
+
+        poller.poll(RSSConfiguration.getInstance());
+        poller.poll(RSSConfiguration.getInstance());
+        Mockito.verify(poller, Mockito.times(1)).handleRSSFeed(Mockito.any(InputStream.class), Mockito.eq("dummy.rss"), stateOf("dummy.txt"));
+        assertEquals(2, statistics.getFetched());
+        assertEquals(1, statistics.getUnchanged());
+        assertEquals(0.5, statistics.getHashSkipRatio(), 0.0001);
+
+        body[0] = "second".getBytes();
+        poller.poll(RSSConfiguration.getInstance());
+        Mockito.verify(poller, Mockito.times(2)).handleRSSFeed(Mockito.any(InputStream.class), Mockito.eq("dummy.rss"), stateOf("dummy.txt"));
+        assertEquals(3, statistics.getFetched());
+        assertEquals(1, statistics.getUnchanged());
+        statistics.reset();
+    }
+
+    @Test
+    @DisplayName("Test if Poller reads items again when they couldn't be written last time")
+    public void failedWriteTest() throws IOException {
+        File directory = new File("missing");
+        File missingFile = new File(directory, "dummy.txt");
+        RSSConfiguration configuration = RSSConfiguration.getInstance();
+        configuration.delRSSFeed("dummy.rss");
+        configuration.addRSSFeed("dummy.rss", missingFile.getPath());
+        String resource = "poller" + File.separator + "regularRss.xml";
+        Poller poller = Mockito.spy(new Poller());
+        Mockito.doAnswer(invocation -> new FeedResponse(
+                PollerTest.class.getClassLoader().getResourceAsStream(resource), "\"v1\"", null
+        )).when(poller).fetch(Mockito.anyString(), Mockito.any(), Mockito.any());
+        try {
+            // File can't be opened, so neither pubDate nor validators are remembered
+            poller.poll(configuration);
+            assertFalse(missingFile.exists());
+            assertNull(configuration.getRSSFeedLastPubDate("dummy.rss"));
+            assertNull(configuration.getRSSFeedETag("dummy.rss"));
+            assertNull(configuration.getRSSFeedContentHash("dummy.rss"));
+
+            assertTrue(directory.mkdir());
+            poller.poll(configuration);
+            assertTrue(new String(Files.readAllBytes(missingFile.toPath()), StandardCharsets.UTF_8).contains("dummy title"));
+            assertEquals(PubDateParser.parse("Tue, 03 May 2016 11:46:11 EST"), configuration.getRSSFeedLastPubDate("dummy.rss"));
+            assertEquals("\"v1\"", configuration.getRSSFeedETag("dummy.rss"));
+            Mockito.verify(poller, Mockito.times(2)).handleRSSFeed(Mockito.any(InputStream.class), Mockito.eq("dummy.rss"), Mockito.any(FeedState.class));
+        } finally {
+            poller.shutdownNow();
+            missingFile.delete();
+            directory.delete();
+        }
+    }
+
+    @Test
+    @DisplayName("Test if Poller doesn't pass results of removed feed to the feed added again with the same link")
+    public void readdedFeedTest() throws IOException {
+        RSSConfiguration configuration = RSSConfiguration.getInstance();
+        String resource = "poller" + File.separator + "regularRss.xml";
+        Poller poller = Mockito.spy(new Poller());
+        Mockito.doAnswer(invocation -> {
+            // User removes feed and adds it again while it's polled
+            configuration.delRSSFeed("dummy.rss");
+            configuration.addRSSFeed("dummy.rss", file);
+            return new FeedResponse(PollerTest.class.getClassLoader().getResourceAsStream(resource), "\"v1\"", null);
+        }).when(poller).fetch(Mockito.anyString(), Mockito.any(), Mockito.any());
+        try {
+            poller.poll(configuration);
+            assertNull(configuration.getRSSFeedLastPubDate("dummy.rss"));
+            assertNull(configuration.getRSSFeedETag("dummy.rss"));
+            assertNull(configuration.getRSSFeedContentHash("dummy.rss"));
+        } finally {
+            poller.shutdownNow();
+        }
     }
 
     @Test
     @DisplayName("Test if Poller can handle invalid URLs")
     public void pollTestBadURL() {
         Poller poller = Mockito.spy(new Poller());
-        Mockito.doReturn(null).when(poller).handleRSSFeed(Mockito.any(InputStream.class), Mockito.eq("dummy.rss"), Mockito.eq("dummy.txt"));
+        Mockito.doReturn(CompletableFuture.completedFuture(null)).when(poller).handleRSSFeed(Mockito.any(InputStream.class), Mockito.eq("dummy.rss"), stateOf("dummy.txt"));
         poller.poll(RSSConfiguration.getInstance());
     }
 }
@@ -0,0 +1,72 @@
+package util;
+
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.Assert.assertEquals;
+
+public class PubDateFormatCacheTest {
+
+    @Test
+    @DisplayName("Test learned layout gets hits")
+    public void hitsTest() {
+        PubDateFormatCache dateFormat = new PubDateFormatCache();
+        assertEquals(PubDateParser.parseMillis("Tue, 03 May 2016 11:46:11 +0200"),
+                dateFormat.parseMillis("Tue, 03 May 2016 11:46:11 +0200"));
+        assertEquals(PubDateParser.parseMillis("Wed, 04 May 2016 11:46:11 GMT"),
+                dateFormat.parseMillis("Wed, 04 May 2016 11:46:11 GMT"));
+        assertEquals(2, dateFormat.getHits());
+        assertEquals(0, dateFormat.getMisses());
+    }
+
+    @Test
+    @DisplayName("Test layout is promoted after miss")
+    public void promotionTest() {
+        PubDateFormatCache dateFormat = new PubDateFormatCache();
+        assertEquals(PubDateParser.parseMillis("2016-05-03T11:46:11Z"), dateFormat.parseMillis("2016-05-03T11:46:11Z"));
+        assertEquals(0, dateFormat.getHits());
+        assertEquals(1, dateFormat.getMisses());
+
+        assertEquals(PubDateParser.parseMillis("2016-05-04T11:46:11Z"), dateFormat.parseMillis("2016-05-04T11:46:11Z"));
+        assertEquals(1, dateFormat.getHits());
+        assertEquals(1, dateFormat.getMisses());
+
+        assertEquals(PubDateParser.parseMillis("Tue, 03 May 2016 11:46:11 +0200"),
+                dateFormat.parseMillis("Tue, 03 May 2016 11:46:11 +0200"));
+        assertEquals(PubDateParser.parseMillis("Tue, 03 May 2016 11:46:11 +0200"),
+                dateFormat.parseMillis("Tue, 03 May 2016 11:46:11 +0200"));
+        assertEquals(2, dateFormat.getHits());
+        assertEquals(2, dateFormat.getMisses());
+    }
+
+    @Test
+    @DisplayName("Test java.time layout is not promoted ahead of hand-written ones")
+    public void fallbackPromotionTest() {
+        PubDateFormatCache dateFormat = new PubDateFormatCache();
+        String[] dates = {
+                "Tue, 03 May 2016 11:46:11 Europe/Paris",
+                "Tue, 03 May 2016 11:46:11 EST",
+                "Tue, 03 May 2016 11:46:11 Europe/Paris",
+                "Wed, 04 May 2016 11:46:11 BST",
+                "2016-05-03T11:46:11+02:00[Europe/Paris]",
+                "Thu, 05 May 2016 11:46:11 PST",
+                "2016-05-06T11:46:11Z"
+        };
+        for (String date : dates) {
+            assertEquals(date, PubDateParser.parseMillis(date), dateFormat.parseMillis(date));
+        }
+        // Dates which only java.time layouts parse are always misses, hand-written layouts stay in front
+        assertEquals(3, dateFormat.getHits());
+        assertEquals(4, dateFormat.getMisses());
+    }
+
+    @Test
+    @DisplayName("Test invalid date is a miss")
+    public void invalidTest() {
+        PubDateFormatCache dateFormat = new PubDateFormatCache();
+        assertEquals(PubDateParser.INVALID, dateFormat.parseMillis("dummy"));
+        assertEquals(PubDateParser.INVALID, dateFormat.parseMillis(null));
+        assertEquals(0, dateFormat.getHits());
+        assertEquals(1, dateFormat.getMisses());
+    }
+}
@@ -3,10 +3,33 @@ package util;
 import org.junit.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
 import static org.junit.Assert.*;
 
 public class PubDateParserTest {
 
+    /**
+     * Layouts PubDateParser used to try with SimpleDateFormat, kept as the reference
+     */
+    private static final String[] legacyLayouts = {
+            "EEE, dd MMM yyyy HH:mm:ss zzz",
+            "EEE, dd MMM yyyy HH:mm zzz",
+            "EEE MMM dd HH:mm:ss yyyy zzz",
+            "EEE MMM dd HH:mm yyyy zzz",
+            "EEE MMM dd HH:mm:ss zzz yyyy",
+            "EEE MMM dd HH:mm zzz yyyy"
+    };
+
     @Test
     @DisplayName("Test abilities of pubDate parser")
     public void pubDateParserTest() {
@@ -30,4 +53,86 @@ public class PubDateParserTest {
 
         assertNull(PubDateParser.parse("dummy"));
     }
+
+    @Test
+    @DisplayName("Test pubDate parser against SimpleDateFormat on corpus")
+    public void pubDateCorpusTest() throws IOException {
+        for (String pubDate : readCorpus("pubDates.txt")) {
+            Date expected = legacyParse(pubDate);
+            assertNotNull(pubDate, PubDateParser.parse(pubDate));
+            if (expected != null) {
+                assertEquals(pubDate, expected, PubDateParser.parse(pubDate));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test pubDate parser against java.time on RFC 3339 corpus")
+    public void rfc3339CorpusTest() throws IOException {
+        for (String pubDate : readCorpus("rfc3339Dates.txt")) {
+            long expected = OffsetDateTime.parse(pubDate.toUpperCase()).toInstant().toEpochMilli();
+            assertEquals(pubDate, expected, PubDateParser.parseMillis(pubDate));
+        }
+    }
+
+    @Test
+    @DisplayName("Test pubDate parser against SimpleDateFormat on generated dates")
+    public void pubDateGeneratedTest() {
+        Random random = new Random(42);
+        String[] zones = {"GMT", "EST", "EDT", "PST", "PDT", "+0000", "+0200", "-0530", "+1245"};
+        for (int i = 0; i < 1000; i++) {
+            Date date = new Date(random.nextLong() % 4000000000000L);
+            String layout = legacyLayouts[random.nextInt(legacyLayouts.length)];
+            String zone = zones[random.nextInt(zones.length)];
+            SimpleDateFormat format = new SimpleDateFormat(layout.replace("zzz", "'" + zone + "'"), Locale.US);
+            String pubDate = format.format(date);
+            assertEquals(pubDate, legacyParse(pubDate), PubDateParser.parse(pubDate));
+        }
+    }
+
+    @Test
+    @DisplayName("Test pubDate parser with invalid pubDates")
+    public void invalidPubDateTest() {
+        assertEquals(PubDateParser.INVALID, PubDateParser.parseMillis(null));
+        assertEquals(PubDateParser.INVALID, PubDateParser.parseMillis(""));
+        assertEquals(PubDateParser.INVALID, PubDateParser.parseMillis("Tue, 03 May 2016"));
+        assertEquals(PubDateParser.INVALID, PubDateParser.parseMillis("Tue, 03 Mai 2016 11:46:11 +0200"));
+        assertEquals(PubDateParser.INVALID, PubDateParser.parseMillis("Tue, 03 May 2016 25:46:11 +0200"));
+        assertEquals(PubDateParser.INVALID, PubDateParser.parseMillis("Tue, 03 May 2016 11:46:11"));
+        assertEquals(PubDateParser.INVALID, PubDateParser.parseMillis("Tue, 03 May 2016 11:46:11 XYZ"));
+        assertEquals(PubDateParser.INVALID, PubDateParser.parseMillis("2016-05-03T11:46:11"));
+        assertEquals(PubDateParser.INVALID, PubDateParser.parseMillis("2016-13-03T11:46:11Z"));
+    }
+
+    /**
+     * Read non-comment lines of corpus from test resources
+     *
+     * @param name resource name
+     * @return corpus lines
+     * @throws IOException in case of issues with reading
+     */
+    private List<String> readCorpus(String name) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                getClass().getResourceAsStream(name), StandardCharsets.UTF_8))) {
+            return reader.lines()
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Parse pubDate the way PubDateParser used to
+     *
+     * @param pubDate String representation of pubDate
+     * @return Date representation of pubDate or null
+     */
+    private static Date legacyParse(String pubDate) {
+        for (String layout : legacyLayouts) {
+            DateFormat formatter = new SimpleDateFormat(layout, Locale.US);
+            try {
+                return formatter.parse(pubDate);
+            } catch (ParseException ignored) {}
+        }
+        return null;
+    }
 }
@@ -3,10 +3,9 @@ package util;
 import org.junit.Test;
 import org.junit.jupiter.api.DisplayName;
 
-import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
-import javax.xml.stream.events.XMLEvent;
+import javax.xml.stream.XMLStreamReader;
 import java.io.File;
 import java.io.InputStream;
 
@@ -21,15 +20,13 @@ public class XMLEventCharactersReaderTest {
         InputStream inputStream = XMLEventCharactersReaderTest.class.getClassLoader().getResourceAsStream(file);
 
         XMLInputFactory inputFactory = XMLInputFactory.newInstance();
-        XMLEventReader eventReader = inputFactory.createXMLEventReader(inputStream);
-        // Skip first <xml> event
-        eventReader.nextEvent();
-
-        XMLEvent event = eventReader.nextEvent();
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream);
+        // Move from start of document to the first tag
+        reader.next();
         String expected = "NASA";
-        assertEquals(expected, XMLEventCharactersReader.getCharacterData(event, eventReader));
+        assertEquals(expected, XMLEventCharactersReader.getCharacterData(reader));
 
-        eventReader.close();
+        reader.close();
     }
 
     @Test
@@ -39,18 +36,33 @@ public class XMLEventCharactersReaderTest {
         InputStream inputStream = XMLEventCharactersReaderTest.class.getClassLoader().getResourceAsStream(file);
 
         XMLInputFactory inputFactory = XMLInputFactory.newInstance();
-        XMLEventReader eventReader = inputFactory.createXMLEventReader(inputStream);
-        // Skip first <xml> event
-        eventReader.nextEvent();
-
-        XMLEvent event = eventReader.nextEvent();
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream);
+        // Move from start of document to the first tag
+        reader.next();
         String expected = "<title>NASA</title>" +
                 "<description>Spaced text</description>" +
                 "<link>Multiline\n" +
                 "    text</link>";
-        assertEquals(expected, XMLEventCharactersReader.getCharacterData(event, eventReader));
+        assertEquals(expected, XMLEventCharactersReader.getCharacterData(reader));
 
-        eventReader.close();
+        reader.close();
+    }
+
+    @Test
+    @DisplayName("Test reading of event with both text and markup")
+    public void openingMixedEventReadTest() throws XMLStreamException, IllegalAccessException {
+        String file = "util" + File.separator + "mixedEvent.xml";
+        InputStream inputStream = XMLEventCharactersReaderTest.class.getClassLoader().getResourceAsStream(file);
+
+        XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream);
+        // Move from start of document to the first tag
+        reader.next();
+
+        String expected = "Fish &amp; chips <b>&lt;hot&gt;</b> served";
+        assertEquals(expected, XMLEventCharactersReader.getCharacterData(reader));
+
+        reader.close();
     }
 
     @Test(expected = IllegalAccessException.class)
@@ -60,15 +72,13 @@ public class XMLEventCharactersReaderTest {
         InputStream inputStream = XMLEventCharactersReaderTest.class.getClassLoader().getResourceAsStream(file);
 
         XMLInputFactory inputFactory = XMLInputFactory.newInstance();
-        XMLEventReader eventReader = inputFactory.createXMLEventReader(inputStream);
-        // Skip first <xml> event
-        eventReader.nextEvent();
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream);
+        // Move from start of document to the text of the first tag
+        reader.next();
+        reader.next();
+        XMLEventCharactersReader.getCharacterData(reader);
 
-        eventReader.nextEvent();
-        XMLEvent event = eventReader.nextEvent();
-        XMLEventCharactersReader.getCharacterData(event, eventReader);
-
-        eventReader.close();
+        reader.close();
     }
 
     @Test(expected = IllegalAccessException.class)
@@ -78,15 +88,13 @@ public class XMLEventCharactersReaderTest {
         InputStream inputStream = XMLEventCharactersReaderTest.class.getClassLoader().getResourceAsStream(file);
 
         XMLInputFactory inputFactory = XMLInputFactory.newInstance();
-        XMLEventReader eventReader = inputFactory.createXMLEventReader(inputStream);
-        // Skip first <xml> event
-        eventReader.nextEvent();
-
-        eventReader.nextEvent();
-        eventReader.nextEvent();
-        XMLEvent event = eventReader.nextEvent();
-        XMLEventCharactersReader.getCharacterData(event, eventReader);
-
-        eventReader.close();
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream);
+        // Move from start of document to the closing of the first tag
+        reader.next();
+        reader.next();
+        reader.next();
+        XMLEventCharactersReader.getCharacterData(reader);
+
+        reader.close();
     }
 }
\ No newline at end of file